@@ -0,0 +1,102 @@
+-- 무작위 UUIDv4 vs 시간 순 UUIDv7 BINARY(16) 기본 키의 INSERT 처리량 비교 벤치마크입니다.
+--
+-- 실행 (별도 스키마에서, 운영 DB에서 실행하지 마세요):
+--   mysql -u <user> -p vitaltrip_bench < benchmark/uuid-insert-benchmark.sql
+--
+-- emergency_chat_message와 같은 구조의 테이블 두 개에 각각 10,000행 단위 트랜잭션으로 10M행을 넣고,
+-- 1M행마다 구간 처리량(rows/s)을 bench_result에 남깁니다. 마지막에 구간별 처리량과 테이블/인덱스 크기를 출력합니다.
+-- v4는 행이 늘수록 B-tree 전체에 무작위로 삽입되어 버퍼 풀을 벗어나는 시점부터 처리량이 급격히 떨어지고,
+-- v7은 항상 오른쪽 끝에 추가되므로 처리량과 페이지 채움률이 일정하게 유지되는 것을 확인할 수 있습니다.
+-- (v7 id는 애플리케이션의 TimeOrderedUuid와 같은 배치로 만들며, 1행당 1ms씩 시간이 흐르는 것으로 가정합니다.)
+
+SET SESSION cte_max_recursion_depth = 10000;
+
+DROP TABLE IF EXISTS bench_message_v4, bench_message_v7, bench_seq, bench_result;
+DROP PROCEDURE IF EXISTS bench_insert;
+
+CREATE TABLE bench_message_v4
+(
+    id         BINARY(16)  NOT NULL,
+    session_id BINARY(16)  NOT NULL,
+    sender     VARCHAR(16) NOT NULL,
+    message    TEXT,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_session_created (session_id, created_at)
+) ENGINE = InnoDB;
+
+CREATE TABLE bench_message_v7 LIKE bench_message_v4;
+
+CREATE TABLE bench_seq
+(
+    n INT NOT NULL PRIMARY KEY
+) ENGINE = InnoDB;
+
+INSERT INTO bench_seq (n)
+WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < 9999)
+SELECT n FROM seq;
+
+CREATE TABLE bench_result
+(
+    variant      VARCHAR(2) NOT NULL,
+    rows_total   INT        NOT NULL,
+    seconds      DECIMAL(12, 3),
+    rows_per_sec DECIMAL(12, 1)
+) ENGINE = InnoDB;
+
+DELIMITER //
+CREATE PROCEDURE bench_insert(IN variant VARCHAR(2), IN total_rows INT)
+BEGIN
+    DECLARE inserted INT DEFAULT 0;
+    DECLARE base_ms BIGINT DEFAULT FLOOR(UNIX_TIMESTAMP(NOW(3)) * 1000);
+    DECLARE chunk_started DATETIME(6) DEFAULT NOW(6);
+    DECLARE elapsed DECIMAL(12, 3);
+
+    WHILE inserted < total_rows DO
+        START TRANSACTION;
+        IF variant = 'v4' THEN
+            INSERT INTO bench_message_v4 (id, session_id, sender, message, created_at)
+            SELECT RANDOM_BYTES(16),
+                   UNHEX(LPAD(HEX(FLOOR(RAND() * 100000)), 32, '0')),
+                   'USER',
+                   'benchmark message',
+                   NOW(6)
+            FROM bench_seq;
+        ELSE
+            INSERT INTO bench_message_v7 (id, session_id, sender, message, created_at)
+            SELECT UNHEX(CONCAT(LPAD(HEX(base_ms + inserted + n), 12, '0'),
+                                '7', LPAD(HEX(FLOOR(RAND() * 4096)), 3, '0'),
+                                HEX(RANDOM_BYTES(8)))),
+                   UNHEX(LPAD(HEX(FLOOR(RAND() * 100000)), 32, '0')),
+                   'USER',
+                   'benchmark message',
+                   NOW(6)
+            FROM bench_seq;
+        END IF;
+        COMMIT;
+
+        SET inserted = inserted + 10000;
+        IF inserted % 1000000 = 0 THEN
+            SET elapsed = TIMESTAMPDIFF(MICROSECOND, chunk_started, NOW(6)) / 1000000;
+            INSERT INTO bench_result VALUES (variant, inserted, elapsed, 1000000 / elapsed);
+            SET chunk_started = NOW(6);
+        END IF;
+    END WHILE;
+END //
+DELIMITER ;
+
+CALL bench_insert('v4', 10000000);
+CALL bench_insert('v7', 10000000);
+
+ANALYZE TABLE bench_message_v4, bench_message_v7;
+
+SELECT variant, rows_total, seconds, rows_per_sec
+FROM bench_result
+ORDER BY variant, rows_total;
+
+SELECT table_name,
+       ROUND(data_length / 1024 / 1024)  AS data_mb,
+       ROUND(index_length / 1024 / 1024) AS index_mb
+FROM information_schema.tables
+WHERE table_schema = DATABASE()
+  AND table_name IN ('bench_message_v4', 'bench_message_v7');
@@ -0,0 +1,63 @@
+package com.gdgoc5.vitaltrip.first_aid.confidence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 기존 방식(키워드마다 toLowerCase + contains)과 Aho-Corasick 오토마톤의 신뢰도 계산 비용을 비교합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KeywordScorerBenchmark {
+
+    private static final List<String> KEYWORDS = List.of("cool", "running water", "burn", "ointment");
+
+    @Param({"300", "3000"})
+    private int length;
+
+    private String content;
+    private KeywordAutomaton automaton;
+
+    @Setup
+    public void setUp() {
+        String sentence = "Cool the burned area under cool running water for at least 20 minutes. "
+                + "Do not apply ice, butter or toothpaste; cover loosely with a clean, non-fluffy dressing. ";
+        StringBuilder builder = new StringBuilder(length + sentence.length());
+        while (builder.length() < length) {
+            builder.append(sentence);
+        }
+        content = builder.substring(0, length);
+
+        Map<String, Double> keywords = new LinkedHashMap<>();
+        keywords.put("cool*", 1.0);
+        keywords.put("running water", 1.0);
+        keywords.put("burn*", 1.0);
+        keywords.put("ointment*", 1.0);
+        automaton = KeywordAutomaton.compile(keywords);
+    }
+
+    @Benchmark
+    public double legacyContains() {
+        long matched = KEYWORDS.stream()
+                .filter(word -> content.toLowerCase().contains(word.toLowerCase()))
+                .count();
+        return Math.max(0.3, (double) matched / KEYWORDS.size());
+    }
+
+    @Benchmark
+    public double automaton() {
+        return Math.max(0.3, automaton.score(content));
+    }
+}
@@ -0,0 +1,76 @@
+package com.gdgoc5.vitaltrip.config;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(GeminiProperties.class)
+public class GeminiConfig {
+
+    /**
+     * Gemini 전용 커넥션 풀입니다. 요청마다 WebClient를 새로 만들지 않고
+     * keep-alive 커넥션을 재사용해서 TCP/TLS 핸드셰이크 비용을 없앱니다.
+     * metrics(true)로 reactor.netty.connection.provider.* 지표가 노출됩니다.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider geminiConnectionProvider(GeminiProperties properties) {
+        GeminiProperties.Client client = properties.getClient();
+        return ConnectionProvider.builder("gemini")
+                .maxConnections(client.getMaxConnections())
+                .pendingAcquireMaxCount(client.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(client.getPendingAcquireTimeout())
+                .maxIdleTime(client.getMaxIdleTime())
+                .maxLifeTime(client.getMaxLifeTime())
+                .evictInBackground(Duration.ofSeconds(30))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient geminiWebClient(ConnectionProvider geminiConnectionProvider, GeminiProperties properties) {
+        GeminiProperties.Client client = properties.getClient();
+        long readTimeoutMillis = client.getReadTimeout().toMillis();
+        // 로컬 스텁처럼 http:// base-url을 쓰면 TLS와 HTTP/2(h2는 TLS 협상 필요)를 끕니다.
+        boolean secure = "https".equalsIgnoreCase(URI.create(properties.getApi().getBaseUrl()).getScheme());
+
+        HttpClient httpClient = HttpClient.create(geminiConnectionProvider)
+                .protocol(client.isHttp2() && secure
+                        ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11}
+                        : new HttpProtocol[]{HttpProtocol.HTTP11});
+        if (secure) {
+            httpClient = httpClient.secure();
+        }
+        httpClient = httpClient
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) client.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(client.getResponseTimeout())
+                // 요청 단위로 붙이는 핸들러는 커넥션이 풀로 반환될 때 제거되므로 유휴 커넥션을 끊지 않습니다.
+                .doOnRequest((request, connection) ->
+                        connection.addHandlerLast(new ReadTimeoutHandler(readTimeoutMillis, TimeUnit.MILLISECONDS)))
+                // 경로에 모델 이름과 캐시 ID가 그대로 들어가므로(models/{model}:generateContent, cachedContents/{id})
+                // 원래 URI를 태그로 쓰면 값이 계속 늘어납니다. 리소스 종류별로 고정한 태그를 씁니다.
+                .metrics(true, uri -> uri.contains("/cachedContents") ? "/v1beta/cachedContents" : "/v1beta/models");
+
+        return WebClient.builder()
+                .baseUrl(properties.getApi().getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .defaultHeader("x-goog-api-key", properties.getApi().getKey())
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.gdgoc5.vitaltrip.config;
+
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencySeverity;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@ConfigurationProperties(prefix = "gemini")
+public class GeminiProperties {
+
+    private final Api api = new Api();
+    private final Client client = new Client();
+    private final Routing routing = new Routing();
+
+    @Getter
+    @Setter
+    public static class Api {
+        private String key;
+        private String baseUrl = "https://generativelanguage.googleapis.com";
+        private String model = "gemini-2.0-flash";
+        // responseMimeType + responseSchema로 조언 JSON 형식을 강제할지 여부
+        private boolean structuredOutput = true;
+    }
+
+    /**
+     * Gemini 호출용 Reactor Netty 커넥션 풀 / 타임아웃 설정입니다.
+     */
+    @Getter
+    @Setter
+    public static class Client {
+        private Duration connectTimeout = Duration.ofSeconds(3);
+        private Duration responseTimeout = Duration.ofSeconds(20);
+        private Duration readTimeout = Duration.ofSeconds(30);
+        private int maxConnections = 50;
+        private int pendingAcquireMaxCount = 200;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+        private Duration maxIdleTime = Duration.ofSeconds(60);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private boolean http2 = true;
+    }
+
+    /**
+     * 요청마다 사용할 모델 티어를 고르는 설정입니다. tiers가 비어 있으면 api.model 하나만 사용합니다.
+     * 티어는 비용이 낮은 것부터 나열하며, 마지막 티어는 조건과 관계없이 모든 요청을 처리할 수 있어야 합니다.
+     */
+    @Getter
+    @Setter
+    public static class Routing {
+        private List<Tier> tiers = new ArrayList<>();
+        // 티어의 최근 p95 응답 시간이 이 값을 넘으면 다음 티어로 넘깁니다.
+        private Duration latencySlo = Duration.ofSeconds(4);
+        private double maxErrorRate = 0.2;
+        // 통계는 이 기간 안의 호출만 봅니다. 기간이 지나면 밀려난 티어도 다시 시도됩니다.
+        private Duration statsWindow = Duration.ofMinutes(2);
+        // 표본이 이보다 적으면 통계로 판단하지 않고 정상으로 봅니다.
+        private int minSamples = 10;
+    }
+
+    @Getter
+    @Setter
+    public static class Tier {
+        private String name;
+        private String model;
+        // 이 위급도 이하의 초기 상담만 처리합니다. 비어 있으면 제한이 없습니다.
+        private EmergencySeverity maxSeverity;
+        // 후속 상담에 적용할 위급도 상한입니다. 비어 있으면 maxSeverity를 따릅니다.
+        private EmergencySeverity followUpMaxSeverity;
+        // 요청 본문 추정 크기(바이트) 상한입니다. 0이면 제한이 없습니다.
+        private int maxPromptSize;
+    }
+}
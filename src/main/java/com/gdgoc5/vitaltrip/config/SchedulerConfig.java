@@ -0,0 +1,37 @@
+package com.gdgoc5.vitaltrip.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+@Configuration
+public class SchedulerConfig {
+
+    /**
+     * JPA 같은 블로킹 호출을 리액티브 파이프라인 밖으로 빼내기 위한 스케줄러입니다.
+     * 스레드 수는 커넥션 풀 크기(Hikari 기본 10)에 맞춰 두어, 커넥션을 기다리며 노는 스레드가 생기지 않게 합니다.
+     * 대기 작업 수도 제한해서 DB가 느려지면 큐가 무한히 쌓이지 않고 바로 거절됩니다.
+     */
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Scheduler jpaScheduler(@Value("${vitaltrip.jpa-scheduler.thread-cap:10}") int threadCap,
+                                  @Value("${vitaltrip.jpa-scheduler.queued-task-cap:1000}") int queuedTaskCap) {
+        return Schedulers.newBoundedElastic(threadCap, queuedTaskCap, "jpa");
+    }
+
+    /**
+     * 가상 스레드 모드(spring.threads.virtual.enabled=true)에서는 블로킹 작업마다 가상 스레드를 하나씩 띄웁니다.
+     * 동시 실행 수는 스레드 풀이 아니라 Hikari 커넥션 풀(connection-timeout 포함)이 제한합니다.
+     */
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Scheduler virtualJpaScheduler() {
+        return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "jpa-virtual");
+    }
+}
@@ -0,0 +1,80 @@
+package com.gdgoc5.vitaltrip.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * 가상 스레드가 캐리어 스레드에 고정(pinning)되는 상황을 JFR 이벤트(jdk.VirtualThreadPinned)로 감시합니다.
+ * synchronized 블록 안에서 I/O를 기다리는 드라이버 코드 등이 원인이 되며, 발생하면 스택을 로그로 남기고
+ * vitaltrip.virtual-thread.pinned 카운터를 올립니다.
+ *
+ * <p>Java 21에서는 synchronized 안에서 대기하는 가상 스레드가 캐리어 스레드를 붙잡으므로,
+ * 애플리케이션 코드에서 요청 경로의 공유 상태를 보호할 때는 synchronized 대신 ReentrantLock을 사용합니다.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final Counter pinnedCounter;
+    private final Duration threshold;
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${vitaltrip.virtual-thread.pinning-threshold:20ms}") Duration threshold) {
+        this.pinnedCounter = Counter.builder("vitaltrip.virtual-thread.pinned")
+                .description("캐리어 스레드에 고정된 가상 스레드 수")
+                .register(meterRegistry);
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("가상 스레드 pinning 감시 시작 (threshold={})", threshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        if (event.getStackTrace() == null) {
+            log.warn("가상 스레드 pinning 감지: {}ms", event.getDuration().toMillis());
+            return;
+        }
+        String frames = event.getStackTrace().getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(VirtualThreadPinningMonitor::format)
+                .collect(Collectors.joining("\n\tat "));
+        log.warn("가상 스레드 pinning 감지: {}ms\n\tat {}", event.getDuration().toMillis(), frames);
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -4,6 +4,7 @@ import com.gdgoc5.vitaltrip.custom.ErrorResponse;
 import io.swagger.v3.oas.annotations.Hidden;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
@@ -23,10 +24,25 @@ public class GlobalExceptionHandler {
                 .body(ErrorResponse.of("잘못된 요청입니다.", "BAD_REQUEST"));
     }
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException e) {
+        return ResponseEntity
+                .badRequest()
+                .body(ErrorResponse.of(e.getMessage(), "BAD_REQUEST"));
+    }
+
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<ErrorResponse> handleNotFoundException(NotFoundException e) {
         return ResponseEntity
                 .status(404)
                 .body(ErrorResponse.of(e.getMessage(), "NOT_FOUND"));
     }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(ServiceUnavailableException e) {
+        return ResponseEntity
+                .status(503)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(ErrorResponse.of(e.getMessage(), "SERVICE_UNAVAILABLE"));
+    }
 }
@@ -0,0 +1,68 @@
+package com.gdgoc5.vitaltrip.first_aid;
+
+import com.gdgoc5.vitaltrip.first_aid.prompt.PromptTemplateEngine;
+
+/**
+ * 스트리밍 응답을 "조언 본문"과 구분자 뒤의 "메타데이터(JSON)"로 나눕니다.
+ * 구분자가 청크 경계에 걸쳐 들어올 수 있으므로 구분자 길이만큼은 항상 버퍼에 남겨둡니다.
+ * 하나의 스트림(구독) 안에서만 사용하며 스레드 안전하지 않습니다.
+ */
+class AdviceStreamSplitter {
+
+    static final String DELIMITER = PromptTemplateEngine.META_DELIMITER;
+
+    private final StringBuilder advice = new StringBuilder();
+    private final StringBuilder pending = new StringBuilder();
+    private final StringBuilder meta = new StringBuilder();
+    private boolean inMeta;
+
+    /**
+     * 새 청크를 받아 지금 바로 클라이언트에 보낼 수 있는 조언 텍스트를 반환합니다.
+     */
+    String accept(String chunk) {
+        if (inMeta) {
+            meta.append(chunk);
+            return "";
+        }
+
+        pending.append(chunk);
+        int delimiterIndex = pending.indexOf(DELIMITER);
+        if (delimiterIndex >= 0) {
+            String text = pending.substring(0, delimiterIndex);
+            meta.append(pending, delimiterIndex + DELIMITER.length(), pending.length());
+            pending.setLength(0);
+            inMeta = true;
+            return emit(text);
+        }
+
+        int safeLength = pending.length() - (DELIMITER.length() - 1);
+        if (safeLength <= 0) {
+            return "";
+        }
+        String text = pending.substring(0, safeLength);
+        pending.delete(0, safeLength);
+        return emit(text);
+    }
+
+    /**
+     * 스트림 종료 시 버퍼에 남아 있는 조언 텍스트를 반환합니다.
+     */
+    String flush() {
+        String text = pending.toString();
+        pending.setLength(0);
+        return emit(text);
+    }
+
+    String advice() {
+        return advice.toString().trim();
+    }
+
+    String meta() {
+        return meta.toString().trim();
+    }
+
+    private String emit(String text) {
+        advice.append(text);
+        return text;
+    }
+}
@@ -0,0 +1,30 @@
+package com.gdgoc5.vitaltrip.first_aid;
+
+import com.gdgoc5.vitaltrip.custom.SuccessResponse;
+import com.gdgoc5.vitaltrip.first_aid.cache.AdviceCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "First Aid Admin", description = "응급처치 서비스 운영 API")
+@RestController
+@RequestMapping("/first-aid/admin")
+public class FirstAidAdminController {
+
+    private final AdviceCache adviceCache;
+
+    public FirstAidAdminController(AdviceCache adviceCache) {
+        this.adviceCache = adviceCache;
+    }
+
+    @Operation(
+            summary = "초기 상담 캐시 비우기",
+            description = "프롬프트나 모델이 바뀌었을 때 캐시된 초기 상담 응답을 모두 제거합니다. 제거된 대략적인 항목 수를 반환합니다."
+    )
+    @DeleteMapping("/advice-cache")
+    public SuccessResponse<Long> flushAdviceCache() {
+        return SuccessResponse.of("초기 상담 캐시를 비웠습니다.", adviceCache.flush());
+    }
+}
@@ -1,9 +1,12 @@
 package com.gdgoc5.vitaltrip.first_aid;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.gdgoc5.vitaltrip.custom.ErrorResponse;
 import com.gdgoc5.vitaltrip.custom.SuccessResponse;
-import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyManualResponse;
+import com.gdgoc5.vitaltrip.exception.ServiceUnavailableException;
 import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+import com.gdgoc5.vitaltrip.first_aid.manual.ManualCatalog;
+import com.gdgoc5.vitaltrip.first_aid.manual.RenderedManuals;
+import com.gdgoc5.vitaltrip.first_aid.triage.EmergencyTriage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,20 +14,32 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import java.util.List;
 import java.util.UUID;
 import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatMessageResponse;
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatHistoryResponse;
 import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatAdviceResponse;
 import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatAdviceRequest;
 import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatContinueRequest;
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatStreamEvent;
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyManualSearchHitResponse;
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyTriageResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Slf4j
 @Tag(name = "First Aid", description = "응급처치 AI 상담 API")
@@ -32,15 +47,26 @@ import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatContinueRequest;
 @RequestMapping("/first-aid")
 public class FirstAidController {
 
+    private static final int MAX_SEARCH_LIMIT = 50;
+
     private final FirstAidService firstAidService;
+    private final ManualCatalog manualCatalog;
+    private final EmergencyTriage emergencyTriage;
 
-    public FirstAidController(FirstAidService firstAidService) {
+    public FirstAidController(FirstAidService firstAidService, ManualCatalog manualCatalog, EmergencyTriage emergencyTriage) {
         this.firstAidService = firstAidService;
+        this.manualCatalog = manualCatalog;
+        this.emergencyTriage = emergencyTriage;
     }
 
     @Operation(
         summary = "응급처치 초기 상담",
-        description = "응급 상황에 대한 첫 AI 응급조치를 수행하고 세션 ID를 반환합니다.",
+        description = "응급 상황에 대한 첫 AI 응급조치를 수행하고 세션 ID를 반환합니다. "
+                + "메시지가 해당 유형의 매뉴얼과 충분히 맞으면 AI를 호출하지 않고 매뉴얼로 바로 답하며 source가 MANUAL입니다. "
+                + "이때 앱은 \"AI에게 더 물어보기\"를 보여주고, 선택하면 같은 요청을 preferAi=true로 다시 보내거나 "
+                + "반환된 세션으로 상담을 이어가면 됩니다. source는 AI, MANUAL, MANUAL_FALLBACK(AI 응답 실패 시 매뉴얼) 중 하나입니다. "
+                + "emergencyType을 생략하면 서버가 메시지로 유형을 추정해 triage에 담고, 추정 신뢰도가 낮으면 400을 반환합니다. "
+                + "AI 상담 요청이 몰려 동시 호출 한도를 넘으면 매뉴얼로 대체하지 않고 503과 Retry-After 헤더를 반환합니다.",
         responses = {
             @ApiResponse(
                 responseCode = "200",
@@ -67,12 +93,7 @@ public class FirstAidController {
         }
     )
     @PostMapping("/chat")
-    @Retryable(
-            value = { JsonProcessingException.class, RuntimeException.class },
-            maxAttempts = 3,
-            backoff = @Backoff(delay = 1000, multiplier = 2)
-    )
-    public SuccessResponse<EmergencyChatAdviceResponse> getEmergencyAidAdvice(
+    public Mono<SuccessResponse<EmergencyChatAdviceResponse>> getEmergencyAidAdvice(
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     description = "응급 상황 종류와 사용자 메시지를 담은 요청",
                     required = true,
@@ -83,7 +104,8 @@ public class FirstAidController {
                                     value = """
                                     {
                                           "emergencyType": "HYPOTHERMIA",
-                                          "userMessage": "I can't feel my hands. It's really cold."
+                                          "userMessage": "I can't feel my hands. It's really cold.",
+                                          "preferAi": false
                                     }
                                     """
                             )
@@ -93,12 +115,61 @@ public class FirstAidController {
     ) {
         String emergencyType = request.emergencyType();
         String userMessage = request.userMessage();
-        return SuccessResponse.of(firstAidService.getEmergencyChatAdvice(emergencyType, userMessage));
+        return firstAidService.getEmergencyChatAdvice(emergencyType, userMessage, request.userId(), request.prefersAi())
+                .map(SuccessResponse::of);
+    }
+
+    @Operation(
+        summary = "응급처치 초기 상담 (스트리밍)",
+        description = "첫 AI 응급조치를 SSE로 스트리밍합니다. 조언 텍스트는 token 이벤트로 도착하는 대로 전송되고, "
+                + "마지막 complete 이벤트에 recommendedAction, confidence, blogLinks, sessionId, source가 담깁니다. "
+                + "매뉴얼로 바로 답하는 경우(source=MANUAL) 본문 전체가 token 이벤트 하나로 전송됩니다. "
+                + "emergencyType을 생략하면 추정한 유형이 complete 이벤트의 triage에 담깁니다.",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "SSE 스트림",
+                content = @Content(
+                    mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                    examples = @ExampleObject(
+                        name = "스트리밍 응답 예시",
+                        value = """
+                        event:token
+                        data:You are experiencing hypothermia.
+
+                        event:token
+                        data: Find shelter immediately, ideally indoors.
+
+                        event:complete
+                        data:{"content":"You are experiencing hypothermia. Find shelter immediately, ideally indoors.","recommendedAction":"Seek immediate medical attention.","confidence":0.9,"blogLinks":["https://www.mayoclinic.org/diseases-conditions/hypothermia/diagnosis-treatment/drc-20352688"],"sessionId":"cb078b20-3bb3-47d1-8944-6c7edcaff42b","source":"AI"}
+                        """
+                    )
+                )
+            )
+        }
+    )
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamEmergencyAidAdvice(@RequestBody EmergencyChatAdviceRequest request) {
+        return toServerSentEvents(firstAidService.streamEmergencyChatAdvice(request.emergencyType(), request.userMessage(), request.userId(), request.prefersAi()));
+    }
+
+    @Operation(
+        summary = "응급처치 상담 계속하기 (스트리밍)",
+        description = "세션 ID를 사용하여 기존 응급처치 상담을 SSE 스트림으로 이어갑니다. 이벤트 형식은 초기 상담 스트리밍과 같습니다."
+    )
+    @PostMapping(value = "/chat/{sessionId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamContinueEmergencyChat(
+            @PathVariable UUID sessionId,
+            @RequestBody EmergencyChatContinueRequest request
+    ) {
+        return toServerSentEvents(firstAidService.continueEmergencyChatStream(sessionId, request.userMessage()));
     }
 
     @Operation(
         summary = "기존 세션의 전체 대화 조회",
-        description = "세션 ID를 기반으로 기존의 응급처치 상담 대화를 전부 조회합니다.",
+        description = "세션 ID를 기반으로 기존의 응급처치 상담 대화를 전부 조회합니다. "
+                + "긴 세션은 /chat/{sessionId}/messages(페이지 조회)나 /chat/{sessionId}/messages/export(스트리밍)를 사용하세요.",
+        deprecated = true,
         responses = {
             @ApiResponse(
                 responseCode = "200",
@@ -141,13 +212,70 @@ public class FirstAidController {
         }
     )
     @GetMapping("/chat/{sessionId}")
-    public SuccessResponse<List<EmergencyChatMessageResponse>> getChatMessages(@PathVariable UUID sessionId) {
-        return SuccessResponse.of(firstAidService.getChatMessagesBySessionId(sessionId));
+    public Mono<SuccessResponse<List<EmergencyChatMessageResponse>>> getChatMessages(@PathVariable UUID sessionId) {
+        return firstAidService.getChatMessagesBySessionId(sessionId)
+                .map(SuccessResponse::of);
+    }
+
+    @Operation(
+        summary = "대화 내역 페이지 조회",
+        description = "세션의 대화를 오래된 순으로 limit개씩 조회합니다. 응답의 nextCursor를 after로 넘기면 다음 페이지를 받습니다.",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "대화 페이지 반환",
+                content = @Content(
+                    mediaType = "application/json",
+                    examples = @ExampleObject(
+                        name = "대화 페이지 예시",
+                        value = """
+                        {
+                          "result": "SUCCESS",
+                          "message": "요청이 성공적으로 처리되었습니다.",
+                          "data": {
+                            "messages": [
+                              {
+                                "sender": "USER",
+                                "message": "It's so cold I can't feel my hands.",
+                                "createdAt": "2025-05-13T14:51:36.654435"
+                              }
+                            ],
+                            "nextCursor": "AAAAAGgjXdgnAQ5YAZbJ7w3jcKqLe1WqPLOQVA",
+                            "hasNext": true
+                          }
+                        }
+                        """
+                    )
+                )
+            ),
+            @ApiResponse(responseCode = "400", description = "잘못된 커서")
+        }
+    )
+    @GetMapping("/chat/{sessionId}/messages")
+    public Mono<SuccessResponse<EmergencyChatHistoryResponse>> getChatHistory(
+            @PathVariable UUID sessionId,
+            @Parameter(description = "이전 페이지 응답의 nextCursor. 없으면 처음부터 조회합니다.")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "페이지 크기 (기본 50, 최대 200)", example = "50")
+            @RequestParam(required = false) Integer limit
+    ) {
+        return firstAidService.getChatHistory(sessionId, after, limit)
+                .map(SuccessResponse::of);
+    }
+
+    @Operation(
+        summary = "대화 내역 내보내기",
+        description = "세션의 전체 대화를 한 줄에 메시지 하나씩 NDJSON으로 스트리밍합니다. 서버는 페이지 단위로 읽어 흘려보내므로 세션 길이와 관계없이 사용할 수 있습니다."
+    )
+    @GetMapping(value = "/chat/{sessionId}/messages/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<EmergencyChatMessageResponse> exportChatMessages(@PathVariable UUID sessionId) {
+        return firstAidService.exportChatMessages(sessionId);
     }
 
     @Operation(
         summary = "응급처치 상담 계속하기",
-        description = "세션 ID를 사용하여 기존 응급처치 상담을 이어갑니다.",
+        description = "세션 ID를 사용하여 기존 응급처치 상담을 이어갑니다. "
+                + "AI 상담 요청이 몰려 동시 호출 한도를 넘으면 503과 Retry-After 헤더를 반환합니다.",
         responses = {
             @ApiResponse(
                 responseCode = "200",
@@ -178,12 +306,7 @@ public class FirstAidController {
         }
     )
     @PostMapping("/chat/{sessionId}")
-    @Retryable(
-            value = { JsonProcessingException.class, RuntimeException.class },
-            maxAttempts = 3,
-            backoff = @Backoff(delay = 1000, multiplier = 2)
-    )
-    public SuccessResponse<EmergencyChatAdviceResponse> continueEmergencyChat(
+    public Mono<SuccessResponse<EmergencyChatAdviceResponse>> continueEmergencyChat(
             @PathVariable UUID sessionId,
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     description = "사용자의 추가 질문",
@@ -203,7 +326,8 @@ public class FirstAidController {
             @RequestBody EmergencyChatContinueRequest request
     ) {
         String userMessage = request.userMessage();
-        return SuccessResponse.of(firstAidService.continueEmergencyChat(sessionId, userMessage));
+        return firstAidService.continueEmergencyChat(sessionId, userMessage)
+                .map(SuccessResponse::of);
     }
 
     @Operation(
@@ -261,10 +385,13 @@ public class FirstAidController {
                     )
             }
     )
-    @GetMapping("/manuals/{emergencyType}")
-    public SuccessResponse<List<EmergencyManualResponse>> getManualByType(@PathVariable EmergencyType emergencyType) {
-        return SuccessResponse.of(firstAidService.getManualByEmergencyType(emergencyType)
-                .stream().map(EmergencyManualResponse::from).toList());
+    @GetMapping(value = "/manuals/{emergencyType}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getManualByType(
+            @PathVariable EmergencyType emergencyType,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return toManualResponse(manualCatalog.renderedByType(emergencyType), ifNoneMatch, acceptEncoding);
     }
 
     @Operation(
@@ -307,13 +434,221 @@ public class FirstAidController {
             )
         }
     )
-    @GetMapping("/manuals")
-    public SuccessResponse<List<EmergencyManualResponse>> getAllManuals() {
-        return SuccessResponse.of(firstAidService.getAllManuals()
-                .stream()
-                .map(EmergencyManualResponse::from)
-                .toList());
+    @GetMapping(value = "/manuals", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAllManuals(
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return toManualResponse(manualCatalog.renderedAll(), ifNoneMatch, acceptEncoding);
     }
 
+    @Operation(
+        summary = "응급처치 매뉴얼 검색",
+        description = "증상이나 상황을 자유롭게 입력하면 관련 매뉴얼을 관련도 순으로 반환합니다. "
+                + "오타와 입력 중인 단어도 찾으며, 메모리 인덱스만 사용하므로 입력할 때마다 호출해도 됩니다.",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "검색 결과",
+                content = @Content(
+                    mediaType = "application/json",
+                    examples = @ExampleObject(
+                        name = "검색 응답 예시",
+                        value = """
+                        {
+                          "result": "SUCCESS",
+                          "message": "요청이 성공적으로 처리되었습니다.",
+                          "data": [
+                            {
+                              "id": 21,
+                              "emergencyType": "POISONING",
+                              "title": "Swallowed Household Chemicals",
+                              "snippet": "First aid when a child <em>swallows</em> <em>bleach</em>, detergent or other household chemicals",
+                              "score": 2.78
+                            }
+                          ]
+                        }
+                        """
+                    )
+                )
+            )
+        }
+    )
+    @GetMapping("/manuals/search")
+    public SuccessResponse<List<EmergencyManualSearchHitResponse>> searchManuals(
+            @Parameter(description = "검색어", example = "my kid swallowed bleach")
+            @RequestParam(defaultValue = "") String q,
+            @Parameter(description = "최대 결과 수 (기본 10, 최대 50)", example = "10")
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        List<EmergencyManualSearchHitResponse> hits = manualCatalog.search(q, Math.min(limit, MAX_SEARCH_LIMIT)).stream()
+                .map(EmergencyManualSearchHitResponse::from)
+                .toList();
+        return SuccessResponse.of(hits);
+    }
+
+    @Operation(
+        summary = "응급 유형 추정",
+        description = "사용자 메시지로 응급 유형을 추정합니다. 초기 상담에서 emergencyType을 생략했을 때와 같은 분류기이며, "
+                + "AI를 호출하지 않으므로 입력 중에 호출해 유형 선택을 미리 채워도 됩니다. 신뢰도가 낮아도 결과를 그대로 반환합니다.",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "추정 결과",
+                content = @Content(
+                    mediaType = "application/json",
+                    examples = @ExampleObject(
+                        name = "유형 추정 응답 예시",
+                        value = """
+                        {
+                          "result": "SUCCESS",
+                          "message": "요청이 성공적으로 처리되었습니다.",
+                          "data": {
+                            "emergencyType": "POISONING",
+                            "confidence": 0.93,
+                            "candidates": [
+                              { "emergencyType": "POISONING", "probability": 0.93 },
+                              { "emergencyType": "BURNS", "probability": 0.03 },
+                              { "emergencyType": "CHOKING", "probability": 0.01 }
+                            ]
+                          }
+                        }
+                        """
+                    )
+                )
+            )
+        }
+    )
+    @GetMapping("/triage")
+    public SuccessResponse<EmergencyTriageResponse> triage(
+            @Parameter(description = "사용자 메시지", example = "my kid swallowed bleach")
+            @RequestParam String q
+    ) {
+        return SuccessResponse.of(EmergencyTriageResponse.from(emergencyTriage.predict(q)));
+    }
+
+    @Operation(
+        summary = "오프라인 매뉴얼 번들 조회",
+        description = "앱 로컬 저장용 전체 매뉴얼 스냅샷을 버전과 함께 반환합니다. gzip 압축과 ETag(304)를 지원하며, "
+                + "이후에는 반환된 version으로 변경분 API를 호출합니다.",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "매뉴얼 번들",
+                content = @Content(
+                    mediaType = "application/json",
+                    examples = @ExampleObject(
+                        name = "번들 응답 예시",
+                        value = """
+                        {
+                          "result": "SUCCESS",
+                          "message": "요청이 성공적으로 처리되었습니다.",
+                          "data": {
+                            "version": 1747115878000,
+                            "manuals": [
+                              {
+                                "id": 1,
+                                "emergencyType": "BURNS",
+                                "title": "Burns from Hot Water",
+                                "description": "Basic first aid for burns caused by hot water.",
+                                "steps": "1. Cool the burned area under running cold water for 10-15 minutes.\\n2. Cover with a clean gauze.",
+                                "warning": "Do not apply ice directly or rub the skin.",
+                                "updatedAt": "2025-05-13T05:57:58"
+                              }
+                            ]
+                          }
+                        }
+                        """
+                    )
+                )
+            )
+        }
+    )
+    @GetMapping(value = "/manuals/bundle", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getManualBundle(
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return toManualResponse(manualCatalog.renderedBundle(), ifNoneMatch, acceptEncoding);
+    }
 
+    @Operation(
+        summary = "매뉴얼 변경분 조회",
+        description = "since 버전 이후 추가/수정된 매뉴얼과 삭제된 매뉴얼 ID를 반환합니다. "
+                + "fullResync가 true이면 번들을 다시 받아야 합니다.",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "매뉴얼 변경분",
+                content = @Content(
+                    mediaType = "application/json",
+                    examples = @ExampleObject(
+                        name = "변경분 응답 예시",
+                        value = """
+                        {
+                          "result": "SUCCESS",
+                          "message": "요청이 성공적으로 처리되었습니다.",
+                          "data": {
+                            "version": 1747120000000,
+                            "fullResync": false,
+                            "updated": [],
+                            "deleted": [3]
+                          }
+                        }
+                        """
+                    )
+                )
+            )
+        }
+    )
+    @GetMapping(value = "/manuals/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getManualChanges(
+            @Parameter(description = "클라이언트가 마지막으로 동기화한 version", example = "1747115878000")
+            @RequestParam long since,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return toManualResponse(manualCatalog.renderedChangesSince(since), ifNoneMatch, acceptEncoding);
+    }
+
+    /**
+     * 미리 렌더링된 매뉴얼 본문을 그대로 내려보냅니다.
+     * If-None-Match가 일치하면 본문 없이 304를, 클라이언트가 gzip을 받을 수 있으면 압축된 본문을 반환합니다.
+     */
+    private ResponseEntity<byte[]> toManualResponse(RenderedManuals rendered, String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = gzip ? rendered.gzipEtag() : rendered.etag();
+
+        if (rendered.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(rendered.gzip());
+        }
+        return builder.body(rendered.json());
+    }
+
+    private Flux<ServerSentEvent<Object>> toServerSentEvents(Flux<EmergencyChatStreamEvent> events) {
+        return events
+                .onErrorResume(ServiceUnavailableException.class, e -> Flux.just(EmergencyChatStreamEvent.error(
+                        ErrorResponse.of(e.getMessage(), "SERVICE_UNAVAILABLE"))))
+                .onErrorResume(e -> {
+                    log.error("응급처치 상담 스트리밍 중 오류 발생", e);
+                    return Flux.just(EmergencyChatStreamEvent.error(
+                            ErrorResponse.of("AI 상담 응답 생성 중 오류가 발생했습니다.", "INTERNAL_SERVER_ERROR")));
+                })
+                .map(event -> ServerSentEvent.builder(event.data())
+                        .event(event.event())
+                        .build());
+    }
 }
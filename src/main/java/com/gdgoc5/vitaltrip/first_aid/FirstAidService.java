@@ -1,239 +1,461 @@
 package com.gdgoc5.vitaltrip.first_aid;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gdgoc5.vitaltrip.exception.NotFoundException;
+import com.gdgoc5.vitaltrip.exception.ServiceUnavailableException;
+import com.gdgoc5.vitaltrip.first_aid.cache.AdviceCache;
+import com.gdgoc5.vitaltrip.first_aid.client.GeminiAdvice;
+import com.gdgoc5.vitaltrip.first_aid.client.GeminiClient;
+import com.gdgoc5.vitaltrip.first_aid.client.GeminiConcurrencyLimiter;
+import com.gdgoc5.vitaltrip.first_aid.client.GeminiModelRouter;
+import com.gdgoc5.vitaltrip.first_aid.client.GeminiRequestCoalescer;
+import com.gdgoc5.vitaltrip.first_aid.client.GeminiResilienceExecutor;
+import com.gdgoc5.vitaltrip.first_aid.client.GeminiResponseDecoder;
+import com.gdgoc5.vitaltrip.first_aid.client.GeminiRoute;
+import com.gdgoc5.vitaltrip.first_aid.confidence.KeywordScorer;
+import com.gdgoc5.vitaltrip.first_aid.context.ConversationContextStore;
+import com.gdgoc5.vitaltrip.first_aid.context.ConversationHistory;
+import com.gdgoc5.vitaltrip.first_aid.dto.AdviceSource;
 import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatAdviceResponse;
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatHistoryResponse;
 import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatMessageResponse;
-import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyChatMessage;
-import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyChatSession;
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatStreamEvent;
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyTriageResponse;
 import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyManual;
 import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
-import com.gdgoc5.vitaltrip.first_aid.repository.EmergencyChatMessageRepository;
+import com.gdgoc5.vitaltrip.first_aid.history.ChatHistoryReader;
+import com.gdgoc5.vitaltrip.first_aid.manual.ManualCatalog;
+import com.gdgoc5.vitaltrip.first_aid.manual.ManualFastPath;
+import com.gdgoc5.vitaltrip.first_aid.persistence.ChatWrite;
+import com.gdgoc5.vitaltrip.first_aid.persistence.ChatWriteBehind;
+import com.gdgoc5.vitaltrip.first_aid.persistence.PendingChatMessage;
+import com.gdgoc5.vitaltrip.first_aid.persistence.PendingChatSession;
+import com.gdgoc5.vitaltrip.first_aid.persistence.TimeOrderedUuid;
+import com.gdgoc5.vitaltrip.first_aid.prompt.GeminiPrompt;
+import com.gdgoc5.vitaltrip.first_aid.prompt.PromptKind;
+import com.gdgoc5.vitaltrip.first_aid.prompt.PromptTemplateEngine;
 import com.gdgoc5.vitaltrip.first_aid.repository.EmergencyChatSessionRepository;
-import com.gdgoc5.vitaltrip.first_aid.repository.EmergencyManualRepository;
+import com.gdgoc5.vitaltrip.first_aid.session.SessionCache;
+import com.gdgoc5.vitaltrip.first_aid.session.SessionDescriptor;
+import com.gdgoc5.vitaltrip.first_aid.session.SessionSummaryReader;
+import com.gdgoc5.vitaltrip.first_aid.triage.EmergencyTriage;
+import com.gdgoc5.vitaltrip.first_aid.triage.TriagePrediction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.http.MediaType;
-import org.springframework.beans.factory.annotation.Value;
-import java.util.Map;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import java.time.LocalDateTime;
 import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
 import java.util.List;
-import java.util.logging.Logger;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 @Slf4j
 @Service
 public class FirstAidService {
 
-    @Value("${gemini.api.key}")
-    private String apiKey;
-
+    private final GeminiClient geminiClient;
+    private final GeminiResponseDecoder responseDecoder;
+    private final PromptTemplateEngine promptEngine;
+    private final ConversationContextStore contextStore;
+    private final SessionCache sessionCache;
+    private final ChatWriteBehind chatWriter;
+    private final ChatHistoryReader historyReader;
+    private final SessionSummaryReader sessionSummaryReader;
+    private final GeminiRequestCoalescer requestCoalescer;
+    private final GeminiConcurrencyLimiter concurrencyLimiter;
+    private final GeminiResilienceExecutor resilienceExecutor;
+    private final GeminiModelRouter modelRouter;
+    private final AdviceCache adviceCache;
+    private final KeywordScorer keywordScorer;
+    private final ManualCatalog manualCatalog;
+    private final ManualFastPath manualFastPath;
+    private final EmergencyTriage emergencyTriage;
     private final EmergencyChatSessionRepository sessionRepository;
-    private final EmergencyChatMessageRepository messageRepository;
-    private final EmergencyManualRepository manualRepository;
+    private final Scheduler jpaScheduler;
+    private final Counter fallbackCounter;
 
     @Autowired
-    public FirstAidService(EmergencyChatSessionRepository sessionRepository,
-                           EmergencyChatMessageRepository messageRepository,
-                           EmergencyManualRepository manualRepository) {
+    public FirstAidService(GeminiClient geminiClient,
+                           GeminiResponseDecoder responseDecoder,
+                           PromptTemplateEngine promptEngine,
+                           ConversationContextStore contextStore,
+                           SessionCache sessionCache,
+                           ChatWriteBehind chatWriter,
+                           ChatHistoryReader historyReader,
+                           SessionSummaryReader sessionSummaryReader,
+                           GeminiRequestCoalescer requestCoalescer,
+                           GeminiConcurrencyLimiter concurrencyLimiter,
+                           GeminiResilienceExecutor resilienceExecutor,
+                           GeminiModelRouter modelRouter,
+                           AdviceCache adviceCache,
+                           KeywordScorer keywordScorer,
+                           ManualCatalog manualCatalog,
+                           ManualFastPath manualFastPath,
+                           EmergencyTriage emergencyTriage,
+                           EmergencyChatSessionRepository sessionRepository,
+                           Scheduler jpaScheduler,
+                           MeterRegistry meterRegistry) {
+        this.geminiClient = geminiClient;
+        this.responseDecoder = responseDecoder;
+        this.promptEngine = promptEngine;
+        this.contextStore = contextStore;
+        this.sessionCache = sessionCache;
+        this.chatWriter = chatWriter;
+        this.historyReader = historyReader;
+        this.sessionSummaryReader = sessionSummaryReader;
+        this.requestCoalescer = requestCoalescer;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.resilienceExecutor = resilienceExecutor;
+        this.modelRouter = modelRouter;
+        this.adviceCache = adviceCache;
+        this.keywordScorer = keywordScorer;
+        this.manualCatalog = manualCatalog;
+        this.manualFastPath = manualFastPath;
+        this.emergencyTriage = emergencyTriage;
         this.sessionRepository = sessionRepository;
-        this.messageRepository = messageRepository;
-        this.manualRepository = manualRepository;
+        this.jpaScheduler = jpaScheduler;
+        this.fallbackCounter = Counter.builder("vitaltrip.advice.fallback")
+                .description("Gemini 대신 매뉴얼 기반으로 응답한 상담 수")
+                .register(meterRegistry);
     }
 
-    public EmergencyChatAdviceResponse getEmergencyChatAdvice(String emergencyType, String userMessage) {
+    /**
+     * 초기 상담입니다. 매뉴얼로 충분히 답할 수 있는 메시지는 Gemini를 호출하지 않고 매뉴얼로 바로 답하며(source=MANUAL),
+     * preferAi가 true이면 이 단계를 건너뜁니다. emergencyType이 없으면 메시지로 유형을 추정합니다.
+     */
+    public Mono<EmergencyChatAdviceResponse> getEmergencyChatAdvice(String emergencyType, String userMessage, UUID userId, boolean preferAi) {
         if (userMessage == null || userMessage.trim().isEmpty()) {
             throw new IllegalArgumentException("userMessage는 필수 입력값입니다.");
         }
 
-        Map<String, Object> payload = makeEmergencyPrompt(emergencyType, userMessage, false);
-        EmergencyChatAdviceResponse advice = callGeminiAndParseResponse(payload, EmergencyType.valueOf(emergencyType));
+        TriagePrediction triage = triageIfOmitted(emergencyType, userMessage);
+        EmergencyType type = triage != null ? triage.emergencyType() : EmergencyType.valueOf(emergencyType);
+        Mono<EmergencyChatAdviceResponse> advice = Mono.fromSupplier(() -> manualFastPath.answer(type, userMessage, preferAi))
+                .flatMap(Mono::justOrEmpty)
+                .map(answer -> fromManual(answer, type))
+                .switchIfEmpty(Mono.defer(() -> Mono.justOrEmpty(adviceCache.get(type, userMessage))))
+                .switchIfEmpty(Mono.defer(() -> {
+                    GeminiPrompt prompt = makeEmergencyPrompt(type, ConversationHistory.EMPTY, userMessage, false);
+                    return callGeminiAndParseResponse(prompt, type)
+                            .doOnNext(response -> adviceCache.put(type, userMessage, response))
+                            .onErrorResume(FirstAidService::isFallbackable, e -> Mono.fromSupplier(() -> buildManualFallback(type, e)));
+                }));
+
+        return sessionSummaryReader.requireUser(userId)
+                .then(advice)
+                .publishOn(jpaScheduler)
+                .map(response -> {
+                    SessionDescriptor session = createSession(type, userId, userMessage, response);
+                    contextStore.start(session.id(), userMessage, response.content());
+
+                    // TODO: sessionId를 추가하려고 기존 EmergencyChatAdviceResponse를 새로 생성하는 방식은 비효율적임
+                    //  초기 상담용 전용 DTO를 별도로 만들어서 sessionId를 포함하는 구조로 개선할 것
+                    return withTriage(response.withSessionId(session.id()), triage);
+                });
+    }
 
-        UUID sessionId = UUID.randomUUID();
-        EmergencyChatSession session = new EmergencyChatSession();
-        session.setId(sessionId);
-        session.setEmergencyType(emergencyType);
-        session.setCreatedAt(LocalDateTime.now());
-        sessionRepository.save(session);
+    /**
+     * 저장된 메시지에 아직 기록 큐에 있는 메시지를 합쳐서 반환합니다(read-your-writes).
+     * 세션 전체를 한 번에 읽으므로, 긴 세션은 {@link #getChatHistory}나 {@link #exportChatMessages}를 사용합니다.
+     */
+    public Mono<List<EmergencyChatMessageResponse>> getChatMessagesBySessionId(UUID sessionId) {
+        return historyReader.all(sessionId);
+    }
 
-        saveEmergencyChatMessages(userMessage, advice, session);
+    public Mono<EmergencyChatHistoryResponse> getChatHistory(UUID sessionId, String after, Integer limit) {
+        return historyReader.page(sessionId, after, limit);
+    }
 
-        // TODO: sessionId를 추가하려고 기존 EmergencyChatAdviceResponse를 새로 생성하는 방식은 비효율적임
-        //  초기 상담용 전용 DTO를 별도로 만들어서 sessionId를 포함하는 구조로 개선할 것
-        return advice.withSessionId(sessionId);
+    public Flux<EmergencyChatMessageResponse> exportChatMessages(UUID sessionId) {
+        return historyReader.export(sessionId);
     }
 
-    public List<EmergencyChatMessageResponse> getChatMessagesBySessionId(UUID sessionId) {
-        List<EmergencyChatMessage> messages = messageRepository.findBySessionIdOrderByCreatedAtAsc(sessionId);
-        return messages.stream()
-                .map(EmergencyChatMessageResponse::from)
-                .toList();
+    public Mono<EmergencyChatAdviceResponse> continueEmergencyChat(UUID sessionId, String userMessage) {
+        if (userMessage == null || userMessage.trim().isEmpty()) {
+            throw new IllegalArgumentException("userMessage는 필수 입력값입니다.");
+        }
+
+        return findSession(sessionId)
+                .flatMap(session -> {
+                    EmergencyType type = session.emergencyType();
+                    return loadHistory(sessionId)
+                            .flatMap(history -> callGeminiAndParseResponse(makeEmergencyPrompt(type, history, userMessage, true), type))
+                            .onErrorResume(FirstAidService::isFallbackable, e -> Mono.fromSupplier(() -> buildManualFallback(type, e)))
+                            .publishOn(jpaScheduler)
+                            .map(advice -> {
+                                saveEmergencyChatMessages(userMessage, advice, sessionId);
+                                contextStore.append(sessionId, userMessage, advice.content());
+                                return advice;
+                            });
+                });
     }
 
-    public EmergencyChatAdviceResponse continueEmergencyChat(UUID sessionId, String userMessage) {
+    /**
+     * 초기 상담을 SSE 스트림으로 제공합니다. 조언 텍스트는 token 이벤트로 도착하는 대로 전송되고,
+     * 스트림이 끝나면 세션/메시지를 저장한 뒤 recommendedAction, confidence, blogLinks를 complete 이벤트로 보냅니다.
+     */
+    public Flux<EmergencyChatStreamEvent> streamEmergencyChatAdvice(String emergencyType, String userMessage, UUID userId, boolean preferAi) {
         if (userMessage == null || userMessage.trim().isEmpty()) {
             throw new IllegalArgumentException("userMessage는 필수 입력값입니다.");
         }
 
-        EmergencyChatSession session = sessionRepository.findById(sessionId)
-                .orElseThrow(() -> new NotFoundException("해당 세션을 찾을 수 없습니다."));
+        TriagePrediction triage = triageIfOmitted(emergencyType, userMessage);
+        EmergencyType type = triage != null ? triage.emergencyType() : EmergencyType.valueOf(emergencyType);
+        Function<EmergencyChatAdviceResponse, EmergencyChatAdviceResponse> onComplete = advice -> {
+            SessionDescriptor session = createSession(type, userId, userMessage, advice);
+            contextStore.start(session.id(), userMessage, advice.content());
+            return withTriage(advice.withSessionId(session.id()), triage);
+        };
+
+        return sessionSummaryReader.requireUser(userId)
+                .thenMany(Flux.defer(() -> manualFastPath.answer(type, userMessage, preferAi)
+                        .map(answer -> streamManualAdvice(fromManual(answer, type), onComplete))
+                        .orElseGet(() -> streamGeminiAdvice(makeEmergencyStreamPrompt(type, ConversationHistory.EMPTY, userMessage, false), type, onComplete))));
+    }
 
-        Map<String, Object> payload = makeEmergencyPrompt(session.getEmergencyType(), userMessage, true);
-        EmergencyChatAdviceResponse advice = callGeminiAndParseResponse(payload, EmergencyType.valueOf(session.getEmergencyType()));
+    public Flux<EmergencyChatStreamEvent> continueEmergencyChatStream(UUID sessionId, String userMessage) {
+        if (userMessage == null || userMessage.trim().isEmpty()) {
+            throw new IllegalArgumentException("userMessage는 필수 입력값입니다.");
+        }
 
-        saveEmergencyChatMessages(userMessage, advice, session);
-        return advice;
+        return findSession(sessionId)
+                .flatMapMany(session -> {
+                    EmergencyType type = session.emergencyType();
+                    return loadHistory(sessionId).flatMapMany(history -> {
+                        GeminiPrompt prompt = makeEmergencyStreamPrompt(type, history, userMessage, true);
+                        return streamGeminiAdvice(prompt, type, advice -> {
+                            saveEmergencyChatMessages(userMessage, advice, sessionId);
+                            contextStore.append(sessionId, userMessage, advice.content());
+                            return advice;
+                        });
+                    });
+                });
     }
 
-    public List<EmergencyManual> getManualByEmergencyType(EmergencyType emergencyType) {
-        return manualRepository.findByEmergencyType(emergencyType);
+    /**
+     * emergencyType이 비어 있을 때만 메시지로 유형을 추정합니다. 지정된 값이 잘못된 경우에는 추정하지 않고 그대로 오류로 처리합니다.
+     */
+    private TriagePrediction triageIfOmitted(String emergencyType, String userMessage) {
+        if (emergencyType != null && !emergencyType.isBlank()) {
+            return null;
+        }
+        return emergencyTriage.infer(userMessage);
     }
 
-    public List<EmergencyManual> getAllManuals() {
-        return manualRepository.findAll();
+    private static EmergencyChatAdviceResponse withTriage(EmergencyChatAdviceResponse advice, TriagePrediction triage) {
+        return triage == null ? advice : advice.withTriage(EmergencyTriageResponse.from(triage));
     }
 
-    private void saveEmergencyChatMessages(String userMessage, EmergencyChatAdviceResponse advice, EmergencyChatSession session) {
-        EmergencyChatMessage userMsg = new EmergencyChatMessage();
-        userMsg.setId(UUID.randomUUID());
-        userMsg.setSession(session);
-        userMsg.setSender("USER");
-        userMsg.setMessage(userMessage);
-        userMsg.setCreatedAt(LocalDateTime.now());
+    /**
+     * 세션 디스크립터를 캐시에서 찾고, 없을 때만 DB에서 필요한 컬럼만 조회합니다.
+     */
+    private Mono<SessionDescriptor> findSession(UUID sessionId) {
+        return Mono.justOrEmpty(sessionCache.get(sessionId))
+                .switchIfEmpty(Mono.fromCallable(() -> sessionRepository.findDescriptorById(sessionId)
+                                .orElseThrow(() -> new NotFoundException("해당 세션을 찾을 수 없습니다.")))
+                        .doOnNext(sessionCache::put)
+                        .subscribeOn(jpaScheduler));
+    }
 
-        EmergencyChatMessage aiMsg = new EmergencyChatMessage();
-        aiMsg.setId(UUID.randomUUID());
-        aiMsg.setSession(session);
-        aiMsg.setSender("ASSISTANT");
-        aiMsg.setMessage(advice.content());
-        aiMsg.setCreatedAt(LocalDateTime.now());
+    /**
+     * 후속 상담 프롬프트에 넣을 이전 대화입니다. 캐시 미스 시 DB를 조회하므로 jpaScheduler에서 가져옵니다.
+     */
+    private Mono<ConversationHistory> loadHistory(UUID sessionId) {
+        return Mono.fromCallable(() -> contextStore.history(sessionId))
+                .subscribeOn(jpaScheduler);
+    }
 
-        messageRepository.save(userMsg);
-        messageRepository.save(aiMsg);
+    /**
+     * 새 세션을 만들고 첫 턴과 함께 기록 큐에 넣습니다. 세션 디스크립터는 바로 캐시에 등록되므로
+     * 기록이 끝나기 전에 후속 상담이 들어와도 세션을 찾을 수 있습니다.
+     */
+    private SessionDescriptor createSession(EmergencyType emergencyType, UUID userId, String userMessage, EmergencyChatAdviceResponse advice) {
+        PendingChatSession session = new PendingChatSession(TimeOrderedUuid.next(), emergencyType, userId, LocalDateTime.now());
+        SessionDescriptor descriptor = SessionDescriptor.of(session.id(), emergencyType, userId);
+        sessionCache.put(descriptor);
+
+        chatWriter.enqueue(ChatWrite.newSession(session, turnMessages(session.id(), userMessage, advice)));
+        sessionCache.recordTurn(session.id());
+        return descriptor;
     }
 
+    private void saveEmergencyChatMessages(String userMessage, EmergencyChatAdviceResponse advice, UUID sessionId) {
+        chatWriter.enqueue(ChatWrite.turn(sessionId, turnMessages(sessionId, userMessage, advice)));
+        sessionCache.recordTurn(sessionId);
+    }
 
+    private List<PendingChatMessage> turnMessages(UUID sessionId, String userMessage, EmergencyChatAdviceResponse advice) {
+        return List.of(
+                new PendingChatMessage(TimeOrderedUuid.next(), sessionId, "USER", userMessage, LocalDateTime.now()),
+                new PendingChatMessage(TimeOrderedUuid.next(), sessionId, "ASSISTANT", advice.content(), LocalDateTime.now())
+        );
+    }
 
     private double evaluateConfidence(String content, EmergencyType type) {
-        List<String> essentialKeywords = switch (type) {
-            case BLEEDING -> List.of("pressure", "bleeding", "bandage", "wound");
-            case BURNS -> List.of("cool", "running water", "burn", "ointment");
-            case FRACTURE -> List.of("immobilize", "fracture", "splint", "swelling");
-            case CPR -> List.of("chest compressions", "CPR", "check responsiveness", "call emergency");
-            case CHOKING -> List.of("Heimlich", "choking", "cough", "back blows");
-            case ELECTRIC_SHOCK -> List.of("electric shock", "unplug", "do not touch", "CPR");
-            case HYPOTHERMIA -> List.of("warm", "hypothermia", "blanket", "remove wet clothes");
-            case HEATSTROKE -> List.of("cool", "heatstroke", "shade", "hydrate");
-            case POISONING -> List.of("poison", "do not induce vomiting", "toxin", "call poison control");
-            case SEIZURE -> List.of("seizure", "protect head", "do not restrain", "stay with");
-            case ANIMAL_BITE -> List.of("animal bite", "clean wound", "tetanus", "rabies");
-            case ASTHMA_ATTACK -> List.of("inhaler", "asthma", "sit upright", "breathe slowly");
-            case HEART_ATTACK -> List.of("chest pain", "heart attack", "call emergency", "aspirin");
-        };
+        return keywordScorer.score(content, type);
+    }
 
-        long matched = essentialKeywords.stream()
-                .filter(word -> content.toLowerCase().contains(word.toLowerCase()))
-                .count();
-
-        return Math.max(0.3, (double) matched / essentialKeywords.size());
-    }
-    private Map<String, Object> makeEmergencyPrompt(String emergencyType, String userMessage, boolean isFollowUp) {
-        String intro = isFollowUp
-                ? "The following is a follow-up message from the user during the ongoing emergency consultation session."
-                : "Please provide first aid advice for the following emergency situation.";
-
-        String prompt = intro + "\n" +
-                "- Emergency Type: " + emergencyType + "\n" +
-                "- User Message: \"" + userMessage + "\"\n" +
-                "Based on this information, provide first aid advice without using markdown formatting like **bold**.\n" +
-                "Additionally, suggest two blog article links that explain self-care methods related to the symptoms.\n" +
-                "The 'confidence' field must be a number between 0.0 and 1.0 indicating how confident you are in the accuracy and reliability of the advice you are providing. Set this value based on your understanding of the situation.\n" +
-                "The response must strictly follow the JSON format below:\n" +
-                "{\n" +
-                "  \"c\": \"Advice text\",\n" +
-                "  \"recommendedAction\": \"Recommended action\",\n" +
-                "  \"confidence\": number (0.0 ~ 1.0),\n" +
-                "  \"blogLinks\": [\"link1\", \"link2\"]\n" +
-                "}";
-
-        return Map.of(
-                "contents", List.of(
-                        Map.of(
-                                "parts", List.of(
-                                        Map.of("text", prompt)
-                                )
-                        )
-                )
-        );
+    private GeminiPrompt makeEmergencyPrompt(EmergencyType emergencyType, ConversationHistory history, String userMessage, boolean isFollowUp) {
+        return promptEngine.render(isFollowUp ? PromptKind.FOLLOW_UP : PromptKind.ADVICE, emergencyType, history, userMessage);
     }
 
-    private EmergencyChatAdviceResponse callGeminiAndParseResponse(Map<String, Object> payload, EmergencyType emergencyType) {
-        WebClient webClient = WebClient.builder()
-                .baseUrl("https://generativelanguage.googleapis.com")
-                .defaultHeader("Content-Type", "application/json")
-                .build();
-
-        String response = webClient.post()
-                .uri("/v1beta/models/gemini-2.0-flash:generateContent?key=" + apiKey)
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(payload)
-                .retrieve()
-                .bodyToMono(String.class)
-                .onErrorReturn("{\"error\":\"Gemini API 오류\"}")
-                .block();
-
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode root = mapper.readTree(response);
-
-            if (root.has("error")) {
-                log.error("Gemini API 응답 오류: {}", root.get("error"));
-                throw new RuntimeException("Gemini API 호출 중 오류가 발생했습니다.");
-            }
+    /**
+     * 스트리밍용 프롬프트입니다. JSON 전체가 완성되어야 파싱할 수 있는 형식 대신
+     * 조언 본문을 일반 텍스트로 먼저 받고, 구분자 뒤에 메타데이터 JSON을 받도록 요청합니다.
+     */
+    private GeminiPrompt makeEmergencyStreamPrompt(EmergencyType emergencyType, ConversationHistory history, String userMessage, boolean isFollowUp) {
+        return promptEngine.render(isFollowUp ? PromptKind.STREAM_FOLLOW_UP : PromptKind.STREAM, emergencyType, history, userMessage);
+    }
 
-            String jsonString = root.at("/candidates/0/content/parts/0/text").asText().trim();
-            log.debug("jsonString: {}", jsonString);
-            if (jsonString.startsWith("```json")) {
-                jsonString = jsonString.replaceFirst("```json", "").trim();
-            }
-            if (jsonString.endsWith("```")) {
-                jsonString = jsonString.substring(0, jsonString.lastIndexOf("```")).trim();
+    /**
+     * Gemini 스트림은 GeminiResilienceExecutor가 첫 청크 deadline과 서킷 브레이커를 적용합니다.
+     * token 이벤트를 하나도 보내기 전에 실패하면 매뉴얼 기반 응답 스트림으로 바꾸고, 이미 보낸 뒤라면 오류로 끝냅니다.
+     * 동시 호출 한도 초과는 대체하지 않고 그대로 전달해 클라이언트가 Retry-After 뒤에 다시 시도하게 합니다.
+     */
+    private Flux<EmergencyChatStreamEvent> streamGeminiAdvice(GeminiPrompt prompt, EmergencyType emergencyType,
+                                                              Function<EmergencyChatAdviceResponse, EmergencyChatAdviceResponse> onComplete) {
+        return Flux.defer(() -> {
+            AdviceStreamSplitter splitter = new AdviceStreamSplitter();
+            AtomicBoolean tokenSent = new AtomicBoolean();
+
+            GeminiRoute route = modelRouter.route(emergencyType, prompt);
+            Flux<EmergencyChatStreamEvent> tokens = modelRouter.trackMany(route, resilienceExecutor.executeMany(() ->
+                            concurrencyLimiter.executeMany(() -> geminiClient.streamGenerateContent(prompt, route.model()))))
+                    .map(responseDecoder::extractText)
+                    .map(splitter::accept)
+                    .concatWith(Mono.fromSupplier(splitter::flush))
+                    .filter(text -> !text.isEmpty())
+                    .map(EmergencyChatStreamEvent::token)
+                    .doOnNext(event -> tokenSent.set(true));
+
+            // 저장은 JPA 블로킹 호출이므로 Netty 이벤트 루프가 아닌 별도 스케줄러에서 수행합니다.
+            Mono<EmergencyChatStreamEvent> complete = Mono.fromCallable(() -> {
+                        EmergencyChatAdviceResponse advice = parseStreamedAdvice(splitter, emergencyType);
+                        return EmergencyChatStreamEvent.complete(onComplete.apply(advice));
+                    })
+                    .subscribeOn(jpaScheduler);
+
+            return tokens.concatWith(complete)
+                    .onErrorResume(e -> !tokenSent.get() && isFallbackable(e),
+                            e -> streamManualAdvice(buildManualFallback(emergencyType, e), onComplete));
+        });
+    }
+
+    /**
+     * 매뉴얼 응답은 이미 완성되어 있으므로 본문 전체를 token 이벤트 하나로 보내고 바로 complete 이벤트를 보냅니다.
+     */
+    private Flux<EmergencyChatStreamEvent> streamManualAdvice(EmergencyChatAdviceResponse advice,
+                                                              Function<EmergencyChatAdviceResponse, EmergencyChatAdviceResponse> onComplete) {
+        Mono<EmergencyChatStreamEvent> complete = Mono.fromCallable(() -> EmergencyChatStreamEvent.complete(onComplete.apply(advice)))
+                .subscribeOn(jpaScheduler);
+        return Flux.just(EmergencyChatStreamEvent.token(advice.content())).concatWith(complete);
+    }
+
+    private EmergencyChatAdviceResponse parseStreamedAdvice(AdviceStreamSplitter splitter, EmergencyType emergencyType) {
+        String content = splitter.advice();
+        String recommendedAction = "";
+        double modelConfidence = GeminiAdvice.DEFAULT_CONFIDENCE;
+
+        String meta = splitter.meta();
+        if (!meta.isBlank()) {
+            try {
+                GeminiAdvice parsed = responseDecoder.parseAdvice(meta);
+                recommendedAction = parsed.recommendedAction();
+                modelConfidence = parsed.confidence();
+            } catch (Exception e) {
+                log.warn("Gemini 스트림 메타데이터 파싱 실패: {}", meta, e);
             }
+        }
+        return buildAdvice(content, recommendedAction, modelConfidence, emergencyType);
+    }
+
+    /**
+     * Gemini 호출과 응답 파싱을 하나의 논블로킹 파이프라인으로 구성합니다.
+     * 동일한 요청이 동시에 들어오면 GeminiRequestCoalescer가 하나의 호출로 합치고,
+     * 각 시도는 동시 호출 한도를 거치며 GeminiResilienceExecutor가 deadline, 헤지 요청, 서킷 브레이커를 적용합니다.
+     * 실패하면 오류를 그대로 전달하므로 호출하는 쪽에서 매뉴얼 기반 응답으로 대체합니다.
+     */
+    private Mono<EmergencyChatAdviceResponse> callGeminiAndParseResponse(GeminiPrompt prompt, EmergencyType emergencyType) {
+        // 템플릿과 사용자 메시지가 같으면 같은 요청이므로 진행 중인 호출을 공유합니다. 모델은 호출을 시작하는 요청이 고릅니다.
+        return requestCoalescer.execute(prompt, () -> {
+                    GeminiRoute route = modelRouter.route(emergencyType, prompt);
+                    return modelRouter.track(route, resilienceExecutor.execute(route, () ->
+                            concurrencyLimiter.execute(() -> geminiClient.generateContent(prompt, route.model()))
+                                    .map(response -> parseGeminiResponse(response, emergencyType))));
+                })
+                .doOnError(e -> log.error("Gemini API 호출 실패", e));
+    }
+
+    /**
+     * 동시 호출 한도 초과(503)는 매뉴얼로 대체하지 않고 Retry-After와 함께 그대로 돌려줍니다.
+     * 서버가 과부하일 때 클라이언트가 물러나게 하려는 신호이므로, 대체 응답으로 감추면 재시도 간격을 알 수 없습니다.
+     */
+    private static boolean isFallbackable(Throwable error) {
+        return !(error instanceof ServiceUnavailableException);
+    }
 
-            JsonNode parsed = mapper.readTree(jsonString);
-            String content = parsed.get("c").asText();
-            String recommendedAction = parsed.get("recommendedAction").asText();
-
-            double modelConfidence = parsed.get("confidence").asDouble();
-            System.out.println("modelConfidence = " + modelConfidence);
-            double evaluatedConfidence = evaluateConfidence(content, emergencyType);
-            System.out.println("evaluatedConfidence = " + evaluatedConfidence);
-            double finalConfidence = (modelConfidence * 0.7) + (evaluatedConfidence * 0.3);
-
-            List<String> blogLinks = switch (emergencyType) {
-                case BLEEDING -> List.of("https://www.webmd.com/first-aid/bleeding-cuts-wounds", "https://www.medicalnewstoday.com/articles/319433");
-                case BURNS -> List.of("https://www.nhs.uk/conditions/burns-and-scalds/treatment/", "https://www.mayoclinic.org/first-aid/first-aid-burns/basics/art-20056649");
-                case FRACTURE -> List.of("https://my.clevelandclinic.org/health/diseases/15241-bone-fractures", "https://www.betterhealth.vic.gov.au/health/conditionsandtreatments/bone-fractures");
-                case CPR -> List.of("https://thecprsolution.net/", "https://www.yourcprsolution.com/");
-                case CHOKING -> List.of("https://www.mayoclinic.org/first-aid/first-aid-choking/basics/art-20056637", "https://my.clevelandclinic.org/health/diseases/choking");
-                case ELECTRIC_SHOCK -> List.of("https://www.mayoclinic.org/first-aid/first-aid-electrical-shock/basics/art-20056695", "https://www.safetyfirstaid.co.uk/electric-shock-first-aid-treatment/");
-                case HYPOTHERMIA -> List.of("https://www.mayoclinic.org/diseases-conditions/hypothermia/diagnosis-treatment/drc-20352688", "https://www.redcross.org/take-a-class/resources/learn-first-aid/hypothermia?srsltid=AfmBOoobkxTEZcuHG-ypoa2XfzZtjrxl4fxqX8yVjMB0V0BUljWv9lZq");
-                case HEATSTROKE -> List.of("https://www.mayoclinic.org/first-aid/first-aid-heatstroke/basics/art-20056655", "https://my.clevelandclinic.org/health/diseases/21812-heatstroke");
-                case POISONING -> List.of("https://www.mayoclinic.org/first-aid/first-aid-poisoning/basics/art-20056657", "https://www.webmd.com/first-aid/poisoning-treatment");
-                case SEIZURE -> List.of("https://www.mayoclinic.org/diseases-conditions/seizure/diagnosis-treatment/drc-20365730", "https://www.healthdirect.gov.au/seizures");
-                case ANIMAL_BITE -> List.of("https://www.mayoclinic.org/first-aid/first-aid-animal-bites/basics/art-20056591", "https://medlineplus.gov/ency/patientinstructions/000734.htm");
-                case ASTHMA_ATTACK -> List.of("https://www.mayoclinic.org/diseases-conditions/asthma-attack/diagnosis-treatment/drc-20354274", "https://www.healthline.com/health/emergency-home-remedies-for-asthma-attacks");
-                case HEART_ATTACK -> List.of("https://my.clevelandclinic.org/health/diseases/16818-heart-attack-myocardial-infarction", "https://www.nhs.uk/conditions/heart-attack/treatment/");
-            };
-
-
-            return EmergencyChatAdviceResponse.from(content, recommendedAction, finalConfidence, blogLinks);
-        } catch (Exception e) {
-            log.error("Gemini 응답 파싱 중 오류 발생", e);
-            throw new RuntimeException("Gemini 응답 파싱 중 오류 발생", e);
+    /**
+     * Gemini 응답을 deadline 안에 받지 못했을 때 해당 유형의 응급처치 매뉴얼로 응답을 구성합니다.
+     * 캐시에는 저장하지 않습니다.
+     */
+    private EmergencyChatAdviceResponse buildManualFallback(EmergencyType emergencyType, Throwable cause) {
+        log.warn("Gemini 응답 대신 매뉴얼 기반 응답을 반환합니다. type={}, cause={}", emergencyType, cause.toString());
+        fallbackCounter.increment();
+
+        List<EmergencyManual> manuals = manualCatalog.manualsByType(emergencyType);
+        StringBuilder content = new StringBuilder("AI advice is temporarily unavailable. Follow these first aid steps from the emergency manual.");
+        StringBuilder recommendedAction = new StringBuilder();
+        for (EmergencyManual manual : manuals) {
+            content.append("\n\n").append(manual.getTitle()).append("\n").append(manual.getSteps());
+            if (manual.getWarning() != null && !manual.getWarning().isBlank()) {
+                recommendedAction.append(manual.getWarning()).append(' ');
+            }
         }
+        recommendedAction.append("If the condition is severe or getting worse, call local emergency services immediately.");
+
+        String text = content.toString();
+        return EmergencyChatAdviceResponse.from(text, recommendedAction.toString(), evaluateConfidence(text, emergencyType), blogLinksOf(emergencyType))
+                .withSource(AdviceSource.MANUAL_FALLBACK);
+    }
+
+    private EmergencyChatAdviceResponse fromManual(ManualFastPath.Answer answer, EmergencyType emergencyType) {
+        return EmergencyChatAdviceResponse.from(answer.content(), answer.recommendedAction(), answer.confidence(), blogLinksOf(emergencyType))
+                .withSource(AdviceSource.MANUAL);
+    }
+
+    private EmergencyChatAdviceResponse parseGeminiResponse(byte[] response, EmergencyType emergencyType) {
+        GeminiAdvice advice = responseDecoder.decodeAdvice(response);
+        log.debug("Gemini modelConfidence: {}", advice.confidence());
+        return buildAdvice(advice.content(), advice.recommendedAction(), advice.confidence(), emergencyType);
+    }
+
+    private EmergencyChatAdviceResponse buildAdvice(String content, String recommendedAction, double modelConfidence, EmergencyType emergencyType) {
+        double evaluatedConfidence = evaluateConfidence(content, emergencyType);
+        log.debug("evaluatedConfidence: {}", evaluatedConfidence);
+        double finalConfidence = (modelConfidence * 0.7) + (evaluatedConfidence * 0.3);
+
+        return EmergencyChatAdviceResponse.from(content, recommendedAction, finalConfidence, blogLinksOf(emergencyType));
+    }
+
+    private List<String> blogLinksOf(EmergencyType emergencyType) {
+        return switch (emergencyType) {
+            case BLEEDING -> List.of("https://www.webmd.com/first-aid/bleeding-cuts-wounds", "https://www.medicalnewstoday.com/articles/319433");
+            case BURNS -> List.of("https://www.nhs.uk/conditions/burns-and-scalds/treatment/", "https://www.mayoclinic.org/first-aid/first-aid-burns/basics/art-20056649");
+            case FRACTURE -> List.of("https://my.clevelandclinic.org/health/diseases/15241-bone-fractures", "https://www.betterhealth.vic.gov.au/health/conditionsandtreatments/bone-fractures");
+            case CPR -> List.of("https://thecprsolution.net/", "https://www.yourcprsolution.com/");
+            case CHOKING -> List.of("https://www.mayoclinic.org/first-aid/first-aid-choking/basics/art-20056637", "https://my.clevelandclinic.org/health/diseases/choking");
+            case ELECTRIC_SHOCK -> List.of("https://www.mayoclinic.org/first-aid/first-aid-electrical-shock/basics/art-20056695", "https://www.safetyfirstaid.co.uk/electric-shock-first-aid-treatment/");
+            case HYPOTHERMIA -> List.of("https://www.mayoclinic.org/diseases-conditions/hypothermia/diagnosis-treatment/drc-20352688", "https://www.redcross.org/take-a-class/resources/learn-first-aid/hypothermia?srsltid=AfmBOoobkxTEZcuHG-ypoa2XfzZtjrxl4fxqX8yVjMB0V0BUljWv9lZq");
+            case HEATSTROKE -> List.of("https://www.mayoclinic.org/first-aid/first-aid-heatstroke/basics/art-20056655", "https://my.clevelandclinic.org/health/diseases/21812-heatstroke");
+            case POISONING -> List.of("https://www.mayoclinic.org/first-aid/first-aid-poisoning/basics/art-20056657", "https://www.webmd.com/first-aid/poisoning-treatment");
+            case SEIZURE -> List.of("https://www.mayoclinic.org/diseases-conditions/seizure/diagnosis-treatment/drc-20365730", "https://www.healthdirect.gov.au/seizures");
+            case ANIMAL_BITE -> List.of("https://www.mayoclinic.org/first-aid/first-aid-animal-bites/basics/art-20056591", "https://medlineplus.gov/ency/patientinstructions/000734.htm");
+            case ASTHMA_ATTACK -> List.of("https://www.mayoclinic.org/diseases-conditions/asthma-attack/diagnosis-treatment/drc-20354274", "https://www.healthline.com/health/emergency-home-remedies-for-asthma-attacks");
+            case HEART_ATTACK -> List.of("https://my.clevelandclinic.org/health/diseases/16818-heart-attack-myocardial-infarction", "https://www.nhs.uk/conditions/heart-attack/treatment/");
+        };
     }
 }
@@ -0,0 +1,81 @@
+package com.gdgoc5.vitaltrip.first_aid;
+
+import com.gdgoc5.vitaltrip.custom.SuccessResponse;
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatSessionListResponse;
+import com.gdgoc5.vitaltrip.first_aid.session.SessionSummaryReader;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@Tag(name = "User", description = "사용자 상담 이력 API")
+@RestController
+@RequestMapping("/users")
+public class UserSessionController {
+
+    private final SessionSummaryReader sessionSummaryReader;
+
+    public UserSessionController(SessionSummaryReader sessionSummaryReader) {
+        this.sessionSummaryReader = sessionSummaryReader;
+    }
+
+    @Operation(
+        summary = "사용자 상담 목록 조회",
+        description = "사용자의 지난 상담을 최근 활동 순으로 limit개씩 조회합니다. 응답의 nextCursor를 after로 넘기면 다음 페이지를 받습니다.",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "상담 요약 목록 반환",
+                content = @Content(
+                    mediaType = "application/json",
+                    examples = @ExampleObject(
+                        name = "상담 목록 예시",
+                        value = """
+                        {
+                          "result": "SUCCESS",
+                          "message": "요청이 성공적으로 처리되었습니다.",
+                          "data": {
+                            "sessions": [
+                              {
+                                "sessionId": "0196c9ef-0de3-70aa-8b7b-55aa3cb39054",
+                                "emergencyType": "HYPOTHERMIA",
+                                "createdAt": "2025-05-13T14:51:36.654435",
+                                "messageCount": 4,
+                                "lastMessagePreview": "Since you are asking for the nearest hospital, your condition likely requires immediate medical attention.",
+                                "lastActivityAt": "2025-05-13T14:52:21.908907"
+                              }
+                            ],
+                            "nextCursor": null,
+                            "hasNext": false
+                          }
+                        }
+                        """
+                    )
+                )
+            ),
+            @ApiResponse(responseCode = "400", description = "잘못된 커서"),
+            @ApiResponse(responseCode = "404", description = "사용자를 찾을 수 없음")
+        }
+    )
+    @GetMapping("/{userId}/sessions")
+    public Mono<SuccessResponse<EmergencyChatSessionListResponse>> getSessions(
+            @PathVariable UUID userId,
+            @Parameter(description = "이전 페이지 응답의 nextCursor. 없으면 가장 최근 상담부터 조회합니다.")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "페이지 크기 (기본 50, 최대 200)", example = "20")
+            @RequestParam(required = false) Integer limit
+    ) {
+        return sessionSummaryReader.page(userId, after, limit)
+                .map(SuccessResponse::of);
+    }
+}
@@ -0,0 +1,61 @@
+package com.gdgoc5.vitaltrip.first_aid.cache;
+
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatAdviceResponse;
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * (응급 유형, 정규화된 사용자 메시지) 단위로 Gemini 초기 상담 결과를 캐싱합니다.
+ * Caffeine의 W-TinyLFU 정책으로 자주 들어오는 질문을 우선 보존하고, TTL이 지나면 다시 Gemini에 묻습니다.
+ * 세션과 무관한 조언 본문만 저장하므로 캐시 적중 시에도 새 세션은 그대로 만들어집니다.
+ * 적중/미스/제거 지표는 cache.* (cache=gemini.advice)로 노출됩니다.
+ */
+@Slf4j
+@Component
+public class AdviceCache {
+
+    private final boolean enabled;
+    private final Cache<AdviceCacheKey, EmergencyChatAdviceResponse> cache;
+
+    public AdviceCache(MeterRegistry meterRegistry,
+                       @Value("${vitaltrip.advice-cache.enabled:true}") boolean enabled,
+                       @Value("${vitaltrip.advice-cache.maximum-size:10000}") long maximumSize,
+                       @Value("${vitaltrip.advice-cache.ttl:6h}") Duration ttl) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gemini.advice");
+    }
+
+    public Optional<EmergencyChatAdviceResponse> get(EmergencyType emergencyType, String userMessage) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.getIfPresent(AdviceCacheKey.of(emergencyType, userMessage)));
+    }
+
+    public void put(EmergencyType emergencyType, String userMessage, EmergencyChatAdviceResponse advice) {
+        if (enabled) {
+            cache.put(AdviceCacheKey.of(emergencyType, userMessage), advice);
+        }
+    }
+
+    public long flush() {
+        long size = cache.estimatedSize();
+        cache.invalidateAll();
+        log.info("초기 상담 캐시 비움: 약 {}건", size);
+        return size;
+    }
+}
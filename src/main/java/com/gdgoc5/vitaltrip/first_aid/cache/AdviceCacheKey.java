@@ -0,0 +1,28 @@
+package com.gdgoc5.vitaltrip.first_aid.cache;
+
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 초기 상담 캐시 키입니다. 대소문자, 공백, 문장부호 차이는 같은 질문으로 취급합니다.
+ */
+public record AdviceCacheKey(
+        EmergencyType emergencyType,
+        String normalizedMessage
+) {
+    private static final Pattern PUNCTUATION = Pattern.compile("[\\p{P}\\p{S}]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public static AdviceCacheKey of(EmergencyType emergencyType, String userMessage) {
+        return new AdviceCacheKey(emergencyType, normalize(userMessage));
+    }
+
+    static String normalize(String message) {
+        String normalized = Normalizer.normalize(message, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        normalized = PUNCTUATION.matcher(normalized).replaceAll(" ");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+}
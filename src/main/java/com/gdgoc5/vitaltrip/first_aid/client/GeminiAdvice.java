@@ -0,0 +1,33 @@
+package com.gdgoc5.vitaltrip.first_aid.client;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gemini가 생성한 조언 JSON({"c", "recommendedAction", "confidence"})을 바인딩한 값입니다.
+ */
+public record GeminiAdvice(
+    String content,
+    String recommendedAction,
+    double confidence
+) {
+    public static final double DEFAULT_CONFIDENCE = 0.5;
+
+    /**
+     * responseMimeType + responseSchema 설정입니다. Gemini가 스키마에 맞는 순수 JSON만 반환하므로
+     * 코드 펜스를 벗겨낼 필요가 없고, 사용하지 않는 필드(blogLinks 등)의 출력 토큰도 줄어듭니다.
+     */
+    public static final Map<String, Object> GENERATION_CONFIG = Map.of(
+            "responseMimeType", "application/json",
+            "responseSchema", Map.of(
+                    "type", "OBJECT",
+                    "properties", Map.of(
+                            "c", Map.of("type", "STRING"),
+                            "recommendedAction", Map.of("type", "STRING"),
+                            "confidence", Map.of("type", "NUMBER")
+                    ),
+                    "required", List.of("c", "recommendedAction", "confidence"),
+                    "propertyOrdering", List.of("c", "recommendedAction", "confidence")
+            )
+    );
+}
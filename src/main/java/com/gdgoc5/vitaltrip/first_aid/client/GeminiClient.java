@@ -0,0 +1,99 @@
+package com.gdgoc5.vitaltrip.first_aid.client;
+
+import com.gdgoc5.vitaltrip.first_aid.prompt.GeminiPrompt;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Gemini generateContent API 호출을 담당하는 컴포넌트입니다.
+ * 공유 커넥션 풀을 사용하는 WebClient 하나를 애플리케이션 전체에서 재사용합니다.
+ * 호출할 모델은 요청마다 {@link GeminiModelRouter}가 고른 값을 받습니다.
+ * 시스템 지시문이 {@link GeminiContextCache}에 등록되어 있으면 지시문 대신 캐시 이름을 보내고,
+ * 캐시가 거부되면 지시문을 포함해 한 번 더 보냅니다.
+ */
+@Slf4j
+@Component
+public class GeminiClient {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+    private final GeminiContextCache contextCache;
+
+    public GeminiClient(@Qualifier("geminiWebClient") WebClient webClient, GeminiContextCache contextCache) {
+        this.webClient = webClient;
+        this.contextCache = contextCache;
+    }
+
+    /**
+     * 응답 본문을 문자열로 디코딩하지 않고 바이트 그대로 받아 GeminiResponseDecoder가 한 번에 파싱하도록 합니다.
+     */
+    public Mono<byte[]> generateContent(GeminiPrompt prompt, String model) {
+        String cachedContent = contextCache.lookup(prompt.template(), model);
+        if (cachedContent == null) {
+            return generateContent(prompt, model, null);
+        }
+        return generateContent(prompt, model, cachedContent)
+                .onErrorResume(e -> contextCache.isRejection(e, cachedContent), e -> {
+                    contextCache.invalidate(prompt.template(), model, cachedContent);
+                    return generateContent(prompt, model, null);
+                });
+    }
+
+    private Mono<byte[]> generateContent(GeminiPrompt prompt, String model, String cachedContent) {
+        return webClient.post()
+                .uri("/v1beta/models/{model}:generateContent", model)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(bodyOf(prompt, cachedContent))
+                .retrieve()
+                .bodyToMono(byte[].class);
+    }
+
+    /**
+     * streamGenerateContent(alt=sse)를 호출해 각 SSE 이벤트의 data(JSON 청크)를 도착하는 대로 흘려보냅니다.
+     * 캐시 거부는 응답 상태 코드로 오므로 청크를 하나도 받기 전에 지시문 포함으로 다시 보낼 수 있습니다.
+     */
+    public Flux<String> streamGenerateContent(GeminiPrompt prompt, String model) {
+        String cachedContent = contextCache.lookup(prompt.template(), model);
+        if (cachedContent == null) {
+            return streamGenerateContent(prompt, model, null);
+        }
+        return streamGenerateContent(prompt, model, cachedContent)
+                .onErrorResume(e -> contextCache.isRejection(e, cachedContent), e -> {
+                    contextCache.invalidate(prompt.template(), model, cachedContent);
+                    return streamGenerateContent(prompt, model, null);
+                });
+    }
+
+    private Flux<String> streamGenerateContent(GeminiPrompt prompt, String model, String cachedContent) {
+        return webClient.post()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/v1beta/models/{model}:streamGenerateContent")
+                        .queryParam("alt", "sse")
+                        .build(model))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .body(bodyOf(prompt, cachedContent))
+                .retrieve()
+                .bodyToFlux(SSE_TYPE)
+                .mapNotNull(ServerSentEvent::data);
+    }
+
+    /**
+     * 미리 인코딩된 프롬프트를 Jackson 직렬화 없이 요청 커넥션의 버퍼 팩토리(Netty 풀)에서 받은 버퍼에 바로 씁니다.
+     */
+    private static BodyInserter<GeminiPrompt, ReactiveHttpOutputMessage> bodyOf(GeminiPrompt prompt, String cachedContent) {
+        return (outputMessage, context) -> outputMessage.writeWith(
+                Mono.fromSupplier(() -> prompt.encode(outputMessage.bufferFactory(), cachedContent)));
+    }
+}
@@ -0,0 +1,278 @@
+package com.gdgoc5.vitaltrip.first_aid.client;
+
+import com.gdgoc5.vitaltrip.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Gemini 호출 동시 실행 수를 관측된 지연 시간에 맞춰 자동으로 조절하는 제한기입니다.
+ *
+ * <p>Gradient 방식으로 동작합니다. 장기 평균 RTT와 최근 RTT의 비율(gradient)이 1보다 작아지면,
+ * 즉 Gemini가 평소보다 느려지면 한도를 줄이고, 여유가 있으면 조금씩 늘립니다.
+ * 타임아웃, 429, 5xx 응답은 과부하 신호로 보고 한도를 즉시 10% 줄입니다.
+ *
+ * <p>한도를 넘는 요청은 최대 queue-size 만큼만 max-queue-wait 동안 대기하고, 그 외에는 바로 503(Retry-After)으로 거절합니다.
+ * 덕분에 Gemini가 느려져도 채팅 요청이 스레드/커넥션을 무한정 붙잡지 않고, 매뉴얼 API 등 다른 경로는 영향을 받지 않습니다.
+ */
+@Component
+public class GeminiConcurrencyLimiter {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_RTT_DECAY = 0.01;
+    private static final double SHORT_RTT_DECAY = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueSize;
+    private final Duration maxQueueWait;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<MonoSink<Permit>> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private double longRttNanos;
+    private double shortRttNanos;
+
+    private final Counter queueFullRejections;
+    private final Counter queueTimeoutRejections;
+
+    @Autowired
+    public GeminiConcurrencyLimiter(MeterRegistry meterRegistry,
+                                    @Value("${vitaltrip.gemini-limiter.initial-limit:20}") int initialLimit,
+                                    @Value("${vitaltrip.gemini-limiter.min-limit:4}") int minLimit,
+                                    @Value("${vitaltrip.gemini-limiter.max-limit:200}") int maxLimit,
+                                    @Value("${vitaltrip.gemini-limiter.queue-size:50}") int queueSize,
+                                    @Value("${vitaltrip.gemini-limiter.max-queue-wait:2s}") Duration maxQueueWait) {
+        this(meterRegistry, initialLimit, minLimit, maxLimit, queueSize, maxQueueWait, System::nanoTime);
+    }
+
+    GeminiConcurrencyLimiter(MeterRegistry meterRegistry, int initialLimit, int minLimit, int maxLimit,
+                             int queueSize, Duration maxQueueWait, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.queueSize = queueSize;
+        this.maxQueueWait = maxQueueWait;
+
+        Gauge.builder("gemini.limiter.limit", this, GeminiConcurrencyLimiter::currentLimit)
+                .description("현재 Gemini 동시 호출 한도")
+                .register(meterRegistry);
+        Gauge.builder("gemini.limiter.in-flight", this, GeminiConcurrencyLimiter::currentInFlight)
+                .description("진행 중인 Gemini 호출 수")
+                .register(meterRegistry);
+        Gauge.builder("gemini.limiter.queue", this, GeminiConcurrencyLimiter::currentQueueDepth)
+                .description("한도 대기 중인 요청 수")
+                .register(meterRegistry);
+        this.queueFullRejections = Counter.builder("gemini.limiter.rejections")
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        this.queueTimeoutRejections = Counter.builder("gemini.limiter.rejections")
+                .tag("reason", "queue_timeout")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 허가를 얻은 뒤 호출을 실행하고, 완료 시 응답 시간을 한도 계산에 반영합니다.
+     */
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        return Mono.usingWhen(
+                acquire(),
+                permit -> Mono.defer(call),
+                permit -> Mono.fromRunnable(permit::success),
+                (permit, error) -> Mono.fromRunnable(() -> permit.failure(error)),
+                permit -> Mono.fromRunnable(permit::ignore)
+        );
+    }
+
+    /**
+     * 스트리밍 호출용입니다. 동시 실행 수만 제한하고 지연 시간은 한도 계산에 반영하지 않습니다.
+     */
+    public <T> Flux<T> executeMany(Supplier<Flux<T>> call) {
+        return Flux.usingWhen(
+                acquire(),
+                permit -> Flux.defer(call),
+                permit -> Mono.fromRunnable(permit::ignore),
+                (permit, error) -> Mono.fromRunnable(() -> permit.failure(error)),
+                permit -> Mono.fromRunnable(permit::ignore)
+        );
+    }
+
+    private Mono<Permit> acquire() {
+        return Mono.<Permit>create(sink -> {
+                    lock.lock();
+                    try {
+                        if (inFlight < (int) limit) {
+                            inFlight++;
+                            sink.success(new Permit());
+                            return;
+                        }
+                        if (waiters.size() >= queueSize) {
+                            queueFullRejections.increment();
+                            sink.error(rejection());
+                            return;
+                        }
+                        waiters.addLast(sink);
+                    } finally {
+                        lock.unlock();
+                    }
+                    sink.onCancel(() -> removeWaiter(sink));
+                })
+                // 대기 중 취소된 뒤에 허가가 전달되면 버려지므로, 버려진 허가는 바로 반납합니다.
+                .doOnDiscard(Permit.class, Permit::ignore)
+                .timeout(maxQueueWait)
+                .onErrorMap(TimeoutException.class, e -> {
+                    queueTimeoutRejections.increment();
+                    return rejection();
+                });
+    }
+
+    private void removeWaiter(MonoSink<Permit> sink) {
+        lock.lock();
+        try {
+            waiters.remove(sink);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onRelease(long rttNanos, boolean dropped) {
+        List<MonoSink<Permit>> granted = new ArrayList<>(1);
+        lock.lock();
+        try {
+            inFlight--;
+            if (dropped) {
+                limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            } else if (rttNanos > 0) {
+                updateLimit(rttNanos);
+            }
+            // 한도가 늘었을 수 있으므로 여유가 있는 만큼 대기자를 깨웁니다.
+            while (inFlight < (int) limit && !waiters.isEmpty()) {
+                granted.add(waiters.pollFirst());
+                inFlight++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        granted.forEach(sink -> sink.success(new Permit()));
+    }
+
+    private void updateLimit(long rttNanos) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+            shortRttNanos = rttNanos;
+            return;
+        }
+        longRttNanos = longRttNanos * (1 - LONG_RTT_DECAY) + rttNanos * LONG_RTT_DECAY;
+        shortRttNanos = shortRttNanos * (1 - SHORT_RTT_DECAY) + rttNanos * SHORT_RTT_DECAY;
+
+        // 한도의 절반도 쓰지 않는 상황에서는 지연 시간이 한도와 무관하므로 늘리지 않습니다.
+        if (inFlight < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, longRttNanos / shortRttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+    }
+
+    private ServiceUnavailableException rejection() {
+        double rttNanos;
+        lock.lock();
+        try {
+            rttNanos = shortRttNanos;
+        } finally {
+            lock.unlock();
+        }
+        long retryAfter = Math.max(1, Math.round(rttNanos / 1_000_000_000.0));
+        return new ServiceUnavailableException("AI 상담 요청이 많아 잠시 후 다시 시도해 주세요.", retryAfter);
+    }
+
+    /**
+     * Gemini가 과부하이거나 일시적으로 응답하지 못한 경우입니다. 다시 시도하면 성공할 수 있는 오류이기도 합니다.
+     */
+    static boolean isOverload(Throwable error) {
+        if (error instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().value() == 429 || responseException.getStatusCode().is5xxServerError();
+        }
+        return error instanceof TimeoutException
+                || error instanceof ReadTimeoutException
+                || error instanceof WebClientRequestException;
+    }
+
+    /**
+     * 한도 상태는 모두 lock 안에서만 바뀌므로 게이지도 lock 안에서 읽습니다.
+     */
+    private double currentLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double currentInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double currentQueueDepth() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private final class Permit {
+        private final long startNanos = nanoClock.getAsLong();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        void success() {
+            release(nanoClock.getAsLong() - startNanos, false);
+        }
+
+        void failure(Throwable error) {
+            release(0, isOverload(error));
+        }
+
+        void ignore() {
+            release(0, false);
+        }
+
+        private void release(long rttNanos, boolean dropped) {
+            if (released.compareAndSet(false, true)) {
+                onRelease(rttNanos, dropped);
+            }
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.gdgoc5.vitaltrip.first_aid.client;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.gdgoc5.vitaltrip.first_aid.prompt.PromptTemplate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 프롬프트의 시스템 지시문을 Gemini 컨텍스트 캐시(cachedContents)에 등록해 두고, 호출마다 지시문 대신 캐시 이름을 보내게 합니다.
+ *
+ * <ul>
+ *     <li>캐시는 (시스템 지시문 본문, 모델)마다 하나이며, 본문이 같은 템플릿끼리 공유합니다. 처음 쓰일 때 백그라운드로 등록하고, 등록이 끝나기 전의 요청은 지시문을 그대로 보냅니다.</li>
+ *     <li>만료 renew-before 전에 TTL을 연장합니다. ttl 동안 한 번도 쓰이지 않은 캐시는 연장하지 않고 만료되게 둡니다.</li>
+ *     <li>등록에 실패하면(지시문이 최소 캐시 크기보다 작은 경우 등) retry-after 동안 다시 시도하지 않고 지시문을 그대로 보냅니다.</li>
+ *     <li>Gemini가 캐시 이름을 거부하면(만료/삭제) 그 캐시를 버리고 같은 요청을 지시문 포함으로 한 번 더 보냅니다.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class GeminiContextCache {
+
+    // 만료 직전의 캐시는 요청이 도착하기 전에 만료될 수 있으므로 사용하지 않습니다.
+    private static final Duration EXPIRY_MARGIN = Duration.ofSeconds(30);
+    private static final Duration RENEW_TIMEOUT = Duration.ofSeconds(10);
+
+    private final WebClient webClient;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Duration renewBefore;
+    private final Duration retryAfter;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean renewing = new AtomicBoolean();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter rejectedCounter;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public GeminiContextCache(@Qualifier("geminiWebClient") WebClient webClient,
+                              MeterRegistry meterRegistry,
+                              @Value("${vitaltrip.gemini-context-cache.enabled:false}") boolean enabled,
+                              @Value("${vitaltrip.gemini-context-cache.ttl:1h}") Duration ttl,
+                              @Value("${vitaltrip.gemini-context-cache.renew-before:10m}") Duration renewBefore,
+                              @Value("${vitaltrip.gemini-context-cache.retry-after:30m}") Duration retryAfter) {
+        this(webClient, meterRegistry, Clock.systemUTC(), enabled, ttl, renewBefore, retryAfter);
+    }
+
+    GeminiContextCache(WebClient webClient, MeterRegistry meterRegistry, Clock clock,
+                       boolean enabled, Duration ttl, Duration renewBefore, Duration retryAfter) {
+        this.webClient = webClient;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.renewBefore = renewBefore;
+        this.retryAfter = retryAfter;
+        this.meterRegistry = meterRegistry;
+
+        this.hitCounter = Counter.builder("gemini.context-cache.requests")
+                .tag("result", "hit")
+                .description("시스템 지시문 대신 캐시 이름으로 보낸 요청 수")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("gemini.context-cache.requests")
+                .tag("result", "miss")
+                .description("시스템 지시문을 그대로 보낸 요청 수")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("gemini.context-cache.rejected")
+                .description("캐시 이름이 거부되어 지시문 포함으로 다시 보낸 요청 수")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("gemini.context-cache.entries", Tags.empty(), entries);
+    }
+
+    /**
+     * 사용할 수 있는 캐시 이름을 반환합니다. 없으면 null을 반환하고, 필요하면 백그라운드 등록을 시작합니다.
+     */
+    public String lookup(PromptTemplate template, String model) {
+        if (!enabled) {
+            return null;
+        }
+        Key key = new Key(template.getSystemKey(), model);
+        Instant now = clock.instant();
+        Entry entry = entries.get(key);
+
+        if (entry == null) {
+            if (entries.putIfAbsent(key, Entry.registering()) == null) {
+                register(key, template.getSystemText());
+            }
+        } else if (entry.state() == State.ACTIVE) {
+            if (entry.expireTime().isAfter(now.plus(EXPIRY_MARGIN))) {
+                entry.touch(now);
+                hitCounter.increment();
+                return entry.name();
+            }
+            // 연장에 실패해 만료가 임박했습니다. 새로 등록합니다.
+            if (entries.replace(key, entry, Entry.registering())) {
+                register(key, template.getSystemText());
+            }
+        } else if (entry.state() == State.FAILED && !now.isBefore(entry.retryAt())) {
+            if (entries.replace(key, entry, Entry.registering())) {
+                register(key, template.getSystemText());
+            }
+        }
+        missCounter.increment();
+        return null;
+    }
+
+    /**
+     * 캐시 이름이 거부된 호출에서 사용합니다. 같은 이름의 캐시만 버리므로, 그 사이 새로 등록된 캐시는 유지됩니다.
+     */
+    public void invalidate(PromptTemplate template, String model, String name) {
+        Key key = new Key(template.getSystemKey(), model);
+        Entry entry = entries.get(key);
+        if (entry != null && name.equals(entry.name())) {
+            entries.remove(key, entry);
+        }
+        rejectedCounter.increment();
+        log.warn("Gemini 컨텍스트 캐시가 거부되어 프롬프트를 그대로 보냅니다. name={}, key={}", name, key);
+    }
+
+    /**
+     * 캐시 이름 때문에 실패한 호출인지 판단합니다. 캐시가 만료/삭제되면 404, 권한이 없으면 403,
+     * 이름 형식이나 모델이 맞지 않으면 400이 오는데, 모델 이름이나 API 키 문제도 같은 상태 코드로 오므로
+     * 오류 본문이 캐시를 언급할 때만 거부로 봅니다. 그 외 오류는 지시문을 넣어 다시 보내도 똑같이 실패합니다.
+     */
+    public boolean isRejection(Throwable error, String name) {
+        if (!(error instanceof WebClientResponseException response)) {
+            return false;
+        }
+        HttpStatus status = HttpStatus.resolve(response.getStatusCode().value());
+        String body = response.getResponseBodyAsString();
+        if (status == HttpStatus.NOT_FOUND || status == HttpStatus.FORBIDDEN) {
+            return body.contains(name) || body.toLowerCase(Locale.ROOT).contains("cachedcontent");
+        }
+        return status == HttpStatus.BAD_REQUEST
+                && body.toLowerCase(Locale.ROOT).contains("cache");
+    }
+
+    @Scheduled(fixedDelayString = "${vitaltrip.gemini-context-cache.renew-interval:1m}",
+            initialDelayString = "${vitaltrip.gemini-context-cache.renew-interval:1m}")
+    public void renewExpiring() {
+        // 스케줄러 스레드를 붙잡지 않도록 기다리지 않고, 이전 연장이 끝나지 않았으면 이번 주기는 건너뜁니다.
+        if (!renewing.compareAndSet(false, true)) {
+            return;
+        }
+        renewAll()
+                .doFinally(signal -> renewing.set(false))
+                .subscribe();
+    }
+
+    Mono<Void> renewAll() {
+        Instant now = clock.instant();
+        List<Map.Entry<Key, Entry>> expiring = entries.entrySet().stream()
+                .filter(e -> e.getValue().state() == State.ACTIVE)
+                .filter(e -> !e.getValue().expireTime().isAfter(now.plus(renewBefore)))
+                .toList();
+
+        return Flux.fromIterable(expiring)
+                .flatMap(e -> renew(e.getKey(), e.getValue(), now))
+                .then();
+    }
+
+    private Mono<Void> renew(Key key, Entry entry, Instant now) {
+        if (entry.lastUsedAt().isBefore(now.minus(ttl))) {
+            if (!entry.expireTime().isAfter(now)) {
+                entries.remove(key, entry);
+            }
+            return Mono.empty();
+        }
+        return webClient.patch()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/v1beta/cachedContents/{id}")
+                        .queryParam("updateMask", "ttl")
+                        .build(entry.name().substring(entry.name().lastIndexOf('/') + 1)))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new TtlUpdate(ttlOf(ttl)))
+                .retrieve()
+                .bodyToMono(CachedContent.class)
+                .timeout(RENEW_TIMEOUT)
+                .doOnNext(updated -> {
+                    entries.replace(key, entry, entry.renewed(Instant.parse(updated.expireTime())));
+                    count("renewals", "success");
+                })
+                .onErrorResume(e -> {
+                    count("renewals", "failure");
+                    if (isRejection(e, entry.name())) {
+                        entries.remove(key, entry);
+                    }
+                    log.warn("Gemini 컨텍스트 캐시 연장 실패: name={}, cause={}", entry.name(), e.toString());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void register(Key key, String systemText) {
+        webClient.post()
+                .uri("/v1beta/cachedContents")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CachedContentCreate(
+                        "models/" + key.model(),
+                        "vitaltrip/" + key.systemKey(),
+                        new Content(List.of(new Part(systemText))),
+                        ttlOf(ttl)))
+                .retrieve()
+                .bodyToMono(CachedContent.class)
+                .subscribe(created -> {
+                    entries.put(key, Entry.active(created.name(), Instant.parse(created.expireTime()), clock.instant()));
+                    count("registrations", "success");
+                    log.info("Gemini 컨텍스트 캐시 등록: name={}, key={}", created.name(), key);
+                }, e -> {
+                    entries.put(key, Entry.failed(clock.instant().plus(retryAfter)));
+                    count("registrations", "failure");
+                    log.warn("Gemini 컨텍스트 캐시 등록 실패, {} 동안 프롬프트를 그대로 보냅니다. key={}, cause={}", retryAfter, key, e.toString());
+                });
+    }
+
+    private void count(String name, String outcome) {
+        meterRegistry.counter("gemini.context-cache." + name, "outcome", outcome).increment();
+    }
+
+    private static String ttlOf(Duration duration) {
+        return duration.toSeconds() + "s";
+    }
+
+    private record Key(String systemKey, String model) {}
+
+    private enum State { REGISTERING, ACTIVE, FAILED }
+
+    /**
+     * 상태 전이는 ConcurrentHashMap의 replace/remove로 원자적으로 처리하고, 마지막 사용 시각만 갱신 가능한 값으로 둡니다.
+     */
+    private static final class Entry {
+
+        private final State state;
+        private final String name;
+        private final Instant expireTime;
+        private final Instant retryAt;
+        private volatile Instant lastUsedAt;
+
+        private Entry(State state, String name, Instant expireTime, Instant retryAt, Instant lastUsedAt) {
+            this.state = state;
+            this.name = name;
+            this.expireTime = expireTime;
+            this.retryAt = retryAt;
+            this.lastUsedAt = lastUsedAt;
+        }
+
+        static Entry registering() {
+            return new Entry(State.REGISTERING, null, null, null, null);
+        }
+
+        static Entry active(String name, Instant expireTime, Instant now) {
+            return new Entry(State.ACTIVE, name, expireTime, null, now);
+        }
+
+        static Entry failed(Instant retryAt) {
+            return new Entry(State.FAILED, null, null, retryAt, null);
+        }
+
+        Entry renewed(Instant expireTime) {
+            return new Entry(State.ACTIVE, name, expireTime, null, lastUsedAt);
+        }
+
+        void touch(Instant now) {
+            lastUsedAt = now;
+        }
+
+        State state() {
+            return state;
+        }
+
+        String name() {
+            return name;
+        }
+
+        Instant expireTime() {
+            return expireTime;
+        }
+
+        Instant retryAt() {
+            return retryAt;
+        }
+
+        Instant lastUsedAt() {
+            return lastUsedAt;
+        }
+    }
+
+    record CachedContentCreate(String model, String displayName, Content systemInstruction, String ttl) {}
+
+    record Content(List<Part> parts) {}
+
+    record Part(String text) {}
+
+    record TtlUpdate(String ttl) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record CachedContent(String name, String expireTime) {}
+}
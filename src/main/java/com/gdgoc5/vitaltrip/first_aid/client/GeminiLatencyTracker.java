@@ -0,0 +1,84 @@
+package com.gdgoc5.vitaltrip.first_aid.client;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 최근 Gemini 호출 응답 시간을 모델 티어({@link GeminiRoute#tier()})별 고정 크기 링 버퍼에 보관하고 분위수를 계산합니다.
+ * 헤지 요청을 보낼 시점(p95)은 티어별 값을, fast-path로 절약한 시간 추정은 전체 티어를 합친 값을 사용합니다.
+ */
+@Component
+public class GeminiLatencyTracker {
+
+    private static final int WINDOW = 256;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    public void record(String tier, Duration latency) {
+        windows.computeIfAbsent(tier, key -> new Window()).record(latency.toNanos());
+    }
+
+    /**
+     * 해당 티어의 분위수입니다. 표본이 없으면 defaultValue를 반환합니다.
+     */
+    public Duration percentile(String tier, double quantile, Duration defaultValue) {
+        Window window = windows.get(tier);
+        return window == null ? defaultValue : percentile(window.copy(), quantile, defaultValue);
+    }
+
+    /**
+     * 모든 티어의 표본을 합친 분위수입니다. 표본이 없으면 defaultValue를 반환합니다.
+     */
+    public Duration percentile(double quantile, Duration defaultValue) {
+        long[] all = new long[0];
+        for (Window window : windows.values()) {
+            long[] copy = window.copy();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + copy.length);
+            System.arraycopy(copy, 0, all, offset, copy.length);
+        }
+        return percentile(all, quantile, defaultValue);
+    }
+
+    private static Duration percentile(long[] samples, double quantile, Duration defaultValue) {
+        if (samples.length == 0) {
+            return defaultValue;
+        }
+        Arrays.sort(samples);
+        int index = (int) Math.min(samples.length - 1, Math.ceil(quantile * samples.length) - 1);
+        return Duration.ofNanos(samples[Math.max(0, index)]);
+    }
+
+    private static final class Window {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final long[] samples = new long[WINDOW];
+        private int next;
+        private int size;
+
+        private void record(long latencyNanos) {
+            lock.lock();
+            try {
+                samples[next] = latencyNanos;
+                next = (next + 1) % WINDOW;
+                size = Math.min(size + 1, WINDOW);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private long[] copy() {
+            lock.lock();
+            try {
+                return Arrays.copyOf(samples, size);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.gdgoc5.vitaltrip.first_aid.client;
+
+import com.gdgoc5.vitaltrip.config.GeminiProperties;
+import com.gdgoc5.vitaltrip.exception.ServiceUnavailableException;
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencySeverity;
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+import com.gdgoc5.vitaltrip.first_aid.prompt.GeminiPrompt;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청마다 설정된 모델 티어(gemini.routing.tiers) 중 하나를 고릅니다.
+ *
+ * <p>티어는 비용이 낮은 것부터 확인하며, 다음 조건을 모두 만족하는 첫 티어를 사용합니다.
+ * <ul>
+ *     <li>응급 유형의 위급도가 티어의 상한 이하(후속 상담은 follow-up-max-severity 기준)이고 요청 본문이 max-prompt-size 이하</li>
+ *     <li>stats-window 안의 최근 호출 기준으로 p95 응답 시간이 latency-slo 이하이고 실패율이 max-error-rate 이하</li>
+ * </ul>
+ * 마지막 티어는 위급도/크기 조건 없이 항상 후보입니다. 후보가 모두 SLO를 넘기면 그중 가장 나은 티어를 사용합니다.
+ * 통계가 기간 밖으로 밀려나면 표본 부족으로 정상 취급되므로, 밀려난 티어도 잠시 뒤 다시 시도됩니다.
+ *
+ * <p>라우팅 결과는 gemini.routing.decisions{tier, reason}, 티어별 응답 시간은 gemini.model.latency 히스토그램으로 노출합니다.
+ * reason은 eligible(조건을 만족하는 가장 싼 티어), fallback(더 싼 티어가 SLO/실패율로 밀려남), degraded(모든 후보가 SLO 초과)입니다.
+ */
+@Slf4j
+@Component
+public class GeminiModelRouter {
+
+    private static final long HEALTH_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final List<TierState> tiers = new ArrayList<>();
+    private final Map<String, TierState> tiersByName = new HashMap<>();
+    private final long latencySloNanos;
+    private final double maxErrorRate;
+    private final long statsWindowNanos;
+    private final int minSamples;
+
+    public GeminiModelRouter(GeminiProperties properties, MeterRegistry meterRegistry) {
+        GeminiProperties.Routing routing = properties.getRouting();
+        this.latencySloNanos = routing.getLatencySlo().toNanos();
+        this.maxErrorRate = routing.getMaxErrorRate();
+        this.statsWindowNanos = routing.getStatsWindow().toNanos();
+        this.minSamples = routing.getMinSamples();
+
+        List<GeminiProperties.Tier> configured = routing.getTiers();
+        if (configured.isEmpty()) {
+            GeminiProperties.Tier single = new GeminiProperties.Tier();
+            single.setName("default");
+            single.setModel(properties.getApi().getModel());
+            configured = List.of(single);
+        }
+        for (GeminiProperties.Tier tier : configured) {
+            if (tier.getModel() == null || tier.getModel().isBlank()) {
+                throw new IllegalStateException("gemini.routing.tiers의 model은 필수입니다.");
+            }
+            String name = tier.getName() == null || tier.getName().isBlank() ? tier.getModel() : tier.getName();
+            TierState state = new TierState(name, tier, routing.getLatencySlo(), meterRegistry);
+            if (tiersByName.putIfAbsent(name, state) != null) {
+                throw new IllegalStateException("gemini.routing.tiers의 name이 중복됩니다: " + name);
+            }
+            tiers.add(state);
+        }
+        log.info("Gemini 모델 티어: {}", tiers.stream().map(tier -> tier.name + "=" + tier.route.model()).toList());
+    }
+
+    public GeminiRoute route(EmergencyType emergencyType, GeminiPrompt prompt) {
+        EmergencySeverity severity = emergencyType.getSeverity();
+        boolean followUp = prompt.template().getKind().isFollowUp();
+        int promptSize = prompt.estimatedSize();
+        long now = System.nanoTime();
+
+        boolean skipped = false;
+        TierState best = null;
+        double bestPenalty = Double.MAX_VALUE;
+        for (int i = 0; i < tiers.size(); i++) {
+            TierState tier = tiers.get(i);
+            boolean last = i == tiers.size() - 1;
+            if (!last && !tier.accepts(severity, followUp, promptSize)) {
+                continue;
+            }
+            Health health = tier.health(now);
+            if (health.healthy()) {
+                return tier.choose(skipped ? Reason.FALLBACK : Reason.ELIGIBLE);
+            }
+            skipped = true;
+            if (health.penalty() < bestPenalty) {
+                best = tier;
+                bestPenalty = health.penalty();
+            }
+        }
+        return best.choose(Reason.DEGRADED);
+    }
+
+    /**
+     * 호출 결과를 해당 티어의 통계와 응답 시간 히스토그램에 기록합니다.
+     * GeminiResilienceExecutor 바깥에 씌워 헤지를 포함한 호출 전체를 한 건으로 기록하므로, 헤지에서 진 시도는 따로 집계되지 않고
+     * deadline 초과(TimeoutException)는 걸린 시간과 함께 실패로 기록됩니다.
+     * 티어가 응답하지 않게 되어도 타임아웃이 실패로 쌓이므로 라우팅에서 밀려납니다.
+     * 동시 호출 한도 초과나 열린 브레이커처럼 Gemini에 보내지도 않은 호출과, 클라이언트가 떠나 취소된 호출은 기록하지 않습니다.
+     */
+    public <T> Mono<T> track(GeminiRoute route, Mono<T> call) {
+        TierState tier = tiersByName.get(route.tier());
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call
+                    .doOnSuccess(value -> tier.record(start, false))
+                    .doOnError(e -> !isLocalRejection(e), e -> tier.record(start, true));
+        });
+    }
+
+    /**
+     * 스트리밍 호출은 스트림이 끝날 때까지의 시간을 기록하며, 기록 대상은 {@link #track}과 같습니다.
+     */
+    public <T> Flux<T> trackMany(GeminiRoute route, Flux<T> call) {
+        TierState tier = tiersByName.get(route.tier());
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            return call
+                    .doOnComplete(() -> tier.record(start, false))
+                    .doOnError(e -> !isLocalRejection(e), e -> tier.record(start, true));
+        });
+    }
+
+    private static boolean isLocalRejection(Throwable error) {
+        return error instanceof ServiceUnavailableException || error instanceof CallNotPermittedException;
+    }
+
+    private enum Reason {
+        ELIGIBLE, FALLBACK, DEGRADED;
+
+        private String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private record Health(boolean healthy, double penalty) {}
+
+    private final class TierState {
+
+        private final String name;
+        private final GeminiRoute route;
+        private final EmergencySeverity maxSeverity;
+        private final EmergencySeverity followUpMaxSeverity;
+        private final int maxPromptSize;
+        private final ModelStats stats = new ModelStats();
+        private final Map<Reason, Counter> decisions = new HashMap<>();
+        private final Timer successLatency;
+        private final Timer failureLatency;
+
+        private volatile long healthCheckedAt;
+        private volatile ModelStats.Snapshot snapshot = new ModelStats.Snapshot(0, 0.0, 0L);
+
+        private TierState(String name, GeminiProperties.Tier tier, Duration latencySlo, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.route = new GeminiRoute(name, tier.getModel());
+            this.maxSeverity = tier.getMaxSeverity();
+            this.followUpMaxSeverity = tier.getFollowUpMaxSeverity() != null ? tier.getFollowUpMaxSeverity() : tier.getMaxSeverity();
+            this.maxPromptSize = tier.getMaxPromptSize();
+            this.healthCheckedAt = System.nanoTime() - HEALTH_REFRESH_NANOS;
+
+            for (Reason reason : Reason.values()) {
+                decisions.put(reason, Counter.builder("gemini.routing.decisions")
+                        .tag("tier", name)
+                        .tag("reason", reason.tag())
+                        .description("모델 티어 선택 횟수")
+                        .register(meterRegistry));
+            }
+            this.successLatency = latencyTimer(meterRegistry, "success", latencySlo);
+            this.failureLatency = latencyTimer(meterRegistry, "failure", latencySlo);
+            Gauge.builder("gemini.routing.p95", this, state -> state.snapshot.p95Nanos() / 1_000_000.0)
+                    .tag("tier", name)
+                    .baseUnit("milliseconds")
+                    .description("라우팅 판단에 쓰는 최근 p95 응답 시간")
+                    .register(meterRegistry);
+            Gauge.builder("gemini.routing.error-rate", this, state -> state.snapshot.failureRate())
+                    .tag("tier", name)
+                    .description("라우팅 판단에 쓰는 최근 실패율")
+                    .register(meterRegistry);
+        }
+
+        private Timer latencyTimer(MeterRegistry meterRegistry, String outcome, Duration latencySlo) {
+            return Timer.builder("gemini.model.latency")
+                    .tag("tier", name)
+                    .tag("model", route.model())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .serviceLevelObjectives(latencySlo)
+                    .register(meterRegistry);
+        }
+
+        private boolean accepts(EmergencySeverity severity, boolean followUp, int promptSize) {
+            EmergencySeverity limit = followUp ? followUpMaxSeverity : maxSeverity;
+            if (limit != null && !severity.atMost(limit)) {
+                return false;
+            }
+            return maxPromptSize <= 0 || promptSize <= maxPromptSize;
+        }
+
+        /**
+         * 통계는 최대 1초에 한 번만 다시 계산합니다. 동시에 여러 요청이 다시 계산해도 결과가 같으므로 잠그지 않습니다.
+         */
+        private Health health(long now) {
+            ModelStats.Snapshot current = snapshot;
+            if (now - healthCheckedAt >= HEALTH_REFRESH_NANOS) {
+                current = stats.snapshot(now, statsWindowNanos);
+                snapshot = current;
+                healthCheckedAt = now;
+            }
+            if (current.samples() < minSamples) {
+                return new Health(true, 0.0);
+            }
+            boolean healthy = current.p95Nanos() <= latencySloNanos && current.failureRate() <= maxErrorRate;
+            double penalty = current.p95Nanos() / Math.max(0.01, 1.0 - current.failureRate());
+            return new Health(healthy, penalty);
+        }
+
+        private GeminiRoute choose(Reason reason) {
+            decisions.get(reason).increment();
+            return route;
+        }
+
+        private void record(long start, boolean failed) {
+            long now = System.nanoTime();
+            long latency = now - start;
+            stats.record(now, latency, failed);
+            (failed ? failureLatency : successLatency).record(latency, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.gdgoc5.vitaltrip.first_aid.client;
+
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatAdviceResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 동일한 Gemini 요청이 동시에 여러 번 들어오면 업스트림 호출을 하나만 수행하고 결과를 모든 대기자에게 나눠줍니다(single-flight).
+ *
+ * <ul>
+ *     <li>첫 요청(leader)의 호출 결과나 오류가 같은 키를 기다리는 모든 요청에 그대로 전달됩니다.</li>
+ *     <li>대기자는 각자 max-wait까지만 기다리며, 한 대기자가 취소되거나 타임아웃되어도 다른 대기자에게는 영향이 없습니다.</li>
+ *     <li>모든 대기자가 취소되면 업스트림 호출도 취소됩니다.</li>
+ *     <li>호출이 끝나면 키가 제거되므로 결과를 보관하지는 않습니다. 결과 재사용은 AdviceCache가 담당합니다.
+ *     키를 제거하기 직전에 합류한 요청은 업스트림을 다시 호출하지 않고 끝난 결과를 그대로 받습니다.</li>
+ * </ul>
+ */
+@Component
+public class GeminiRequestCoalescer {
+
+    private final Map<Object, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Duration maxWait;
+    private final Counter leaderCounter;
+    private final Counter followerCounter;
+
+    public GeminiRequestCoalescer(MeterRegistry meterRegistry,
+                                  @Value("${vitaltrip.gemini-coalescer.max-wait:10s}") Duration maxWait) {
+        this.maxWait = maxWait;
+        this.leaderCounter = Counter.builder("gemini.coalescer.requests")
+                .tag("role", "leader")
+                .description("실제로 Gemini를 호출한 요청 수")
+                .register(meterRegistry);
+        this.followerCounter = Counter.builder("gemini.coalescer.requests")
+                .tag("role", "follower")
+                .description("진행 중인 동일 요청에 합류한 요청 수")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("gemini.coalescer.in-flight", Tags.empty(), inFlight);
+    }
+
+    public Mono<EmergencyChatAdviceResponse> execute(Object key, Supplier<Mono<EmergencyChatAdviceResponse>> call) {
+        return Mono.defer(() -> {
+            Flight candidate = new Flight(key);
+            Flight existing = inFlight.putIfAbsent(key, candidate);
+            if (existing != null) {
+                followerCounter.increment();
+                return existing.join().timeout(maxWait);
+            }
+            leaderCounter.increment();
+            return candidate.join()
+                    .doOnSubscribe(subscription -> candidate.start(call))
+                    .timeout(maxWait);
+        });
+    }
+
+    /**
+     * 키 하나에 대한 진행 중인 호출입니다. 업스트림은 한 번만 구독하고 결과는 Sinks.One에 담아 두므로,
+     * 호출이 끝난 직후에 합류한 요청도 업스트림을 다시 호출하지 않고 같은 결과를 받습니다.
+     */
+    private final class Flight {
+
+        private final Object key;
+        private final Sinks.One<EmergencyChatAdviceResponse> result = Sinks.one();
+        private final AtomicInteger waiters = new AtomicInteger();
+        private volatile Disposable upstream;
+
+        private Flight(Object key) {
+            this.key = key;
+        }
+
+        /**
+         * 취소 처리는 취소가 sink까지 전달된 뒤(doFinally)에 합니다. doOnCancel에서 하면 떠나는 구독자에게
+         * 아래 CancellationException이 전달되어 onErrorDropped로 오류 로그가 남습니다.
+         */
+        private Mono<EmergencyChatAdviceResponse> join() {
+            return result.asMono()
+                    .doOnSubscribe(subscription -> waiters.incrementAndGet())
+                    .doFinally(signal -> {
+                        if (signal == SignalType.CANCEL) {
+                            leave();
+                        }
+                    });
+        }
+
+        /**
+         * 결과를 전달하기 전에 키를 제거해서, 이후 들어오는 요청은 새 호출을 시작합니다.
+         */
+        private void start(Supplier<Mono<EmergencyChatAdviceResponse>> call) {
+            upstream = Mono.defer(call).subscribe(
+                    value -> {
+                        inFlight.remove(key, this);
+                        result.tryEmitValue(value);
+                    },
+                    error -> {
+                        inFlight.remove(key, this);
+                        result.tryEmitError(error);
+                    },
+                    () -> {
+                        inFlight.remove(key, this);
+                        result.tryEmitEmpty();
+                    });
+        }
+
+        private void leave() {
+            if (waiters.decrementAndGet() == 0 && inFlight.remove(key, this)) {
+                Disposable current = upstream;
+                if (current != null) {
+                    current.dispose();
+                }
+                // 제거 직전에 이 호출을 가져간 요청이 있다면 기다리지 않고 바로 실패하게 합니다.
+                result.tryEmitError(new CancellationException("동일 요청의 대기자가 모두 취소되었습니다."));
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.gdgoc5.vitaltrip.first_aid.client;
+
+import com.gdgoc5.vitaltrip.exception.ServiceUnavailableException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Gemini 호출에 지연 시간 예산(deadline), 헤지 요청, 서킷 브레이커를 적용합니다.
+ *
+ * <ul>
+ *     <li>첫 시도가 같은 모델 티어의 최근 p95 응답 시간 안에 끝나지 않거나 그 전에 다시 시도할 만한 오류(타임아웃, 429, 5xx, 연결 실패)로 실패하면
+ *     두 번째 시도를 보내고, 먼저 성공한 응답을 사용합니다. 동시 호출 한도 초과(503)나 4xx처럼 다시 보내도 소용없는 오류는 바로 전달합니다.</li>
+ *     <li>모든 시도는 서킷 브레이커를 거치며, 실패가 계속되면 브레이커가 열려 즉시 실패합니다.
+ *     동시 호출 한도 초과와 4xx는 Gemini 장애가 아니므로 브레이커 실패율에 넣지 않습니다.</li>
+ *     <li>deadline 안에 성공하지 못하면 오류로 끝나며, 호출하는 쪽에서 매뉴얼 기반 응답으로 대체합니다.</li>
+ *     <li>스트리밍 호출은 첫 청크가 deadline 안에 와야 하고, 이후 청크 사이도 deadline을 넘기면 끊습니다.
+ *     브레이커에는 첫 청크까지의 결과만 기록하므로 긴 스트림이 느린 호출로 집계되지 않습니다.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class GeminiResilienceExecutor {
+
+    private final CircuitBreaker circuitBreaker;
+    private final GeminiLatencyTracker latencyTracker;
+    private final Duration deadline;
+    private final Duration minHedgeDelay;
+    private final int maxConcurrentHedges;
+    private final AtomicInteger activeHedges = new AtomicInteger();
+
+    private final Counter hedgeCounter;
+    private final Counter deadlineExceededCounter;
+
+    public GeminiResilienceExecutor(MeterRegistry meterRegistry,
+                                    GeminiLatencyTracker latencyTracker,
+                                    @Value("${vitaltrip.gemini-resilience.deadline:8s}") Duration deadline,
+                                    @Value("${vitaltrip.gemini-resilience.min-hedge-delay:1s}") Duration minHedgeDelay,
+                                    @Value("${vitaltrip.gemini-resilience.max-concurrent-hedges:5}") int maxConcurrentHedges,
+                                    @Value("${vitaltrip.gemini-resilience.failure-rate-threshold:50}") float failureRateThreshold,
+                                    @Value("${vitaltrip.gemini-resilience.wait-in-open-state:30s}") Duration waitInOpenState) {
+        this.latencyTracker = latencyTracker;
+        this.deadline = deadline;
+        this.minHedgeDelay = minHedgeDelay;
+        this.maxConcurrentHedges = maxConcurrentHedges;
+
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(50)
+                .minimumNumberOfCalls(20)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(deadline)
+                .slowCallRateThreshold(80)
+                .waitDurationInOpenState(waitInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(5)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .ignoreException(GeminiResilienceExecutor::isLocalOrClientError)
+                .build());
+        this.circuitBreaker = registry.circuitBreaker("gemini");
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        circuitBreaker.getEventPublisher()
+                .onStateTransition(event -> log.warn("Gemini 서킷 브레이커 상태 변경: {}", event.getStateTransition()));
+
+        this.hedgeCounter = Counter.builder("gemini.resilience.hedges")
+                .description("p95 지연 또는 실패로 보낸 헤지 요청 수")
+                .register(meterRegistry);
+        this.deadlineExceededCounter = Counter.builder("gemini.resilience.deadline-exceeded")
+                .description("지연 시간 예산을 넘긴 호출 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 헤지 시점은 route의 티어에서 측정한 응답 시간으로 정하므로, 티어마다 응답 속도가 달라도 서로 섞이지 않습니다.
+     */
+    public <T> Mono<T> execute(GeminiRoute route, Supplier<Mono<T>> attempt) {
+        return Mono.defer(() -> {
+                    Duration hedgeDelay = max(minHedgeDelay, latencyTracker.percentile(route.tier(), 0.95, deadline));
+                    if (hedgeDelay.compareTo(deadline) >= 0) {
+                        return guarded(route, attempt);
+                    }
+
+                    // 다시 시도할 만한 실패는 빈 결과로 바꿔 헤지 응답을 기다리고, 둘 다 실패하면 첫 시도의 오류를 전달합니다.
+                    Sinks.Empty<Void> primaryFailed = Sinks.empty();
+                    AtomicReference<Throwable> failure = new AtomicReference<>();
+                    Mono<T> primary = guarded(route, attempt)
+                            .onErrorResume(GeminiConcurrencyLimiter::isOverload, e -> {
+                                failure.set(e);
+                                primaryFailed.tryEmitEmpty();
+                                return Mono.empty();
+                            });
+                    // 헤지 시도의 실패는 첫 시도를 취소하지 않도록 항상 빈 결과로 바꿉니다.
+                    Mono<T> hedge = Mono.firstWithSignal(Mono.delay(hedgeDelay).then(), primaryFailed.asMono())
+                            .then(Mono.defer(() -> hedgeAttempt(route, attempt)))
+                            .onErrorResume(e -> {
+                                failure.compareAndSet(null, e);
+                                return Mono.empty();
+                            });
+                    return Flux.merge(primary, hedge)
+                            .next()
+                            .switchIfEmpty(Mono.error(failure::get));
+                })
+                .timeout(deadline)
+                .doOnError(TimeoutException.class, e -> deadlineExceededCounter.increment());
+    }
+
+    /**
+     * 스트리밍 호출용입니다. 헤지하지 않으며, 첫 청크 이후의 실패는 브레이커에 기록하지 않습니다.
+     */
+    public <T> Flux<T> executeMany(Supplier<Flux<T>> stream) {
+        return Flux.defer(() -> {
+                    if (!circuitBreaker.tryAcquirePermission()) {
+                        return Flux.error(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+                    }
+                    long start = System.nanoTime();
+                    AtomicBoolean recorded = new AtomicBoolean();
+                    return Flux.defer(stream)
+                            .timeout(Mono.delay(deadline), item -> Mono.delay(deadline))
+                            .doOnNext(item -> {
+                                if (recorded.compareAndSet(false, true)) {
+                                    circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                                }
+                            })
+                            .doOnError(e -> {
+                                if (recorded.compareAndSet(false, true)) {
+                                    circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+                                }
+                            })
+                            .doFinally(signal -> {
+                                if (recorded.compareAndSet(false, true)) {
+                                    circuitBreaker.releasePermission();
+                                }
+                            });
+                })
+                .doOnError(TimeoutException.class, e -> deadlineExceededCounter.increment());
+    }
+
+    private <T> Mono<T> hedgeAttempt(GeminiRoute route, Supplier<Mono<T>> attempt) {
+        if (activeHedges.incrementAndGet() > maxConcurrentHedges) {
+            activeHedges.decrementAndGet();
+            return Mono.empty();
+        }
+        hedgeCounter.increment();
+        return guarded(route, attempt).doFinally(signal -> activeHedges.decrementAndGet());
+    }
+
+    private <T> Mono<T> guarded(GeminiRoute route, Supplier<Mono<T>> attempt) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return Mono.defer(attempt)
+                    .doOnNext(value -> latencyTracker.record(route.tier(), Duration.ofNanos(System.nanoTime() - start)));
+        }).transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+
+    private static boolean isLocalOrClientError(Throwable error) {
+        if (error instanceof ServiceUnavailableException) {
+            return true;
+        }
+        return error instanceof WebClientResponseException response
+                && response.getStatusCode().is4xxClientError()
+                && response.getStatusCode().value() != 429;
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+}
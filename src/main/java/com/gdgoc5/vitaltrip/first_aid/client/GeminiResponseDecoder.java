@@ -0,0 +1,134 @@
+package com.gdgoc5.vitaltrip.first_aid.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Gemini generateContent 응답을 트리(JsonNode) 없이 한 번의 스트리밍 파싱으로 디코딩합니다.
+ *
+ * <p>응답 바이트에서 /candidates/0/content/parts/0/text 까지만 토큰을 따라가고 나머지는 건너뛴 뒤,
+ * 그 텍스트에 담긴 조언 JSON을 바로 {@link GeminiAdvice}로 바인딩합니다.
+ * JsonFactory는 애플리케이션 공용 ObjectMapper의 것을 재사용합니다.
+ */
+@Slf4j
+@Component
+public class GeminiResponseDecoder {
+
+    private final JsonFactory jsonFactory;
+
+    public GeminiResponseDecoder(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * generateContent 응답 본문에서 조언을 읽습니다. 조언 본문("c")이 없으면 예외를 던집니다.
+     */
+    public GeminiAdvice decodeAdvice(byte[] body) {
+        String text;
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            text = readCandidateText(parser);
+        } catch (IOException e) {
+            throw new RuntimeException("Gemini 응답 파싱 중 오류 발생", e);
+        }
+        if (text == null) {
+            throw new RuntimeException("Gemini 응답에 후보 텍스트가 없습니다.");
+        }
+
+        GeminiAdvice advice = parseAdvice(text);
+        if (advice.content() == null) {
+            throw new RuntimeException("Gemini 응답에 조언 본문이 없습니다.");
+        }
+        return advice;
+    }
+
+    /**
+     * streamGenerateContent의 SSE 청크 하나에서 텍스트 조각을 읽습니다. 텍스트가 없는 청크는 빈 문자열을 반환합니다.
+     */
+    public String extractText(String chunk) {
+        try (JsonParser parser = jsonFactory.createParser(chunk)) {
+            String text = readCandidateText(parser);
+            return text == null ? "" : text;
+        } catch (IOException e) {
+            throw new RuntimeException("Gemini 스트림 응답 파싱 중 오류 발생", e);
+        }
+    }
+
+    /**
+     * 조언 JSON 텍스트를 바인딩합니다. 스키마 모드가 아닐 때 붙는 ```json 펜스 등은 첫 '{'부터 마지막 '}'까지만 읽어 무시합니다.
+     * 없는 필드는 content=null, recommendedAction="", confidence=0.5로 채웁니다.
+     */
+    public GeminiAdvice parseAdvice(String text) {
+        int start = text.indexOf('{');
+        int end = text.lastIndexOf('}');
+        if (start < 0 || end < start) {
+            throw new RuntimeException("Gemini 응답에서 JSON 객체를 찾을 수 없습니다.");
+        }
+
+        String content = null;
+        String recommendedAction = "";
+        double confidence = GeminiAdvice.DEFAULT_CONFIDENCE;
+        // 스키마 모드에서는 start == 0, end == length - 1 이므로 substring이 새 문자열을 만들지 않습니다.
+        try (JsonParser parser = jsonFactory.createParser(text.substring(start, end + 1))) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "c" -> content = parser.getValueAsString();
+                    case "recommendedAction" -> recommendedAction = parser.getValueAsString("");
+                    case "confidence" -> confidence = parser.getValueAsDouble(GeminiAdvice.DEFAULT_CONFIDENCE);
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Gemini 조언 JSON 파싱 중 오류 발생", e);
+        }
+        return new GeminiAdvice(content, recommendedAction, confidence);
+    }
+
+    private String readCandidateText(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("error".equals(field)) {
+                log.error("Gemini API 응답 오류: {}", parser.readValueAsTree().toString());
+                throw new RuntimeException("Gemini API 호출 중 오류가 발생했습니다.");
+            }
+            if ("candidates".equals(field) && value == JsonToken.START_ARRAY) {
+                return parser.nextToken() == JsonToken.START_OBJECT
+                        && moveToField(parser, "content", JsonToken.START_OBJECT)
+                        && moveToField(parser, "parts", JsonToken.START_ARRAY)
+                        && parser.nextToken() == JsonToken.START_OBJECT
+                        && moveToField(parser, "text", JsonToken.VALUE_STRING)
+                        ? parser.getText()
+                        : null;
+            }
+            parser.skipChildren();
+        }
+        return null;
+    }
+
+    /**
+     * 현재 객체 안에서 field를 찾아 그 값으로 이동합니다. 다른 필드는 건너뜁니다.
+     */
+    private static boolean moveToField(JsonParser parser, String field, JsonToken expected) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (field.equals(name)) {
+                return value == expected;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,9 @@
+package com.gdgoc5.vitaltrip.first_aid.client;
+
+/**
+ * 요청 하나에 대해 {@link GeminiModelRouter}가 고른 모델 티어입니다.
+ */
+public record GeminiRoute(
+        String tier,
+        String model
+) {}
@@ -0,0 +1,66 @@
+package com.gdgoc5.vitaltrip.first_aid.client;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 모델 하나의 최근 호출 결과(시각, 응답 시간, 실패 여부)를 고정 크기 링 버퍼에 보관하고,
+ * 주어진 기간 안의 호출만으로 실패율과 p95 응답 시간을 계산합니다.
+ */
+final class ModelStats {
+
+    private static final int CAPACITY = 256;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long[] timestamps = new long[CAPACITY];
+    private final long[] latencies = new long[CAPACITY];
+    private final boolean[] failures = new boolean[CAPACITY];
+    private int next;
+    private int size;
+
+    void record(long now, long latencyNanos, boolean failed) {
+        lock.lock();
+        try {
+            timestamps[next] = now;
+            latencies[next] = latencyNanos;
+            failures[next] = failed;
+            next = (next + 1) % CAPACITY;
+            size = Math.min(size + 1, CAPACITY);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * now - window 이후의 호출만 집계합니다. p95는 성공한 호출의 응답 시간 기준입니다.
+     */
+    Snapshot snapshot(long now, long windowNanos) {
+        long[] successLatencies = new long[CAPACITY];
+        int samples = 0;
+        int successes = 0;
+        lock.lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                if (now - timestamps[i] > windowNanos) {
+                    continue;
+                }
+                samples++;
+                if (!failures[i]) {
+                    successLatencies[successes++] = latencies[i];
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        long p95 = 0L;
+        if (successes > 0) {
+            Arrays.sort(successLatencies, 0, successes);
+            p95 = successLatencies[Math.max(0, (int) Math.ceil(0.95 * successes) - 1)];
+        }
+        double failureRate = samples == 0 ? 0.0 : (double) (samples - successes) / samples;
+        return new Snapshot(samples, failureRate, p95);
+    }
+
+    record Snapshot(int samples, double failureRate, long p95Nanos) {}
+}
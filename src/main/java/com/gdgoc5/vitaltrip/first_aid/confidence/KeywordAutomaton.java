@@ -0,0 +1,228 @@
+package com.gdgoc5.vitaltrip.first_aid.confidence;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 가중치가 있는 키워드 사전을 Aho-Corasick 오토마톤(DFA)으로 컴파일해 두고, 텍스트를 한 번만 훑어 점수를 계산합니다.
+ *
+ * <p>문자는 소문자로 접고, 글자/숫자가 아닌 문자는 모두 공백(단어 경계)으로 취급하며 연속된 경계는 하나로 합칩니다.
+ * 키워드 앞뒤에 경계 문자를 붙여 컴파일하므로 "burn"은 "burned"에 매칭되지 않고, "burn*"처럼 끝에 *를 붙이면
+ * 단어 앞부분만 맞으면 매칭됩니다(burns, burned 등).
+ *
+ * <p>키워드가 64개 이하이면 점수 계산 중에 객체를 할당하지 않습니다.
+ */
+public final class KeywordAutomaton {
+
+    private static final char BOUNDARY = ' ';
+    private static final int ROOT = 0;
+
+    private final int[] asciiSymbols = new int[128];
+    private final char[] extraChars;
+    private final int alphabetSize;
+    private final int[] transitions;
+    private final int[][] outputs;
+    private final double[] weights;
+    private final double totalWeight;
+
+    private KeywordAutomaton(List<String> patterns, double[] weights) {
+        this.weights = weights;
+        this.totalWeight = Arrays.stream(weights).sum();
+
+        // 1. 키워드에 등장하는 문자만으로 알파벳을 만듭니다. 0번 심볼은 "알파벳에 없는 문자"입니다.
+        TreeSet<Character> alphabet = new TreeSet<>();
+        patterns.forEach(pattern -> pattern.chars().forEach(c -> alphabet.add((char) c)));
+        List<Character> extra = new ArrayList<>();
+        int symbol = 1;
+        for (char c : alphabet) {
+            if (c < 128) {
+                asciiSymbols[c] = symbol++;
+            } else {
+                extra.add(c);
+            }
+        }
+        this.extraChars = new char[extra.size()];
+        for (int i = 0; i < extra.size(); i++) {
+            extraChars[i] = extra.get(i);
+        }
+        this.alphabetSize = symbol + extraChars.length;
+
+        // 2. 트라이를 만듭니다.
+        List<Map<Integer, Integer>> children = new ArrayList<>();
+        List<List<Integer>> nodeOutputs = new ArrayList<>();
+        children.add(new HashMap<>());
+        nodeOutputs.add(new ArrayList<>());
+        for (int id = 0; id < patterns.size(); id++) {
+            int node = ROOT;
+            for (char c : patterns.get(id).toCharArray()) {
+                int s = symbolOf(c);
+                Integer child = children.get(node).get(s);
+                if (child == null) {
+                    child = children.size();
+                    children.add(new HashMap<>());
+                    nodeOutputs.add(new ArrayList<>());
+                    children.get(node).put(s, child);
+                }
+                node = child;
+            }
+            nodeOutputs.get(node).add(id);
+        }
+
+        // 3. BFS로 실패 링크를 계산하면서 완전한 전이표(DFA)와 출력 집합을 만듭니다.
+        int nodeCount = children.size();
+        this.transitions = new int[nodeCount * alphabetSize];
+        int[] fail = new int[nodeCount];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int s = 0; s < alphabetSize; s++) {
+            Integer child = children.get(ROOT).get(s);
+            if (child != null) {
+                transitions[s] = child;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            nodeOutputs.get(node).addAll(nodeOutputs.get(fail[node]));
+            for (int s = 0; s < alphabetSize; s++) {
+                Integer child = children.get(node).get(s);
+                if (child != null) {
+                    fail[child] = transitions[fail[node] * alphabetSize + s];
+                    transitions[node * alphabetSize + s] = child;
+                    queue.add(child);
+                } else {
+                    transitions[node * alphabetSize + s] = transitions[fail[node] * alphabetSize + s];
+                }
+            }
+        }
+
+        this.outputs = new int[nodeCount][];
+        for (int node = 0; node < nodeCount; node++) {
+            outputs[node] = nodeOutputs.get(node).stream().distinct().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * @param weightedKeywords 키워드와 가중치. 키워드 끝의 *는 접두어 매칭을 뜻합니다.
+     */
+    public static KeywordAutomaton compile(Map<String, Double> weightedKeywords) {
+        List<String> patterns = new ArrayList<>(weightedKeywords.size());
+        double[] weights = new double[weightedKeywords.size()];
+        int i = 0;
+        for (Map.Entry<String, Double> entry : weightedKeywords.entrySet()) {
+            String keyword = entry.getKey().trim();
+            boolean prefix = keyword.endsWith("*");
+            if (prefix) {
+                keyword = keyword.substring(0, keyword.length() - 1);
+            }
+            patterns.add(BOUNDARY + normalize(keyword) + (prefix ? "" : String.valueOf(BOUNDARY)));
+            weights[i++] = entry.getValue();
+        }
+        return new KeywordAutomaton(patterns, weights);
+    }
+
+    /**
+     * 매칭된 키워드(중복 제외)의 가중치 합을 전체 가중치 합으로 나눈 값(0.0 ~ 1.0)을 반환합니다.
+     */
+    public double score(CharSequence text) {
+        if (totalWeight <= 0) {
+            return 0.0;
+        }
+        if (weights.length > Long.SIZE) {
+            return scoreLarge(text);
+        }
+
+        long matched = 0L;
+        int state = step(ROOT, BOUNDARY);
+        char previous = BOUNDARY;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = fold(text.charAt(i));
+            if (c == BOUNDARY && previous == BOUNDARY) {
+                continue;
+            }
+            previous = c;
+            state = step(state, c);
+            for (int id : outputs[state]) {
+                matched |= 1L << id;
+            }
+        }
+        if (previous != BOUNDARY) {
+            state = step(state, BOUNDARY);
+            for (int id : outputs[state]) {
+                matched |= 1L << id;
+            }
+        }
+
+        double sum = 0.0;
+        while (matched != 0) {
+            int id = Long.numberOfTrailingZeros(matched);
+            sum += weights[id];
+            matched &= matched - 1;
+        }
+        return sum / totalWeight;
+    }
+
+    private double scoreLarge(CharSequence text) {
+        boolean[] matched = new boolean[weights.length];
+        int state = step(ROOT, BOUNDARY);
+        char previous = BOUNDARY;
+        for (int i = 0, length = text.length(); i <= length; i++) {
+            char c = i < length ? fold(text.charAt(i)) : BOUNDARY;
+            if (c == BOUNDARY && previous == BOUNDARY) {
+                continue;
+            }
+            previous = c;
+            state = step(state, c);
+            for (int id : outputs[state]) {
+                matched[id] = true;
+            }
+        }
+
+        double sum = 0.0;
+        for (int id = 0; id < matched.length; id++) {
+            if (matched[id]) {
+                sum += weights[id];
+            }
+        }
+        return sum / totalWeight;
+    }
+
+    private int step(int state, char c) {
+        int s = symbolOf(c);
+        return s == 0 ? ROOT : transitions[state * alphabetSize + s];
+    }
+
+    private int symbolOf(char c) {
+        if (c < 128) {
+            return asciiSymbols[c];
+        }
+        int index = Arrays.binarySearch(extraChars, c);
+        return index < 0 ? 0 : alphabetSize - extraChars.length + index;
+    }
+
+    private static char fold(char c) {
+        return Character.isLetterOrDigit(c) ? Character.toLowerCase(c) : BOUNDARY;
+    }
+
+    private static String normalize(String keyword) {
+        StringBuilder builder = new StringBuilder(keyword.length());
+        char previous = BOUNDARY;
+        for (char c : keyword.toCharArray()) {
+            char folded = fold(c);
+            if (folded == BOUNDARY && previous == BOUNDARY) {
+                continue;
+            }
+            builder.append(folded);
+            previous = folded;
+        }
+        int end = builder.length();
+        while (end > 0 && builder.charAt(end - 1) == BOUNDARY) {
+            end--;
+        }
+        return builder.substring(0, end);
+    }
+}
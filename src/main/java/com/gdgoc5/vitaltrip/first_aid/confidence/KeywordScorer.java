@@ -0,0 +1,117 @@
+package com.gdgoc5.vitaltrip.first_aid.confidence;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 응급 유형별 필수 키워드 사전으로 AI 응답의 신뢰도를 평가합니다.
+ *
+ * <p>사전은 vitaltrip.confidence.keywords-location(JSON)에서 읽어 유형별 {@link KeywordAutomaton}으로 컴파일해 둡니다.
+ * 파일 시스템 경로를 지정한 경우에는 수정 시각을 주기적으로 확인해서 재배포 없이 사전을 교체합니다.
+ */
+@Slf4j
+@Component
+public class KeywordScorer {
+
+    private static final double MIN_SCORE = 0.3;
+
+    private final ObjectMapper objectMapper;
+    private final Resource location;
+
+    private volatile Map<EmergencyType, Map<String, Double>> dictionary = Map.of();
+    private volatile Map<EmergencyType, KeywordAutomaton> automata = new EnumMap<>(EmergencyType.class);
+    private long lastModified;
+
+    public KeywordScorer(ObjectMapper objectMapper,
+                         ResourceLoader resourceLoader,
+                         @Value("${vitaltrip.confidence.keywords-location:classpath:confidence-keywords.json}") String location) {
+        this.objectMapper = objectMapper;
+        this.location = resourceLoader.getResource(location);
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        Map<EmergencyType, Map<String, Double>> loaded = read();
+        automata = compile(loaded);
+        dictionary = loaded;
+        lastModified = lastModifiedOf(location);
+        log.info("신뢰도 키워드 사전 로딩 완료: {}", location.getDescription());
+    }
+
+    @Scheduled(fixedDelayString = "${vitaltrip.confidence.reload-interval:60s}",
+            initialDelayString = "${vitaltrip.confidence.reload-interval:60s}")
+    public void reloadIfModified() {
+        if (!location.isFile()) {
+            return;
+        }
+        try {
+            long modified = lastModifiedOf(location);
+            if (modified == lastModified) {
+                return;
+            }
+            Map<EmergencyType, Map<String, Double>> loaded = read();
+            automata = compile(loaded);
+            dictionary = loaded;
+            lastModified = modified;
+            log.info("신뢰도 키워드 사전 갱신: {}", location.getDescription());
+        } catch (Exception e) {
+            log.error("신뢰도 키워드 사전 갱신 실패, 기존 사전을 유지합니다.", e);
+        }
+    }
+
+    /**
+     * 응답 본문에 포함된 필수 키워드 비율(최소 0.3)을 반환합니다.
+     */
+    public double score(String content, EmergencyType type) {
+        KeywordAutomaton automaton = automata.get(type);
+        if (automaton == null || content == null) {
+            return MIN_SCORE;
+        }
+        return Math.max(MIN_SCORE, automaton.score(content));
+    }
+
+    /**
+     * 현재 키워드 사전입니다. 사전이 교체되면 다른 객체가 반환되므로, 참조 비교로 갱신 여부를 알 수 있습니다.
+     */
+    public Map<EmergencyType, Map<String, Double>> dictionary() {
+        return dictionary;
+    }
+
+    private Map<EmergencyType, Map<String, Double>> read() throws IOException {
+        try (InputStream in = location.getInputStream()) {
+            return objectMapper.readValue(in, new TypeReference<Map<EmergencyType, Map<String, Double>>>() {});
+        }
+    }
+
+    private static Map<EmergencyType, KeywordAutomaton> compile(Map<EmergencyType, Map<String, Double>> dictionary) {
+        Map<EmergencyType, KeywordAutomaton> compiled = new EnumMap<>(EmergencyType.class);
+        dictionary.forEach((type, keywords) -> compiled.put(type, KeywordAutomaton.compile(keywords)));
+        for (EmergencyType type : EmergencyType.values()) {
+            if (!compiled.containsKey(type)) {
+                log.warn("신뢰도 키워드 사전에 {} 유형이 없습니다.", type);
+            }
+        }
+        return compiled;
+    }
+
+    private static long lastModifiedOf(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+}
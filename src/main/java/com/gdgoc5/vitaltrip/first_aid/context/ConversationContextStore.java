@@ -0,0 +1,118 @@
+package com.gdgoc5.vitaltrip.first_aid.context;
+
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyChatMessage;
+import com.gdgoc5.vitaltrip.first_aid.repository.EmergencyChatMessageRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 세션별 최근 대화 턴을 메모리에 유지해서 후속 상담 프롬프트에 이전 대화를 넣습니다.
+ *
+ * <p>세션마다 최근 max-turns 턴만 원문으로 두고 그 이전은 요약으로 유지하므로, 세션 길이와 무관하게 턴당 비용이 일정합니다.
+ * 캐시에 없는 세션(재시작, 만료 등)은 (session_id, created_at) 인덱스를 타는 최근 메시지 조회 한 번으로 복원합니다.
+ * 적중/미스/제거 지표는 cache.* (cache=conversation.context)로 노출됩니다.
+ */
+@Component
+public class ConversationContextStore {
+
+    // 캐시 미스 시 최근 턴 외에 요약으로 복원할 이전 턴 수
+    private static final int SUMMARY_TURNS_ON_LOAD = 4;
+    // 응답이 저장되지 않은 턴에 넣는 문구 (Gemini는 빈 text 파트를 허용하지 않습니다)
+    private static final String NO_RESPONSE = "(no response)";
+
+    private final EmergencyChatMessageRepository messageRepository;
+    private final int maxTurns;
+    private final int maxMessageChars;
+    private final int summaryMaxChars;
+    private final Cache<UUID, ConversationWindow> cache;
+
+    public ConversationContextStore(EmergencyChatMessageRepository messageRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${vitaltrip.conversation-context.max-turns:6}") int maxTurns,
+                                    @Value("${vitaltrip.conversation-context.max-message-chars:2000}") int maxMessageChars,
+                                    @Value("${vitaltrip.conversation-context.summary-max-chars:1200}") int summaryMaxChars,
+                                    @Value("${vitaltrip.conversation-context.maximum-size:10000}") long maximumSize,
+                                    @Value("${vitaltrip.conversation-context.expire-after-access:30m}") Duration expireAfterAccess) {
+        this.messageRepository = messageRepository;
+        this.maxTurns = maxTurns;
+        this.maxMessageChars = maxMessageChars;
+        this.summaryMaxChars = summaryMaxChars;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "conversation.context");
+    }
+
+    /**
+     * 세션의 이전 대화를 반환합니다. 캐시 미스 시 DB를 조회하므로 블로킹 스케줄러에서 호출해야 합니다.
+     */
+    public ConversationHistory history(UUID sessionId) {
+        ConversationWindow window = cache.getIfPresent(sessionId);
+        if (window == null) {
+            ConversationWindow loaded = load(sessionId);
+            window = cache.asMap().putIfAbsent(sessionId, loaded);
+            if (window == null) {
+                window = loaded;
+            }
+        }
+        return window.snapshot();
+    }
+
+    /**
+     * 새 세션의 첫 턴을 등록합니다. 첫 후속 상담부터 DB 조회 없이 문맥을 사용할 수 있습니다.
+     */
+    public void start(UUID sessionId, String userMessage, String assistantMessage) {
+        ConversationWindow window = newWindow();
+        window.append(userMessage, assistantMessage);
+        cache.put(sessionId, window);
+    }
+
+    /**
+     * 저장이 끝난 턴을 반영합니다. 캐시에 없는 세션은 다음 조회 때 DB에서 복원되므로 무시합니다.
+     */
+    public void append(UUID sessionId, String userMessage, String assistantMessage) {
+        ConversationWindow window = cache.getIfPresent(sessionId);
+        if (window != null) {
+            window.append(userMessage, assistantMessage);
+        }
+    }
+
+    private ConversationWindow load(UUID sessionId) {
+        int limit = 2 * (maxTurns + SUMMARY_TURNS_ON_LOAD);
+        List<EmergencyChatMessage> recent = messageRepository.findBySessionIdOrderByCreatedAtDesc(sessionId, PageRequest.of(0, limit));
+
+        ConversationWindow window = newWindow();
+        String pendingUserMessage = null;
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            EmergencyChatMessage message = recent.get(i);
+            if ("USER".equals(message.getSender())) {
+                if (pendingUserMessage != null) {
+                    window.append(pendingUserMessage, NO_RESPONSE);
+                }
+                pendingUserMessage = message.getMessage();
+            } else if (pendingUserMessage != null) {
+                window.append(pendingUserMessage, message.getMessage());
+                pendingUserMessage = null;
+            }
+        }
+        if (pendingUserMessage != null) {
+            window.append(pendingUserMessage, NO_RESPONSE);
+        }
+        return window;
+    }
+
+    private ConversationWindow newWindow() {
+        return new ConversationWindow(maxTurns, maxMessageChars, summaryMaxChars);
+    }
+}
@@ -0,0 +1,17 @@
+package com.gdgoc5.vitaltrip.first_aid.context;
+
+import java.util.List;
+
+/**
+ * Gemini에 함께 보낼 이전 대화입니다. 최근 턴은 원문 그대로, 그보다 오래된 턴은 요약으로만 담습니다.
+ */
+public record ConversationHistory(
+    String summary,
+    List<ConversationTurn> turns
+) {
+    public static final ConversationHistory EMPTY = new ConversationHistory("", List.of());
+
+    public boolean isEmpty() {
+        return summary.isEmpty() && turns.isEmpty();
+    }
+}
@@ -0,0 +1,10 @@
+package com.gdgoc5.vitaltrip.first_aid.context;
+
+/**
+ * 사용자 메시지 하나와 그에 대한 AI 응답 하나로 이루어진 대화 턴입니다.
+ */
+public record ConversationTurn(
+    String userMessage,
+    String assistantMessage
+) {
+}
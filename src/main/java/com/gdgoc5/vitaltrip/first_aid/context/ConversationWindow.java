@@ -0,0 +1,98 @@
+package com.gdgoc5.vitaltrip.first_aid.context;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 세션 하나의 최근 N턴을 담는 링 버퍼입니다.
+ * 버퍼에서 밀려난 턴은 한 줄 요약으로 바꿔 요약 예산(문자 수) 안에서만 유지하므로, 세션이 길어져도 크기가 일정합니다.
+ * 요약 예산을 넘으면 첫 줄(처음 상황 설명)은 남기고 그다음으로 오래된 줄부터 버립니다.
+ */
+final class ConversationWindow {
+
+    private static final int SUMMARY_LINE_PART_CHARS = 150;
+
+    private final ConversationTurn[] ring;
+    private final int maxMessageChars;
+    private final int summaryMaxChars;
+    private final Deque<String> summaryLines = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private String firstSummaryLine;
+    private int summaryChars;
+    private int start;
+    private int size;
+
+    ConversationWindow(int maxTurns, int maxMessageChars, int summaryMaxChars) {
+        this.ring = new ConversationTurn[maxTurns];
+        this.maxMessageChars = maxMessageChars;
+        this.summaryMaxChars = summaryMaxChars;
+    }
+
+    void append(String userMessage, String assistantMessage) {
+        ConversationTurn turn = new ConversationTurn(truncate(userMessage, maxMessageChars), truncate(assistantMessage, maxMessageChars));
+        lock.lock();
+        try {
+            if (ring.length == 0) {
+                summarize(turn);
+                return;
+            }
+            if (size == ring.length) {
+                summarize(ring[start]);
+                ring[start] = turn;
+                start = (start + 1) % ring.length;
+            } else {
+                ring[(start + size) % ring.length] = turn;
+                size++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    ConversationHistory snapshot() {
+        lock.lock();
+        try {
+            List<ConversationTurn> turns = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                turns.add(ring[(start + i) % ring.length]);
+            }
+            return new ConversationHistory(summaryText(), List.copyOf(turns));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void summarize(ConversationTurn turn) {
+        String line = "- User: " + truncate(turn.userMessage(), SUMMARY_LINE_PART_CHARS)
+                + " / Assistant: " + truncate(turn.assistantMessage(), SUMMARY_LINE_PART_CHARS);
+        if (firstSummaryLine == null) {
+            firstSummaryLine = line;
+            summaryChars += line.length() + 1;
+            return;
+        }
+        summaryLines.addLast(line);
+        summaryChars += line.length() + 1;
+        while (summaryChars > summaryMaxChars && !summaryLines.isEmpty()) {
+            summaryChars -= summaryLines.pollFirst().length() + 1;
+        }
+    }
+
+    private String summaryText() {
+        if (firstSummaryLine == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(summaryChars).append(firstSummaryLine);
+        summaryLines.forEach(line -> builder.append('\n').append(line));
+        return builder.toString();
+    }
+
+    private static String truncate(String text, int maxChars) {
+        if (text == null) {
+            return "";
+        }
+        return text.length() <= maxChars ? text : text.substring(0, maxChars) + "...";
+    }
+}
@@ -0,0 +1,13 @@
+package com.gdgoc5.vitaltrip.first_aid.dto;
+
+/**
+ * 상담 응답을 만든 경로입니다.
+ */
+public enum AdviceSource {
+    /** Gemini가 생성한 응답입니다. */
+    AI,
+    /** 매뉴얼이 충분히 맞아 Gemini를 호출하지 않고 매뉴얼로 바로 답한 응답입니다. 앱은 "AI에게 더 물어보기"를 함께 보여줍니다. */
+    MANUAL,
+    /** Gemini 호출이 실패해 매뉴얼로 대신 답한 응답입니다. */
+    MANUAL_FALLBACK
+}
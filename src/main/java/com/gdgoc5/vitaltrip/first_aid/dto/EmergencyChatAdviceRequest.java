@@ -1,6 +1,19 @@
 package com.gdgoc5.vitaltrip.first_aid.dto;
 
+import java.util.UUID;
+
+/**
+ * emergencyType은 선택 값입니다. 생략하면 서버가 userMessage로 유형을 추정하고 응답의 triage에 결과를 담습니다.
+ * userId는 선택 값입니다. 지정하면 세션이 해당 사용자의 상담 목록(GET /users/{id}/sessions)에 포함됩니다.
+ * preferAi가 true이면 매뉴얼 fast-path를 건너뛰고 항상 AI에게 묻습니다("AI에게 더 물어보기").
+ */
 public record EmergencyChatAdviceRequest(
         String emergencyType,
-        String userMessage
-) {}
+        String userMessage,
+        UUID userId,
+        Boolean preferAi
+) {
+    public boolean prefersAi() {
+        return Boolean.TRUE.equals(preferAi);
+    }
+}
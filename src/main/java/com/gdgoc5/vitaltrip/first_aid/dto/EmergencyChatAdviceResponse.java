@@ -8,14 +8,16 @@ public record EmergencyChatAdviceResponse(
     String recommendedAction,
     double confidence,
     List<String> blogLinks,
-    UUID sessionId
+    UUID sessionId,
+    AdviceSource source,
+    EmergencyTriageResponse triage
 ) {
     public static EmergencyChatAdviceResponse from(String content, String recommendedAction, double confidence, List<String> blogLinks, UUID sessionId) {
-        return new EmergencyChatAdviceResponse(content, recommendedAction, confidence, blogLinks, sessionId);
+        return new EmergencyChatAdviceResponse(content, recommendedAction, confidence, blogLinks, sessionId, AdviceSource.AI, null);
     }
 
     public static EmergencyChatAdviceResponse from(String content, String recommendedAction, double confidence, List<String> blogLinks) {
-        return new EmergencyChatAdviceResponse(content, recommendedAction, confidence, blogLinks, null);
+        return new EmergencyChatAdviceResponse(content, recommendedAction, confidence, blogLinks, null, AdviceSource.AI, null);
     }
 
     /**
@@ -23,6 +25,17 @@ public record EmergencyChatAdviceResponse(
      * 초기 상담 후 세션 ID가 생성되는 경우에 사용됩니다.
      */
     public EmergencyChatAdviceResponse withSessionId(UUID sessionId) {
-        return new EmergencyChatAdviceResponse(this.content, this.recommendedAction, this.confidence, this.blogLinks, sessionId);
+        return new EmergencyChatAdviceResponse(this.content, this.recommendedAction, this.confidence, this.blogLinks, sessionId, this.source, this.triage);
+    }
+
+    public EmergencyChatAdviceResponse withSource(AdviceSource source) {
+        return new EmergencyChatAdviceResponse(this.content, this.recommendedAction, this.confidence, this.blogLinks, this.sessionId, source, this.triage);
+    }
+
+    /**
+     * emergencyType 없이 요청해 서버가 유형을 추정한 경우에만 추정 결과를 담습니다.
+     */
+    public EmergencyChatAdviceResponse withTriage(EmergencyTriageResponse triage) {
+        return new EmergencyChatAdviceResponse(this.content, this.recommendedAction, this.confidence, this.blogLinks, this.sessionId, this.source, triage);
     }
 }
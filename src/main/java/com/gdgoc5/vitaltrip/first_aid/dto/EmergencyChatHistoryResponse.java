@@ -0,0 +1,16 @@
+package com.gdgoc5.vitaltrip.first_aid.dto;
+
+import java.util.List;
+
+/**
+ * 대화 내역 한 페이지입니다. hasNext가 true이면 nextCursor를 after로 넘겨 다음 페이지를 조회합니다.
+ */
+public record EmergencyChatHistoryResponse(
+        List<EmergencyChatMessageResponse> messages,
+        String nextCursor,
+        boolean hasNext
+) {
+    public static EmergencyChatHistoryResponse of(List<EmergencyChatMessageResponse> messages, String nextCursor) {
+        return new EmergencyChatHistoryResponse(messages, nextCursor, nextCursor != null);
+    }
+}
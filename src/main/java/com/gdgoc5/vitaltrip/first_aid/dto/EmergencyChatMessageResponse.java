@@ -1,6 +1,8 @@
 package com.gdgoc5.vitaltrip.first_aid.dto;
 
 import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyChatMessage;
+import com.gdgoc5.vitaltrip.first_aid.history.ChatMessageRow;
+import com.gdgoc5.vitaltrip.first_aid.persistence.PendingChatMessage;
 
 import java.time.LocalDateTime;
 
@@ -16,4 +18,20 @@ public record EmergencyChatMessageResponse(
             message.getCreatedAt()
         );
     }
+
+    public static EmergencyChatMessageResponse from(PendingChatMessage message) {
+        return new EmergencyChatMessageResponse(
+            message.sender(),
+            message.message(),
+            message.createdAt()
+        );
+    }
+
+    public static EmergencyChatMessageResponse from(ChatMessageRow row) {
+        return new EmergencyChatMessageResponse(
+            row.sender(),
+            row.message(),
+            row.createdAt()
+        );
+    }
 }
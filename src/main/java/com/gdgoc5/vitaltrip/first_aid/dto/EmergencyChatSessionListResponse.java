@@ -0,0 +1,16 @@
+package com.gdgoc5.vitaltrip.first_aid.dto;
+
+import java.util.List;
+
+/**
+ * 사용자 세션 목록 한 페이지입니다. hasNext가 true이면 nextCursor를 after로 넘겨 다음 페이지를 조회합니다.
+ */
+public record EmergencyChatSessionListResponse(
+        List<EmergencyChatSessionSummaryResponse> sessions,
+        String nextCursor,
+        boolean hasNext
+) {
+    public static EmergencyChatSessionListResponse of(List<EmergencyChatSessionSummaryResponse> sessions, String nextCursor) {
+        return new EmergencyChatSessionListResponse(sessions, nextCursor, nextCursor != null);
+    }
+}
@@ -0,0 +1,18 @@
+package com.gdgoc5.vitaltrip.first_aid.dto;
+
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 세션 목록의 한 항목입니다. 세션에 저장된 요약 컬럼에서 바로 읽습니다.
+ */
+public record EmergencyChatSessionSummaryResponse(
+        UUID sessionId,
+        EmergencyType emergencyType,
+        LocalDateTime createdAt,
+        int messageCount,
+        String lastMessagePreview,
+        LocalDateTime lastActivityAt
+) {}
@@ -0,0 +1,26 @@
+package com.gdgoc5.vitaltrip.first_aid.dto;
+
+/**
+ * SSE로 전송되는 상담 스트림 이벤트입니다.
+ * token 이벤트는 조언 텍스트 조각을, complete 이벤트는 최종 상담 결과를 담습니다.
+ */
+public record EmergencyChatStreamEvent(
+        String event,
+        Object data
+) {
+    public static final String TOKEN = "token";
+    public static final String COMPLETE = "complete";
+    public static final String ERROR = "error";
+
+    public static EmergencyChatStreamEvent token(String text) {
+        return new EmergencyChatStreamEvent(TOKEN, text);
+    }
+
+    public static EmergencyChatStreamEvent complete(EmergencyChatAdviceResponse advice) {
+        return new EmergencyChatStreamEvent(COMPLETE, advice);
+    }
+
+    public static EmergencyChatStreamEvent error(Object error) {
+        return new EmergencyChatStreamEvent(ERROR, error);
+    }
+}
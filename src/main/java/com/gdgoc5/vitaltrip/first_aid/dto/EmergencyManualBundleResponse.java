@@ -0,0 +1,11 @@
+package com.gdgoc5.vitaltrip.first_aid.dto;
+
+import java.util.List;
+
+/**
+ * 전체 매뉴얼 스냅샷입니다. version은 이후 변경분 조회(since)에 그대로 사용합니다.
+ */
+public record EmergencyManualBundleResponse(
+        long version,
+        List<EmergencyManualSyncItem> manuals
+) {}
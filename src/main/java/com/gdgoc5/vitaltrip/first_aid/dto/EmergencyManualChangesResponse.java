@@ -0,0 +1,22 @@
+package com.gdgoc5.vitaltrip.first_aid.dto;
+
+import java.util.List;
+
+/**
+ * since 버전 이후의 매뉴얼 변경분입니다.
+ * fullResync가 true이면 서버가 삭제 이력을 알 수 없는 버전이므로 번들을 다시 받아야 합니다.
+ */
+public record EmergencyManualChangesResponse(
+        long version,
+        boolean fullResync,
+        List<EmergencyManualSyncItem> updated,
+        List<Integer> deleted
+) {
+    public static EmergencyManualChangesResponse of(long version, List<EmergencyManualSyncItem> updated, List<Integer> deleted) {
+        return new EmergencyManualChangesResponse(version, false, updated, deleted);
+    }
+
+    public static EmergencyManualChangesResponse fullResync(long version) {
+        return new EmergencyManualChangesResponse(version, true, List.of(), List.of());
+    }
+}
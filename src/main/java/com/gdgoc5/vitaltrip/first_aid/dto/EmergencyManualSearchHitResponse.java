@@ -0,0 +1,24 @@
+package com.gdgoc5.vitaltrip.first_aid.dto;
+
+import com.gdgoc5.vitaltrip.first_aid.search.ManualSearchHit;
+
+/**
+ * 매뉴얼 검색 결과 한 건입니다. snippet은 일치한 단어를 &lt;em&gt;으로 감싼 본문 일부입니다.
+ */
+public record EmergencyManualSearchHitResponse(
+        int id,
+        String emergencyType,
+        String title,
+        String snippet,
+        double score
+) {
+    public static EmergencyManualSearchHitResponse from(ManualSearchHit hit) {
+        return new EmergencyManualSearchHitResponse(
+                hit.manual().getId(),
+                hit.manual().getEmergencyType().name(),
+                hit.manual().getTitle(),
+                hit.snippet(),
+                hit.score()
+        );
+    }
+}
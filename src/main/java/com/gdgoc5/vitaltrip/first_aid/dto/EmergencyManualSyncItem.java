@@ -0,0 +1,30 @@
+package com.gdgoc5.vitaltrip.first_aid.dto;
+
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyManual;
+
+import java.time.LocalDateTime;
+
+/**
+ * 오프라인 동기화용 매뉴얼 항목입니다. 앱이 로컬 저장소에서 갱신/삭제할 수 있도록 id를 포함합니다.
+ */
+public record EmergencyManualSyncItem(
+        int id,
+        String emergencyType,
+        String title,
+        String description,
+        String steps,
+        String warning,
+        LocalDateTime updatedAt
+) {
+    public static EmergencyManualSyncItem from(EmergencyManual manual) {
+        return new EmergencyManualSyncItem(
+                manual.getId(),
+                manual.getEmergencyType().name(),
+                manual.getTitle(),
+                manual.getDescription(),
+                manual.getSteps(),
+                manual.getWarning(),
+                manual.getUpdatedAt()
+        );
+    }
+}
@@ -0,0 +1,24 @@
+package com.gdgoc5.vitaltrip.first_aid.dto;
+
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+import com.gdgoc5.vitaltrip.first_aid.triage.TriagePrediction;
+
+import java.util.List;
+
+/**
+ * 사용자 메시지로 추정한 응급 유형입니다. candidates는 확률이 높은 순서의 상위 후보입니다.
+ */
+public record EmergencyTriageResponse(
+        EmergencyType emergencyType,
+        double confidence,
+        List<Candidate> candidates
+) {
+    public static EmergencyTriageResponse from(TriagePrediction prediction) {
+        List<Candidate> candidates = prediction.candidates().stream()
+                .map(candidate -> new Candidate(candidate.emergencyType(), candidate.probability()))
+                .toList();
+        return new EmergencyTriageResponse(prediction.emergencyType(), prediction.confidence(), candidates);
+    }
+
+    public record Candidate(EmergencyType emergencyType, double probability) {}
+}
@@ -10,12 +10,14 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = @Index(name = "idx_emergency_chat_message_session_created", columnList = "session_id, created_at"))
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class EmergencyChatMessage {
     @Id
+    @Column(columnDefinition = "BINARY(16)")
     private UUID id;
 
     private String sender;
@@ -23,9 +25,11 @@ public class EmergencyChatMessage {
     @Column(columnDefinition = "TEXT")
     private String message;
 
+    // 파티션 키입니다. DB의 PK는 (id, created_at)입니다(V4 마이그레이션 참고).
+    @Column(nullable = false)
     private LocalDateTime createdAt;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "session_id")
     private EmergencyChatSession session;
 }
@@ -11,22 +11,49 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_emergency_chat_session_user_activity", columnList = "user_id, last_activity_at, id"),
+        @Index(name = "idx_emergency_chat_session_last_activity", columnList = "last_activity_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class EmergencyChatSession {
+    public static final int PREVIEW_LENGTH = 200;
+
     @Id
+    @Column(columnDefinition = "BINARY(16)")
     private UUID id;
 
-    private String emergencyType;
+    @Enumerated(EnumType.STRING)
+    private EmergencyType emergencyType;
 
     private LocalDateTime createdAt;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
-    @OneToMany(mappedBy = "session", cascade = CascadeType.ALL, orphanRemoval = true)
+    // 메시지는 보존 기간이 지나면 파티션 단위로 지우므로(ChatRetentionJob) 세션 삭제를 메시지 행 삭제로 전파하지 않습니다.
+    @OneToMany(mappedBy = "session")
     private List<EmergencyChatMessage> messages;
+
+    // 세션 목록용 요약입니다. 메시지를 기록할 때 함께 갱신되므로 목록 조회 시 메시지 테이블을 읽지 않습니다.
+    @Column(nullable = false)
+    private int messageCount;
+
+    @Column(length = PREVIEW_LENGTH)
+    private String lastMessagePreview;
+
+    private LocalDateTime lastActivityAt;
+
+    public static String preview(String message) {
+        if (message == null || message.length() <= PREVIEW_LENGTH) {
+            return message;
+        }
+        // 서로게이트 쌍이 잘리지 않도록 합니다.
+        int end = Character.isHighSurrogate(message.charAt(PREVIEW_LENGTH - 1)) ? PREVIEW_LENGTH - 1 : PREVIEW_LENGTH;
+        return message.substring(0, end);
+    }
 }
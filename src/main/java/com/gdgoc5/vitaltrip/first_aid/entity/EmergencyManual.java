@@ -6,6 +6,7 @@ import lombok.Getter;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_emergency_manual_emergency_type", columnList = "emergency_type"))
 @Getter
 public class EmergencyManual {
 
@@ -0,0 +1,14 @@
+package com.gdgoc5.vitaltrip.first_aid.entity;
+
+/**
+ * 응급 유형의 위급도입니다. 선언 순서대로 위급도가 높아집니다.
+ */
+public enum EmergencySeverity {
+    MODERATE,   // 대부분 스스로 처치할 수 있음
+    HIGH,       // 빠른 처치가 필요함
+    CRITICAL;   // 생명이 걸려 있어 정확한 안내가 가장 중요함
+
+    public boolean atMost(EmergencySeverity other) {
+        return compareTo(other) <= 0;
+    }
+}
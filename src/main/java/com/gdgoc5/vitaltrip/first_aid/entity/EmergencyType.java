@@ -1,17 +1,24 @@
 package com.gdgoc5.vitaltrip.first_aid.entity;
 
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
 public enum EmergencyType {
-    BURNS,              // 화상
-    FRACTURE,           // 골절
-    BLEEDING,           // 출혈
-    CPR,                // 심폐소생술
-    CHOKING,            // 기도 막힘
-    ELECTRIC_SHOCK,     // 감전
-    HYPOTHERMIA,        // 저체온증
-    HEATSTROKE,         // 열사병
-    POISONING,          // 중독
-    SEIZURE,            // 경련/발작
-    ANIMAL_BITE,        // 동물 물림
-    ASTHMA_ATTACK,      // 천식 발작
-    HEART_ATTACK        // 심장마비
+    BURNS(EmergencySeverity.MODERATE),              // 화상
+    FRACTURE(EmergencySeverity.MODERATE),           // 골절
+    BLEEDING(EmergencySeverity.HIGH),               // 출혈
+    CPR(EmergencySeverity.CRITICAL),                // 심폐소생술
+    CHOKING(EmergencySeverity.CRITICAL),            // 기도 막힘
+    ELECTRIC_SHOCK(EmergencySeverity.HIGH),         // 감전
+    HYPOTHERMIA(EmergencySeverity.HIGH),            // 저체온증
+    HEATSTROKE(EmergencySeverity.HIGH),             // 열사병
+    POISONING(EmergencySeverity.HIGH),              // 중독
+    SEIZURE(EmergencySeverity.HIGH),                // 경련/발작
+    ANIMAL_BITE(EmergencySeverity.MODERATE),        // 동물 물림
+    ASTHMA_ATTACK(EmergencySeverity.HIGH),          // 천식 발작
+    HEART_ATTACK(EmergencySeverity.CRITICAL);       // 심장마비
+
+    private final EmergencySeverity severity;
 }
@@ -1,6 +1,7 @@
 package com.gdgoc5.vitaltrip.first_aid.entity;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
@@ -20,6 +21,7 @@ import java.util.UUID;
 @AllArgsConstructor
 public class User {
     @Id
+    @Column(columnDefinition = "BINARY(16)")
     private UUID id;
 
     private String nickname;
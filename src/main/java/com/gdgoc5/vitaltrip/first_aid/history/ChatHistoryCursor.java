@@ -0,0 +1,74 @@
+package com.gdgoc5.vitaltrip.first_aid.history;
+
+import com.gdgoc5.vitaltrip.first_aid.persistence.PendingChatMessage;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * 대화 내역 키셋 페이지네이션 커서입니다. 마지막으로 받은 메시지의 (createdAt, id)를 담습니다.
+ * 세션 목록에서는 마지막으로 받은 세션의 (lastActivityAt, id)를 담습니다.
+ *
+ * <p>클라이언트에는 epoch 초, 나노초, UUID를 이어 붙인 28바이트를 base64url로 인코딩한 불투명한 문자열로 전달합니다.
+ */
+public record ChatHistoryCursor(LocalDateTime createdAt, UUID id) {
+
+    private static final int ENCODED_BYTES = Long.BYTES + Integer.BYTES + Long.BYTES * 2;
+
+    /**
+     * DB의 ORDER BY created_at, id와 같은 순서입니다. BINARY(16) 키는 바이트 단위(부호 없는)로 비교되므로 UUID도 부호 없이 비교합니다.
+     */
+    public static final Comparator<ChatHistoryCursor> ORDER = Comparator
+            .comparing(ChatHistoryCursor::createdAt)
+            .thenComparing(ChatHistoryCursor::id, ChatHistoryCursor::compareUnsigned);
+
+    public static ChatHistoryCursor of(ChatMessageRow row) {
+        return new ChatHistoryCursor(row.createdAt(), row.id());
+    }
+
+    public static ChatHistoryCursor of(PendingChatMessage message) {
+        return new ChatHistoryCursor(message.createdAt(), message.id());
+    }
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES);
+        buffer.putLong(createdAt.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(createdAt.getNano());
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public static ChatHistoryCursor decode(String encoded) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(encoded);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + encoded);
+        }
+        if (bytes.length != ENCODED_BYTES) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + encoded);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long epochSecond = buffer.getLong();
+        int nano = buffer.getInt();
+        if (nano < 0 || nano > 999_999_999) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + encoded);
+        }
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+        return new ChatHistoryCursor(createdAt, new UUID(buffer.getLong(), buffer.getLong()));
+    }
+
+    public boolean isBefore(ChatHistoryCursor other) {
+        return ORDER.compare(this, other) < 0;
+    }
+
+    private static int compareUnsigned(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,150 @@
+package com.gdgoc5.vitaltrip.first_aid.history;
+
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatHistoryResponse;
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatMessageResponse;
+import com.gdgoc5.vitaltrip.first_aid.persistence.ChatWriteBehind;
+import com.gdgoc5.vitaltrip.first_aid.persistence.PendingChatMessage;
+import com.gdgoc5.vitaltrip.first_aid.repository.EmergencyChatMessageRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 상담 대화 내역을 (createdAt, id) 키셋 페이지네이션으로 읽습니다.
+ *
+ * <ul>
+ *     <li>프로젝션 쿼리로 필요한 컬럼만 읽으므로 엔티티와 세션이 로딩되지 않습니다.</li>
+ *     <li>OFFSET 없이 마지막 위치 다음부터 읽기 때문에 세션이 길어져도 페이지마다 비용이 같습니다.</li>
+ *     <li>아직 기록되지 않은 메시지({@link ChatWriteBehind#pendingMessages(UUID)})도 순서에 맞춰 합칩니다.</li>
+ *     <li>내보내기는 export-page-size 단위로 요청이 올 때만 다음 페이지를 읽으므로, 요청당 메모리가 한 페이지로 제한됩니다.</li>
+ * </ul>
+ */
+@Component
+public class ChatHistoryReader {
+
+    private static final Comparator<ChatMessageRow> ROW_ORDER = Comparator.comparing(ChatHistoryCursor::of, ChatHistoryCursor.ORDER);
+
+    private final EmergencyChatMessageRepository messageRepository;
+    private final ChatWriteBehind chatWriter;
+    private final Scheduler jpaScheduler;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int exportPageSize;
+
+    public ChatHistoryReader(EmergencyChatMessageRepository messageRepository,
+                             ChatWriteBehind chatWriter,
+                             Scheduler jpaScheduler,
+                             @Value("${vitaltrip.chat-history.default-page-size:50}") int defaultPageSize,
+                             @Value("${vitaltrip.chat-history.max-page-size:200}") int maxPageSize,
+                             @Value("${vitaltrip.chat-history.export-page-size:500}") int exportPageSize) {
+        this.messageRepository = messageRepository;
+        this.chatWriter = chatWriter;
+        this.jpaScheduler = jpaScheduler;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.exportPageSize = exportPageSize;
+    }
+
+    /**
+     * after 커서 다음부터 최대 limit개의 메시지를 반환합니다. after가 없으면 처음부터 읽습니다.
+     */
+    public Mono<EmergencyChatHistoryResponse> page(UUID sessionId, String after, Integer limit) {
+        int size = limit == null ? defaultPageSize : Math.max(1, Math.min(maxPageSize, limit));
+        ChatHistoryCursor cursor = after == null || after.isBlank() ? null : ChatHistoryCursor.decode(after);
+
+        return Mono.fromCallable(() -> {
+                    // 기록 완료와 겹쳐도 누락되지 않도록 대기 중인 메시지를 DB 조회보다 먼저 가져옵니다.
+                    List<PendingChatMessage> pending = chatWriter.pendingMessages(sessionId);
+                    // 다음 페이지가 있는지 알기 위해 한 개를 더 읽습니다.
+                    List<ChatMessageRow> rows = merge(fetch(sessionId, cursor, size + 1), pending, cursor);
+
+                    boolean hasNext = rows.size() > size;
+                    List<ChatMessageRow> page = hasNext ? rows.subList(0, size) : rows;
+                    String nextCursor = hasNext ? ChatHistoryCursor.of(page.get(page.size() - 1)).encode() : null;
+                    return EmergencyChatHistoryResponse.of(
+                            page.stream().map(EmergencyChatMessageResponse::from).toList(),
+                            nextCursor);
+                })
+                .subscribeOn(jpaScheduler);
+    }
+
+    /**
+     * 세션의 전체 대화 내역을 페이지 단위로 읽으며 순서대로 흘려보냅니다.
+     * 기록 대기 중이던 메시지는 DB에서 읽히지 않은 것만 마지막에 붙입니다.
+     */
+    public Flux<EmergencyChatMessageResponse> export(UUID sessionId) {
+        return Flux.defer(() -> {
+            List<PendingChatMessage> pending = chatWriter.pendingMessages(sessionId);
+            Set<UUID> unseen = new HashSet<>();
+            pending.forEach(message -> unseen.add(message.id()));
+
+            return fetchAsync(sessionId, null, exportPageSize)
+                    .expand(rows -> rows.size() < exportPageSize
+                            ? Mono.empty()
+                            : fetchAsync(sessionId, ChatHistoryCursor.of(rows.get(rows.size() - 1)), exportPageSize))
+                    // 페이지를 하나씩만 요청해 미리 읽어 두는 양을 한 페이지로 제한합니다.
+                    .flatMapIterable(rows -> rows, 1)
+                    .doOnNext(row -> unseen.remove(row.id()))
+                    .map(EmergencyChatMessageResponse::from)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(pending)
+                            .filter(message -> unseen.contains(message.id()))
+                            .map(EmergencyChatMessageResponse::from)));
+        });
+    }
+
+    /**
+     * 세션의 전체 대화 내역을 한 번에 반환합니다. 기존 전체 조회 API 호환용입니다.
+     */
+    public Mono<List<EmergencyChatMessageResponse>> all(UUID sessionId) {
+        return Mono.fromCallable(() -> {
+                    List<PendingChatMessage> pending = chatWriter.pendingMessages(sessionId);
+                    return merge(messageRepository.findRows(sessionId, Limit.unlimited()), pending, null).stream()
+                            .map(EmergencyChatMessageResponse::from)
+                            .toList();
+                })
+                .subscribeOn(jpaScheduler);
+    }
+
+    private Mono<List<ChatMessageRow>> fetchAsync(UUID sessionId, ChatHistoryCursor cursor, int limit) {
+        return Mono.fromCallable(() -> fetch(sessionId, cursor, limit)).subscribeOn(jpaScheduler);
+    }
+
+    private List<ChatMessageRow> fetch(UUID sessionId, ChatHistoryCursor cursor, int limit) {
+        if (cursor == null) {
+            return messageRepository.findRows(sessionId, Limit.of(limit));
+        }
+        return messageRepository.findRowsAfter(sessionId, cursor.createdAt(), cursor.id(), Limit.of(limit));
+    }
+
+    /**
+     * 커서 이후의 대기 중 메시지를 DB 결과에 순서대로 끼워 넣습니다.
+     * DB 결과가 limit만큼 꽉 찼다면 마지막 행보다 뒤의 대기 메시지는 호출 측에서 잘려 다음 페이지로 넘어갑니다.
+     */
+    private static List<ChatMessageRow> merge(List<ChatMessageRow> stored, List<PendingChatMessage> pending, ChatHistoryCursor cursor) {
+        if (pending.isEmpty()) {
+            return stored;
+        }
+        Set<UUID> storedIds = new HashSet<>();
+        stored.forEach(row -> storedIds.add(row.id()));
+
+        List<ChatMessageRow> merged = new ArrayList<>(stored.size() + pending.size());
+        merged.addAll(stored);
+        for (PendingChatMessage message : pending) {
+            if (!storedIds.contains(message.id()) && (cursor == null || cursor.isBefore(ChatHistoryCursor.of(message)))) {
+                merged.add(ChatMessageRow.from(message));
+            }
+        }
+        merged.sort(ROW_ORDER);
+        return merged;
+    }
+}
@@ -0,0 +1,20 @@
+package com.gdgoc5.vitaltrip.first_aid.history;
+
+import com.gdgoc5.vitaltrip.first_aid.persistence.PendingChatMessage;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 대화 내역 조회용 프로젝션입니다. 엔티티나 세션을 로딩하지 않고 필요한 컬럼만 읽습니다.
+ */
+public record ChatMessageRow(
+        UUID id,
+        String sender,
+        String message,
+        LocalDateTime createdAt
+) {
+    public static ChatMessageRow from(PendingChatMessage message) {
+        return new ChatMessageRow(message.id(), message.sender(), message.message(), message.createdAt());
+    }
+}
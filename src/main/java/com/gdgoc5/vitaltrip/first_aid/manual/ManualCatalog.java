@@ -0,0 +1,209 @@
+package com.gdgoc5.vitaltrip.first_aid.manual;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gdgoc5.vitaltrip.custom.SuccessResponse;
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyManualBundleResponse;
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyManualChangesResponse;
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyManualResponse;
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyManualSyncItem;
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyManual;
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+import com.gdgoc5.vitaltrip.first_aid.repository.EmergencyManualRepository;
+import com.gdgoc5.vitaltrip.first_aid.search.ManualSearchHit;
+import com.gdgoc5.vitaltrip.first_aid.search.ManualSearchIndex;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 응급처치 매뉴얼 전체를 메모리에 올려두고 유형별/전체 응답을 미리 렌더링해 제공합니다.
+ * 매뉴얼은 거의 바뀌지 않으므로 조회 요청은 DB 커넥션을 전혀 사용하지 않고,
+ * 주기적으로 (행 수, 최신 updatedAt)만 확인해서 바뀐 경우에만 새 스냅샷을 만들어 한 번에 교체합니다.
+ *
+ * <p>오프라인 동기화를 위해 스냅샷마다 단조 증가하는 버전(최신 updatedAt의 epoch millis 기준)을 두고,
+ * 갱신 시 사라진 매뉴얼은 삭제된 버전과 함께 기록해 둡니다. 삭제 이력은 메모리에만 있으므로
+ * 서버 기동 이전 버전으로 요청하면 전체 재동기화를 안내합니다.
+ *
+ * <p>스냅샷에는 전문 검색 인덱스({@link ManualSearchIndex})도 함께 들어 있습니다. 갱신 시 이전 인덱스를 넘겨
+ * 바뀐 매뉴얼만 다시 분석합니다.
+ */
+@Slf4j
+@Component
+public class ManualCatalog {
+
+    private final EmergencyManualRepository manualRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+    private long baseVersion;
+
+    public ManualCatalog(EmergencyManualRepository manualRepository, ObjectMapper objectMapper) {
+        this.manualRepository = manualRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void load() {
+        ManualCatalogVersion version = manualRepository.findCatalogVersion();
+        snapshot = build(version, manualRepository.findAll(), null);
+        baseVersion = snapshot.syncVersion();
+        log.info("응급처치 매뉴얼 카탈로그 로딩 완료: {}건", version.count());
+    }
+
+    @Scheduled(fixedDelayString = "${vitaltrip.manual-catalog.refresh-interval:60s}",
+            initialDelayString = "${vitaltrip.manual-catalog.refresh-interval:60s}")
+    public void refreshIfChanged() {
+        try {
+            ManualCatalogVersion version = manualRepository.findCatalogVersion();
+            if (version.equals(snapshot.version())) {
+                return;
+            }
+            snapshot = build(version, manualRepository.findAll(), snapshot);
+            log.info("응급처치 매뉴얼 카탈로그 갱신: {}건, lastUpdatedAt={}", version.count(), version.lastUpdatedAt());
+        } catch (Exception e) {
+            log.error("응급처치 매뉴얼 카탈로그 갱신 실패, 기존 스냅샷을 유지합니다.", e);
+        }
+    }
+
+    public RenderedManuals renderedByType(EmergencyType emergencyType) {
+        return snapshot.renderedByType().get(emergencyType);
+    }
+
+    public RenderedManuals renderedAll() {
+        return snapshot.renderedAll();
+    }
+
+    public RenderedManuals renderedBundle() {
+        return snapshot.renderedBundle();
+    }
+
+    /**
+     * since 이후 변경분을 반환합니다. 최신 버전을 가진 클라이언트에게는 미리 렌더링한 빈 변경분을 그대로 돌려줍니다.
+     */
+    public RenderedManuals renderedChangesSince(long since) {
+        Snapshot current = snapshot;
+        if (since == current.syncVersion()) {
+            return current.renderedUpToDate();
+        }
+        if (since < baseVersion || since > current.syncVersion()) {
+            return render(EmergencyManualChangesResponse.fullResync(current.syncVersion()));
+        }
+
+        List<EmergencyManualSyncItem> updated = current.manuals().stream()
+                .filter(manual -> toVersion(manual.getUpdatedAt()) > since)
+                .map(EmergencyManualSyncItem::from)
+                .toList();
+        List<Integer> deleted = current.tombstones().entrySet().stream()
+                .filter(tombstone -> tombstone.getValue() > since)
+                .map(Map.Entry::getKey)
+                .toList();
+        return render(EmergencyManualChangesResponse.of(current.syncVersion(), updated, deleted));
+    }
+
+    /**
+     * 제목, 설명, 단계, 주의사항을 대상으로 검색합니다. 메모리 인덱스만 사용하므로 DB를 조회하지 않습니다.
+     */
+    public List<ManualSearchHit> search(String query, int limit) {
+        return snapshot.searchIndex().search(query, limit);
+    }
+
+    public ManualSearchIndex searchIndex() {
+        return snapshot.searchIndex();
+    }
+
+    public List<EmergencyManual> manualsByType(EmergencyType emergencyType) {
+        return snapshot.manualsByType().get(emergencyType);
+    }
+
+    public List<EmergencyManual> allManuals() {
+        return snapshot.manuals();
+    }
+
+    private Snapshot build(ManualCatalogVersion version, List<EmergencyManual> manuals, Snapshot previous) {
+        Map<EmergencyType, List<EmergencyManual>> grouped = new EnumMap<>(EmergencyType.class);
+        for (EmergencyManual manual : manuals) {
+            grouped.computeIfAbsent(manual.getEmergencyType(), type -> new ArrayList<>()).add(manual);
+        }
+
+        Map<EmergencyType, List<EmergencyManual>> manualsByType = new EnumMap<>(EmergencyType.class);
+        Map<EmergencyType, RenderedManuals> renderedByType = new EnumMap<>(EmergencyType.class);
+        for (EmergencyType type : EmergencyType.values()) {
+            List<EmergencyManual> list = List.copyOf(grouped.getOrDefault(type, List.of()));
+            manualsByType.put(type, list);
+            renderedByType.put(type, render(toResponses(list)));
+        }
+
+        // 버전은 항상 증가해야 하므로, 삭제만 일어나 최신 updatedAt이 그대로여도 이전 버전보다 1 크게 잡습니다.
+        long syncVersion = toVersion(version.lastUpdatedAt());
+        Map<Integer, Long> tombstones = new HashMap<>();
+        if (previous != null) {
+            syncVersion = Math.max(syncVersion, previous.syncVersion() + 1);
+            tombstones.putAll(previous.tombstones());
+
+            Set<Integer> currentIds = manuals.stream().map(EmergencyManual::getId).collect(Collectors.toSet());
+            for (EmergencyManual removed : previous.manuals()) {
+                if (!currentIds.contains(removed.getId())) {
+                    tombstones.put(removed.getId(), syncVersion);
+                }
+            }
+            tombstones.keySet().removeAll(currentIds);
+        }
+
+        List<EmergencyManualSyncItem> items = manuals.stream().map(EmergencyManualSyncItem::from).toList();
+        return new Snapshot(
+                version,
+                syncVersion,
+                List.copyOf(manuals),
+                manualsByType,
+                renderedByType,
+                render(toResponses(manuals)),
+                render(new EmergencyManualBundleResponse(syncVersion, items)),
+                render(EmergencyManualChangesResponse.of(syncVersion, List.of(), List.of())),
+                Map.copyOf(tombstones),
+                ManualSearchIndex.build(manuals, previous == null ? null : previous.searchIndex())
+        );
+    }
+
+    private static List<EmergencyManualResponse> toResponses(List<EmergencyManual> manuals) {
+        return manuals.stream()
+                .map(EmergencyManualResponse::from)
+                .toList();
+    }
+
+    private static long toVersion(LocalDateTime updatedAt) {
+        return updatedAt == null ? 0L : updatedAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private RenderedManuals render(Object data) {
+        try {
+            return RenderedManuals.of(objectMapper.writeValueAsBytes(SuccessResponse.of(data)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("매뉴얼 응답 직렬화 실패", e);
+        }
+    }
+
+    private record Snapshot(
+            ManualCatalogVersion version,
+            long syncVersion,
+            List<EmergencyManual> manuals,
+            Map<EmergencyType, List<EmergencyManual>> manualsByType,
+            Map<EmergencyType, RenderedManuals> renderedByType,
+            RenderedManuals renderedAll,
+            RenderedManuals renderedBundle,
+            RenderedManuals renderedUpToDate,
+            Map<Integer, Long> tombstones,
+            ManualSearchIndex searchIndex
+    ) {}
+}
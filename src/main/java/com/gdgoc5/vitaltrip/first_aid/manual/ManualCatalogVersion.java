@@ -0,0 +1,12 @@
+package com.gdgoc5.vitaltrip.first_aid.manual;
+
+import java.time.LocalDateTime;
+
+/**
+ * 매뉴얼 테이블의 변경 여부를 판단하기 위한 가벼운 버전 정보입니다.
+ * 행 수와 가장 최근 updatedAt만 비교하므로 전체 테이블을 읽지 않아도 됩니다.
+ */
+public record ManualCatalogVersion(
+        long count,
+        LocalDateTime lastUpdatedAt
+) {}
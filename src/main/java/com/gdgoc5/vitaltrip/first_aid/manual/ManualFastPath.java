@@ -0,0 +1,134 @@
+package com.gdgoc5.vitaltrip.first_aid.manual;
+
+import com.gdgoc5.vitaltrip.first_aid.client.GeminiLatencyTracker;
+import com.gdgoc5.vitaltrip.first_aid.confidence.KeywordScorer;
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyManual;
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+import com.gdgoc5.vitaltrip.first_aid.search.ManualSearchHit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 첫 상담 메시지가 기존 매뉴얼로 충분히 답할 수 있는 경우 Gemini를 호출하지 않고 매뉴얼로 바로 답합니다.
+ *
+ * <p>해당 유형의 매뉴얼 중 검색 인덱스(BM25)에서 가장 잘 맞는 하나를 고르고, 두 조건을 모두 넘을 때만 사용합니다.
+ * <ul>
+ *     <li>사용자 메시지와 매뉴얼의 BM25 점수가 min-match-score 이상</li>
+ *     <li>매뉴얼로 만든 답변의 키워드 신뢰도({@link KeywordScorer}, AI 응답 평가와 같은 기준)가 confidence-threshold 이상</li>
+ * </ul>
+ *
+ * <p>적중/미스/건너뜀 수와, 적중 시 최근 Gemini 응답 시간(p50)으로 추정한 절약 시간을 vitaltrip.fast-path.*로 노출합니다.
+ */
+@Slf4j
+@Component
+public class ManualFastPath {
+
+    private static final String EMERGENCY_SERVICES_NOTICE = "If the condition is severe or getting worse, call local emergency services immediately.";
+
+    private final ManualCatalog manualCatalog;
+    private final KeywordScorer keywordScorer;
+    private final GeminiLatencyTracker latencyTracker;
+    private final boolean enabled;
+    private final double minMatchScore;
+    private final double confidenceThreshold;
+    private final Duration defaultGeminiLatency;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter skipped;
+    private final Timer latencySaved;
+
+    public ManualFastPath(ManualCatalog manualCatalog,
+                          KeywordScorer keywordScorer,
+                          GeminiLatencyTracker latencyTracker,
+                          MeterRegistry meterRegistry,
+                          @Value("${vitaltrip.fast-path.enabled:true}") boolean enabled,
+                          @Value("${vitaltrip.fast-path.min-match-score:2.0}") double minMatchScore,
+                          @Value("${vitaltrip.fast-path.confidence-threshold:0.6}") double confidenceThreshold,
+                          @Value("${vitaltrip.fast-path.default-gemini-latency:3s}") Duration defaultGeminiLatency) {
+        this.manualCatalog = manualCatalog;
+        this.keywordScorer = keywordScorer;
+        this.latencyTracker = latencyTracker;
+        this.enabled = enabled;
+        this.minMatchScore = minMatchScore;
+        this.confidenceThreshold = confidenceThreshold;
+        this.defaultGeminiLatency = defaultGeminiLatency;
+
+        this.hits = Counter.builder("vitaltrip.fast-path.requests")
+                .tag("outcome", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("vitaltrip.fast-path.requests")
+                .tag("outcome", "miss")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("vitaltrip.fast-path.requests")
+                .tag("outcome", "skipped")
+                .register(meterRegistry);
+        this.latencySaved = Timer.builder("vitaltrip.fast-path.latency-saved")
+                .description("fast-path 적중으로 생략한 Gemini 호출의 추정 응답 시간")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 매뉴얼로 바로 답할 수 있으면 답변을 반환합니다.
+     *
+     * @param preferAi 사용자가 AI 응답을 요청했으면 true. 이 경우 매칭하지 않습니다.
+     */
+    public Optional<Answer> answer(EmergencyType type, String userMessage, boolean preferAi) {
+        if (!enabled || preferAi) {
+            skipped.increment();
+            return Optional.empty();
+        }
+
+        List<ManualSearchHit> found = manualCatalog.searchIndex().search(userMessage, type, 1);
+        if (found.isEmpty() || found.get(0).score() < minMatchScore) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        EmergencyManual manual = found.get(0).manual();
+        String content = contentOf(manual);
+        double confidence = keywordScorer.score(content, type);
+        if (confidence < confidenceThreshold) {
+            log.debug("fast-path 미적용: 매뉴얼 신뢰도 부족. type={}, manualId={}, confidence={}", type, manual.getId(), confidence);
+            misses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        latencySaved.record(latencyTracker.percentile(0.5, defaultGeminiLatency));
+        return Optional.of(new Answer(manual, content, recommendedActionOf(manual), confidence));
+    }
+
+    private static String contentOf(EmergencyManual manual) {
+        StringBuilder content = new StringBuilder(manual.getTitle());
+        if (manual.getDescription() != null && !manual.getDescription().isBlank()) {
+            content.append("\n\n").append(manual.getDescription());
+        }
+        if (manual.getSteps() != null && !manual.getSteps().isBlank()) {
+            content.append("\n\n").append(manual.getSteps());
+        }
+        return content.toString();
+    }
+
+    private static String recommendedActionOf(EmergencyManual manual) {
+        if (manual.getWarning() == null || manual.getWarning().isBlank()) {
+            return EMERGENCY_SERVICES_NOTICE;
+        }
+        return manual.getWarning() + " " + EMERGENCY_SERVICES_NOTICE;
+    }
+
+    public record Answer(
+            EmergencyManual manual,
+            String content,
+            String recommendedAction,
+            double confidence
+    ) {}
+}
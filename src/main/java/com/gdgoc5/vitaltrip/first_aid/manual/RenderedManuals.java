@@ -0,0 +1,52 @@
+package com.gdgoc5.vitaltrip.first_aid.manual;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 미리 직렬화해 둔 매뉴얼 응답 본문입니다.
+ * 요청마다 엔티티 매핑과 JSON 직렬화를 반복하지 않도록 원본/gzip 바이트와 ETag를 함께 보관합니다.
+ * gzip 본문은 다른 표현(representation)이므로 강한 ETag도 별도로 둡니다.
+ */
+public record RenderedManuals(
+        byte[] json,
+        byte[] gzip,
+        String etag,
+        String gzipEtag
+) {
+    public static RenderedManuals of(byte[] json) {
+        String hash = sha256(json);
+        return new RenderedManuals(json, gzip(json), "\"" + hash + "\"", "\"" + hash + "-gz\"");
+    }
+
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        return ifNoneMatch.trim().equals("*") || ifNoneMatch.contains(etag) || ifNoneMatch.contains(gzipEtag);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,21 @@
+package com.gdgoc5.vitaltrip.first_aid.persistence;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 한 번에 기록할 상담 턴입니다. 새 세션의 첫 턴이면 session이 함께 들어 있어 같은 트랜잭션에서 세션부터 기록합니다.
+ */
+public record ChatWrite(
+    UUID sessionId,
+    PendingChatSession session,
+    List<PendingChatMessage> messages
+) {
+    public static ChatWrite newSession(PendingChatSession session, List<PendingChatMessage> messages) {
+        return new ChatWrite(session.id(), session, messages);
+    }
+
+    public static ChatWrite turn(UUID sessionId, List<PendingChatMessage> messages) {
+        return new ChatWrite(sessionId, null, messages);
+    }
+}
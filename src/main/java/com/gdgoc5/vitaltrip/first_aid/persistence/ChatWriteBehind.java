@@ -0,0 +1,297 @@
+package com.gdgoc5.vitaltrip.first_aid.persistence;
+
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyChatMessage;
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyChatSession;
+import com.gdgoc5.vitaltrip.first_aid.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 상담 세션/메시지를 요청 경로에서 바로 저장하지 않고 제한된 큐에 넣은 뒤, 전용 스레드가 모아서 기록합니다(write-behind).
+ *
+ * <ul>
+ *     <li>큐에 쌓인 만큼(최대 batch-size 턴)을 한 트랜잭션에서 persist합니다. hibernate.jdbc.batch_size와
+ *     rewriteBatchedStatements 설정으로 JDBC 배치 INSERT 한 번에 가깝게 전송됩니다.</li>
+ *     <li>큐가 가득 차면 자리가 날 때까지 호출 스레드를 막아 속도를 늦춥니다(backpressure). 턴을 버리지 않으며,
+ *     같은 세션의 턴 순서(세션 INSERT가 메시지보다 먼저)도 큐 순서로 지켜집니다.</li>
+ *     <li>배치가 실패하면 턴 단위로 나눠 다시 기록해서 문제가 있는 턴만 실패하게 합니다.</li>
+ *     <li>메시지 테이블에는 외래 키가 없으므로(V4 파티션), 이전 배치에서 만든 세션에 붙는 턴은 세션 요약 UPDATE가
+ *     한 행도 바꾸지 못하면 트랜잭션을 되돌립니다. 세션 기록이 실패했거나 보존 기간이 지나 지워진 세션에 메시지가 남지 않습니다.</li>
+ *     <li>종료 시 큐를 끝까지 비운 뒤 멈춥니다.</li>
+ *     <li>기록 전 메시지는 {@link #pendingMessages(UUID)}로 조회해 대화 내역에 합칠 수 있습니다(read-your-writes).</li>
+ *     <li>세션 요약(메시지 수, 마지막 메시지, 마지막 활동 시각)도 같은 트랜잭션에서 갱신합니다. 배치 안에서 세션별로 모아
+ *     UPDATE 한 번으로 반영하므로 세션을 조회하지 않습니다.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class ChatWriteBehind {
+
+    private final BlockingQueue<ChatWrite> queue;
+    private final Map<UUID, List<PendingChatMessage>> pendingBySession = new ConcurrentHashMap<>();
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration enqueueTimeout;
+    private final Duration shutdownTimeout;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Counter writtenMessages;
+    private final Counter backpressure;
+    private final Counter failures;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public ChatWriteBehind(PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${vitaltrip.chat-writer.queue-capacity:10000}") int queueCapacity,
+                           @Value("${vitaltrip.chat-writer.batch-size:200}") int batchSize,
+                           @Value("${vitaltrip.chat-writer.poll-interval:200ms}") Duration pollInterval,
+                           @Value("${vitaltrip.chat-writer.enqueue-timeout:500ms}") Duration enqueueTimeout,
+                           @Value("${vitaltrip.chat-writer.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.enqueueTimeout = enqueueTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+
+        Gauge.builder("vitaltrip.chat-writer.queue", queue, BlockingQueue::size)
+                .description("기록 대기 중인 상담 턴 수")
+                .register(meterRegistry);
+        this.writtenMessages = Counter.builder("vitaltrip.chat-writer.written")
+                .description("기록된 상담 메시지 수")
+                .register(meterRegistry);
+        this.backpressure = Counter.builder("vitaltrip.chat-writer.backpressure")
+                .description("큐가 가득 차 대기한 턴 수")
+                .register(meterRegistry);
+        this.failures = Counter.builder("vitaltrip.chat-writer.failures")
+                .description("기록에 실패한 상담 턴 수")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("vitaltrip.chat-writer.flush")
+                .description("배치 하나를 기록하는 데 걸린 시간")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("chat-write-behind").start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        try {
+            writer.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.error("상담 기록 큐를 {} 안에 비우지 못했습니다. 남은 턴: {}", shutdownTimeout, queue.size());
+        } else {
+            log.info("상담 기록 큐 비움 완료");
+        }
+    }
+
+    /**
+     * 턴을 기록 큐에 넣습니다. 큐가 가득 차면 자리가 날 때까지 호출 스레드를 막으므로 블로킹 스케줄러에서 호출해야 합니다.
+     */
+    public void enqueue(ChatWrite write) {
+        addPending(write);
+        if (queue.offer(write)) {
+            return;
+        }
+
+        backpressure.increment();
+        try {
+            while (running) {
+                if (queue.offer(write, enqueueTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+                log.warn("상담 기록 큐가 가득 차 대기 중입니다. size={}", queue.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 종료 중이거나 인터럽트된 경우에는 호출 스레드에서 직접 기록합니다.
+        flush(List.of(write));
+    }
+
+    /**
+     * 아직 기록되지 않은 세션 메시지입니다. DB 조회 전에 먼저 가져와야 기록 완료 시점과 겹쳐도 누락되지 않습니다.
+     */
+    public List<PendingChatMessage> pendingMessages(UUID sessionId) {
+        return pendingBySession.getOrDefault(sessionId, List.of());
+    }
+
+    private void run() {
+        List<ChatWrite> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                ChatWrite first = queue.poll(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("상담 기록 스레드가 중단되었습니다. 남은 턴: {}", queue.size());
+                return;
+            } catch (Exception e) {
+                log.error("상담 기록 중 예상하지 못한 오류", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<ChatWrite> batch) {
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> persist(batch)));
+            batch.forEach(this::written);
+        } catch (Exception batchError) {
+            if (batch.size() == 1) {
+                failed(batch.get(0), batchError);
+                return;
+            }
+            log.warn("상담 기록 배치 실패, 턴 단위로 다시 기록합니다. size={}", batch.size(), batchError);
+            for (ChatWrite write : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persist(List.of(write)));
+                    written(write);
+                } catch (Exception e) {
+                    failed(write, e);
+                }
+            }
+        }
+    }
+
+    private void persist(List<ChatWrite> batch) {
+        Map<UUID, EmergencyChatSession> created = new HashMap<>();
+        Map<UUID, List<PendingChatMessage>> appended = new LinkedHashMap<>();
+        for (ChatWrite write : batch) {
+            EmergencyChatSession session = created.get(write.sessionId());
+            if (write.session() != null) {
+                session = newSession(write.session(), write.messages());
+                created.put(session.getId(), session);
+            } else if (session != null) {
+                // 같은 배치에서 만든 세션의 다음 턴입니다. 관리 상태이므로 필드만 바꾸면 flush 때 반영됩니다.
+                summarize(session, write.messages());
+            } else {
+                // 조회 없는 프록시로 연결하고, 요약은 배치 끝에서 세션별 UPDATE 한 번으로 반영합니다.
+                session = entityManager.getReference(EmergencyChatSession.class, write.sessionId());
+                appended.computeIfAbsent(write.sessionId(), id -> new ArrayList<>()).addAll(write.messages());
+            }
+            persistMessages(session, write.messages());
+        }
+        appended.forEach(this::updateSummary);
+    }
+
+    private EmergencyChatSession newSession(PendingChatSession pending, List<PendingChatMessage> messages) {
+        EmergencyChatSession session = new EmergencyChatSession();
+        session.setId(pending.id());
+        session.setEmergencyType(pending.emergencyType());
+        session.setCreatedAt(pending.createdAt());
+        session.setLastActivityAt(pending.createdAt());
+        if (pending.userId() != null) {
+            session.setUser(entityManager.getReference(User.class, pending.userId()));
+        }
+        // persist 전에 요약을 채워서 INSERT 한 번으로 기록합니다.
+        summarize(session, messages);
+        entityManager.persist(session);
+        return session;
+    }
+
+    private void persistMessages(EmergencyChatSession session, List<PendingChatMessage> messages) {
+        for (PendingChatMessage pending : messages) {
+            EmergencyChatMessage message = new EmergencyChatMessage();
+            message.setId(pending.id());
+            message.setSession(session);
+            message.setSender(pending.sender());
+            message.setMessage(pending.message());
+            message.setCreatedAt(pending.createdAt());
+            entityManager.persist(message);
+        }
+    }
+
+    private static void summarize(EmergencyChatSession session, List<PendingChatMessage> messages) {
+        PendingChatMessage last = messages.get(messages.size() - 1);
+        session.setMessageCount(session.getMessageCount() + messages.size());
+        session.setLastMessagePreview(EmergencyChatSession.preview(last.message()));
+        session.setLastActivityAt(last.createdAt());
+    }
+
+    private void updateSummary(UUID sessionId, List<PendingChatMessage> messages) {
+        PendingChatMessage last = messages.get(messages.size() - 1);
+        int updated = entityManager.createQuery("update EmergencyChatSession s "
+                        + "set s.messageCount = s.messageCount + :count, "
+                        + "s.lastMessagePreview = :preview, "
+                        + "s.lastActivityAt = :lastActivityAt "
+                        + "where s.id = :id")
+                .setParameter("count", messages.size())
+                .setParameter("preview", EmergencyChatSession.preview(last.message()))
+                .setParameter("lastActivityAt", last.createdAt())
+                .setParameter("id", sessionId)
+                .executeUpdate();
+        if (updated == 0) {
+            throw new IllegalStateException("세션이 없어 메시지를 기록하지 않습니다: sessionId=" + sessionId);
+        }
+    }
+
+    private void written(ChatWrite write) {
+        writtenMessages.increment(write.messages().size());
+        removePending(write);
+    }
+
+    private void failed(ChatWrite write, Exception e) {
+        failures.increment();
+        removePending(write);
+        log.error("상담 턴 기록 실패: sessionId={}", write.sessionId(), e);
+    }
+
+    private void addPending(ChatWrite write) {
+        pendingBySession.compute(write.sessionId(), (id, current) -> {
+            List<PendingChatMessage> next = new ArrayList<>(current == null ? List.of() : current);
+            next.addAll(write.messages());
+            return List.copyOf(next);
+        });
+    }
+
+    private void removePending(ChatWrite write) {
+        pendingBySession.computeIfPresent(write.sessionId(), (id, current) -> {
+            List<PendingChatMessage> next = new ArrayList<>(current);
+            next.removeAll(write.messages());
+            return next.isEmpty() ? null : List.copyOf(next);
+        });
+    }
+}
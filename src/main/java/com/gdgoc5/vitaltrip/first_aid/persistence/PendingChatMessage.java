@@ -0,0 +1,16 @@
+package com.gdgoc5.vitaltrip.first_aid.persistence;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 아직 DB에 기록되지 않은 상담 메시지입니다. 기록 전까지 조회 API에 함께 노출됩니다.
+ */
+public record PendingChatMessage(
+    UUID id,
+    UUID sessionId,
+    String sender,
+    String message,
+    LocalDateTime createdAt
+) {
+}
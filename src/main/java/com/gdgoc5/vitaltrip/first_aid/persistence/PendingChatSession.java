@@ -0,0 +1,17 @@
+package com.gdgoc5.vitaltrip.first_aid.persistence;
+
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 아직 DB에 기록되지 않은 새 상담 세션입니다.
+ */
+public record PendingChatSession(
+    UUID id,
+    EmergencyType emergencyType,
+    UUID userId,
+    LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,51 @@
+package com.gdgoc5.vitaltrip.first_aid.persistence;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 시간 순으로 정렬되는 UUIDv7(RFC 9562)을 생성합니다.
+ *
+ * <p>상위 48비트가 밀리초 타임스탬프라서 BINARY(16) 기본 키에 새 행이 항상 B-tree 오른쪽 끝에 추가되고,
+ * 무작위 UUIDv4처럼 페이지 분할이 일어나지 않습니다. 같은 밀리초 안에서는 rand_a(12비트)를 카운터로 사용해
+ * 한 JVM 안에서 단조 증가를 보장하며, 하위 62비트는 SecureRandom으로 채워 추측할 수 없게 합니다.
+ */
+public final class TimeOrderedUuid {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int MAX_COUNTER = 0xFFF;
+
+    private static final ReentrantLock LOCK = new ReentrantLock();
+    private static long lastMillis;
+    private static int counter;
+
+    private TimeOrderedUuid() {
+    }
+
+    public static UUID next() {
+        long millis;
+        int sequence;
+        LOCK.lock();
+        try {
+            long now = System.currentTimeMillis();
+            if (now > lastMillis) {
+                lastMillis = now;
+                // 카운터 시작값을 절반 아래에서 무작위로 골라 같은 밀리초의 추가 생성 여유를 남깁니다.
+                counter = RANDOM.nextInt(MAX_COUNTER / 2);
+            } else if (++counter > MAX_COUNTER) {
+                // 한 밀리초에 4096개를 넘기면 다음 밀리초를 빌려 순서를 유지합니다.
+                lastMillis++;
+                counter = 0;
+            }
+            millis = lastMillis;
+            sequence = counter;
+        } finally {
+            LOCK.unlock();
+        }
+
+        long mostSigBits = (millis << 16) | 0x7000L | sequence;
+        long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,149 @@
+package com.gdgoc5.vitaltrip.first_aid.prompt;
+
+import com.gdgoc5.vitaltrip.first_aid.context.ConversationHistory;
+import com.gdgoc5.vitaltrip.first_aid.context.ConversationTurn;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 템플릿에 이전 대화와 사용자 메시지를 채운 Gemini 요청입니다.
+ * 같은 템플릿, 같은 이전 대화, 같은 메시지면 같은 요청이므로 요청 병합(coalescing) 키로 그대로 사용합니다.
+ *
+ * <p>본문은 전송 시점마다 {@link #encode(DataBufferFactory)}로 커넥션의 (풀링된) 버퍼에 직접 씁니다.
+ * 헤지 요청처럼 같은 요청을 여러 번 보내도 각 시도가 자기 버퍼를 사용합니다.
+ * 시스템 지시문이 Gemini 컨텍스트 캐시에 등록되어 있으면 systemInstruction 대신 캐시 이름을 씁니다.
+ */
+public record GeminiPrompt(
+    PromptTemplate template,
+    ConversationHistory history,
+    String userMessage
+) {
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] USER_TURN_OPEN = "{\"role\":\"user\",\"parts\":[".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MODEL_TURN_OPEN = "{\"role\":\"model\",\"parts\":[".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TEXT_OPEN = "{\"text\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TEXT_CLOSE = "\"},".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TURN_CLOSE = "\"}]},".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CACHED_CONTENT_OPEN = "{\"cachedContent\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CACHED_CONTENT_CLOSE = "\",\"contents\":[".getBytes(StandardCharsets.US_ASCII);
+    private static final String SUMMARY_INTRO = "Summary of earlier turns in this consultation:\n";
+
+    public DataBuffer encode(DataBufferFactory bufferFactory) {
+        return encode(bufferFactory, null);
+    }
+
+    /**
+     * @param cachedContent 시스템 지시문이 등록된 캐시 이름(cachedContents/...). null이면 systemInstruction을 그대로 넣습니다.
+     */
+    public DataBuffer encode(DataBufferFactory bufferFactory, String cachedContent) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(estimatedSize());
+        try {
+            if (cachedContent == null) {
+                buffer.write(template.getHead());
+            } else {
+                buffer.write(CACHED_CONTENT_OPEN);
+                writeEscaped(buffer, cachedContent);
+                buffer.write(CACHED_CONTENT_CLOSE);
+            }
+
+            // 요약은 첫 사용자 턴의 첫 파트로 넣습니다.
+            boolean summaryPending = !history.summary().isEmpty();
+            for (ConversationTurn turn : history.turns()) {
+                buffer.write(USER_TURN_OPEN);
+                if (summaryPending) {
+                    writeSummary(buffer);
+                    summaryPending = false;
+                }
+                buffer.write(TEXT_OPEN);
+                writeEscaped(buffer, turn.userMessage());
+                buffer.write(TURN_CLOSE);
+
+                buffer.write(MODEL_TURN_OPEN).write(TEXT_OPEN);
+                writeEscaped(buffer, turn.assistantMessage());
+                buffer.write(TURN_CLOSE);
+            }
+
+            buffer.write(USER_TURN_OPEN);
+            if (summaryPending) {
+                writeSummary(buffer);
+            }
+            buffer.write(template.getUserTextHead());
+            writeEscaped(buffer, userMessage);
+            buffer.write(template.getTail());
+            return buffer;
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw e;
+        }
+    }
+
+    /**
+     * 인코딩된 요청 본문의 대략적인 크기(바이트)입니다. 버퍼 할당과 모델 라우팅에 사용합니다.
+     */
+    public int estimatedSize() {
+        int size = template.getHead().length + template.getUserTextHead().length + template.getTail().length
+                + userMessage.length() + 64;
+        if (!history.summary().isEmpty()) {
+            size += SUMMARY_INTRO.length() + history.summary().length() + 16;
+        }
+        for (ConversationTurn turn : history.turns()) {
+            size += turn.userMessage().length() + turn.assistantMessage().length() + 96;
+        }
+        return size;
+    }
+
+    private void writeSummary(DataBuffer buffer) {
+        buffer.write(TEXT_OPEN);
+        writeEscaped(buffer, SUMMARY_INTRO);
+        writeEscaped(buffer, history.summary());
+        buffer.write(TEXT_CLOSE);
+    }
+
+    /**
+     * 문자열을 JSON 문자열 내용으로 이스케이프하면서 UTF-8로 바로 씁니다.
+     */
+    private static void writeEscaped(DataBuffer buffer, String value) {
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                switch (c) {
+                    case '"' -> buffer.write((byte) '\\').write((byte) '"');
+                    case '\\' -> buffer.write((byte) '\\').write((byte) '\\');
+                    case '\n' -> buffer.write((byte) '\\').write((byte) 'n');
+                    case '\r' -> buffer.write((byte) '\\').write((byte) 'r');
+                    case '\t' -> buffer.write((byte) '\\').write((byte) 't');
+                    default -> {
+                        if (c < 0x20) {
+                            buffer.write((byte) '\\')
+                                    .write((byte) 'u')
+                                    .write((byte) '0')
+                                    .write((byte) '0')
+                                    .write(HEX[c >> 4])
+                                    .write(HEX[c & 0xF]);
+                        } else {
+                            buffer.write((byte) c);
+                        }
+                    }
+                }
+            } else if (c < 0x800) {
+                buffer.write((byte) (0xC0 | (c >> 6))).write((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.write((byte) (0xF0 | (codePoint >> 18)))
+                        .write((byte) (0x80 | ((codePoint >> 12) & 0x3F)))
+                        .write((byte) (0x80 | ((codePoint >> 6) & 0x3F)))
+                        .write((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                // 짝이 맞지 않는 서로게이트는 U+FFFD로 대체합니다.
+                buffer.write((byte) 0xEF).write((byte) 0xBF).write((byte) 0xBD);
+            } else {
+                buffer.write((byte) (0xE0 | (c >> 12)))
+                        .write((byte) (0x80 | ((c >> 6) & 0x3F)))
+                        .write((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+}
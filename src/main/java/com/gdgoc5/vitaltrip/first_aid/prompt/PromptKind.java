@@ -0,0 +1,25 @@
+package com.gdgoc5.vitaltrip.first_aid.prompt;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 상담 요청 종류별로 사용할 시스템/사용자 템플릿 파일과 응답 형식을 정의합니다.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum PromptKind {
+    ADVICE("advice-system.txt", "initial-user.txt", true),
+    FOLLOW_UP("advice-system.txt", "follow-up-user.txt", true),
+    STREAM("stream-system.txt", "initial-user.txt", false),
+    STREAM_FOLLOW_UP("stream-system.txt", "follow-up-user.txt", false);
+
+    private final String systemTemplate;
+    private final String userTemplate;
+    // JSON 조언 형식으로 응답받는지 여부 (structured output 적용 대상)
+    private final boolean structured;
+
+    public boolean isFollowUp() {
+        return this == FOLLOW_UP || this == STREAM_FOLLOW_UP;
+    }
+}
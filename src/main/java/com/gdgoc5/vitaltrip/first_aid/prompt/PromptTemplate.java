@@ -0,0 +1,66 @@
+package com.gdgoc5.vitaltrip.first_aid.prompt;
+
+import com.gdgoc5.vitaltrip.first_aid.context.ConversationHistory;
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * (요청 종류, 응급 유형) 하나에 대해 미리 컴파일된 Gemini 요청 본문입니다.
+ * 사용자 메시지 앞뒤의 JSON 골격과 프롬프트 문장은 이미 JSON 이스케이프된 UTF-8 바이트로 들고 있습니다.
+ * head는 contents 배열 시작까지, userTextHead는 현재 사용자 턴의 text 값 중 메시지 앞부분, tail은 그 나머지입니다.
+ * 인스턴스는 엔진이 로딩 시 한 번만 만들며, 동일성(identity)으로 비교됩니다.
+ *
+ * <p>systemText는 Gemini 컨텍스트 캐시에 등록할 시스템 지시문이고, systemKey는 그 지시문을 구분하는 값(버전/본문 해시)입니다.
+ * 본문이 같으면 요청 종류나 응급 유형이 달라도 같은 systemKey를 가지므로 캐시 하나를 공유합니다.
+ */
+@Getter
+public final class PromptTemplate {
+
+    private final String version;
+    private final PromptKind kind;
+    private final EmergencyType emergencyType;
+    private final String systemKey;
+    private final String systemText;
+    private final byte[] head;
+    private final byte[] userTextHead;
+    private final byte[] tail;
+
+    PromptTemplate(String version, PromptKind kind, EmergencyType emergencyType, String systemText,
+                   byte[] head, byte[] userTextHead, byte[] tail) {
+        this.version = version;
+        this.kind = kind;
+        this.emergencyType = emergencyType;
+        this.systemKey = version + "/" + hash(systemText);
+        this.systemText = systemText;
+        this.head = head;
+        this.userTextHead = userTextHead;
+        this.tail = tail;
+    }
+
+    public GeminiPrompt bind(String userMessage) {
+        return bind(ConversationHistory.EMPTY, userMessage);
+    }
+
+    public GeminiPrompt bind(ConversationHistory history, String userMessage) {
+        return new GeminiPrompt(this, history, userMessage);
+    }
+
+    private static String hash(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PromptTemplate[" + version + "/" + kind + "/" + emergencyType + "]";
+    }
+}
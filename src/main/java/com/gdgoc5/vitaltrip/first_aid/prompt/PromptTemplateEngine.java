@@ -0,0 +1,144 @@
+package com.gdgoc5.vitaltrip.first_aid.prompt;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gdgoc5.vitaltrip.config.GeminiProperties;
+import com.gdgoc5.vitaltrip.first_aid.client.GeminiAdvice;
+import com.gdgoc5.vitaltrip.first_aid.context.ConversationHistory;
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * classpath:prompts/{version}/ 의 프롬프트 템플릿을 읽어 (요청 종류, 응급 유형)마다 Gemini 요청 본문을 미리 컴파일합니다.
+ *
+ * <p>템플릿에서 {{emergencyType}}, {{metaDelimiter}}는 컴파일 시점에 치환되고, 요청마다 달라지는 것은 사용자 템플릿의
+ * {{userMessage}} 하나뿐입니다. 따라서 요청 시에는 사용자 메시지만 JSON 이스케이프해서 미리 인코딩된 앞뒤 바이트 사이에 씁니다.
+ * 시스템 템플릿은 systemInstruction으로 보내거나, 컨텍스트 캐시에 등록된 경우 캐시 이름(cachedContent)으로 대신합니다.
+ *
+ * <p>프롬프트를 바꿀 때는 새 버전 디렉터리를 만들고 vitaltrip.prompt.version만 바꾸면 됩니다.
+ */
+@Slf4j
+@Component
+public class PromptTemplateEngine {
+
+    public static final String META_DELIMITER = "<<<META>>>";
+
+    private static final String USER_MESSAGE = "{{userMessage}}";
+
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+    private final GeminiProperties geminiProperties;
+    private final String version;
+
+    private Map<PromptKind, Map<EmergencyType, PromptTemplate>> templates;
+
+    public PromptTemplateEngine(ResourceLoader resourceLoader,
+                                ObjectMapper objectMapper,
+                                GeminiProperties geminiProperties,
+                                @Value("${vitaltrip.prompt.version:v1}") String version) {
+        this.resourceLoader = resourceLoader;
+        this.objectMapper = objectMapper;
+        this.geminiProperties = geminiProperties;
+        this.version = version;
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        byte[] generationConfig = objectMapper.writeValueAsBytes(GeminiAdvice.GENERATION_CONFIG);
+
+        Map<PromptKind, Map<EmergencyType, PromptTemplate>> compiled = new EnumMap<>(PromptKind.class);
+        for (PromptKind kind : PromptKind.values()) {
+            String system = read(kind.getSystemTemplate());
+            String user = read(kind.getUserTemplate());
+            boolean structured = kind.isStructured() && geminiProperties.getApi().isStructuredOutput();
+
+            Map<EmergencyType, PromptTemplate> byType = new EnumMap<>(EmergencyType.class);
+            for (EmergencyType type : EmergencyType.values()) {
+                byType.put(type, compile(kind, type, system, user, structured ? generationConfig : null));
+            }
+            compiled.put(kind, byType);
+        }
+        templates = compiled;
+        log.info("프롬프트 템플릿 로딩 완료: version={}", version);
+    }
+
+    public GeminiPrompt render(PromptKind kind, EmergencyType emergencyType, String userMessage) {
+        return render(kind, emergencyType, ConversationHistory.EMPTY, userMessage);
+    }
+
+    /**
+     * 이전 대화를 현재 사용자 턴 앞의 user/model 턴으로 넣어 멀티턴 요청을 만듭니다.
+     */
+    public GeminiPrompt render(PromptKind kind, EmergencyType emergencyType, ConversationHistory history, String userMessage) {
+        return templates.get(kind).get(emergencyType).bind(history, userMessage);
+    }
+
+    public String version() {
+        return version;
+    }
+
+    private PromptTemplate compile(PromptKind kind, EmergencyType type, String system, String user, byte[] generationConfig) {
+        String systemText = substitute(system, type);
+        String userText = substitute(user, type);
+        if (systemText.contains(USER_MESSAGE)) {
+            throw new IllegalStateException(kind.getSystemTemplate() + "에는 " + USER_MESSAGE + "를 사용할 수 없습니다.");
+        }
+        int placeholder = userText.indexOf(USER_MESSAGE);
+        if (placeholder < 0 || userText.indexOf(USER_MESSAGE, placeholder + 1) >= 0) {
+            throw new IllegalStateException(kind.getUserTemplate() + "에는 " + USER_MESSAGE + "가 정확히 한 번 있어야 합니다.");
+        }
+
+        ByteArrayOutputStream head = new ByteArrayOutputStream();
+        head.writeBytes(ascii("{\"systemInstruction\":{\"parts\":[{\"text\":\""));
+        head.writeBytes(escape(systemText));
+        head.writeBytes(ascii("\"}]},\"contents\":["));
+
+        ByteArrayOutputStream userTextHead = new ByteArrayOutputStream();
+        userTextHead.writeBytes(ascii("{\"text\":\""));
+        userTextHead.writeBytes(escape(userText.substring(0, placeholder)));
+
+        ByteArrayOutputStream tail = new ByteArrayOutputStream();
+        tail.writeBytes(escape(userText.substring(placeholder + USER_MESSAGE.length())));
+        tail.writeBytes(ascii("\"}]}]"));
+        if (generationConfig != null) {
+            tail.writeBytes(ascii(",\"generationConfig\":"));
+            tail.writeBytes(generationConfig);
+        }
+        tail.writeBytes(ascii("}"));
+
+        return new PromptTemplate(version, kind, type, systemText, head.toByteArray(), userTextHead.toByteArray(), tail.toByteArray());
+    }
+
+    private String read(String name) throws IOException {
+        Resource resource = resourceLoader.getResource("classpath:prompts/" + version + "/" + name);
+        try (InputStream in = resource.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).stripTrailing();
+        }
+    }
+
+    private static String substitute(String template, EmergencyType type) {
+        return template
+                .replace("{{emergencyType}}", type.name())
+                .replace("{{metaDelimiter}}", META_DELIMITER);
+    }
+
+    private static byte[] escape(String text) {
+        return JsonStringEncoder.getInstance().quoteAsUTF8(text);
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -1,10 +1,35 @@
 package com.gdgoc5.vitaltrip.first_aid.repository;
 
 import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyChatMessage;
+import com.gdgoc5.vitaltrip.first_aid.history.ChatMessageRow;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
 import java.util.UUID;
 import java.util.List;
 
 public interface EmergencyChatMessageRepository extends JpaRepository<EmergencyChatMessage, UUID> {
-    List<EmergencyChatMessage> findBySessionIdOrderByCreatedAtAsc(UUID sessionId);
+    // 최근 메시지부터 limit개만 조회합니다. (session_id, created_at) 인덱스를 사용합니다.
+    List<EmergencyChatMessage> findBySessionIdOrderByCreatedAtDesc(UUID sessionId, Pageable pageable);
+
+    // 아래 두 쿼리는 m.session.id로 FK 컬럼만 비교하므로 세션 테이블과 조인하지 않습니다.
+    // (session_id, created_at) 인덱스에는 PK(id)가 포함되어 있어 정렬 없이 인덱스 순서대로 읽습니다.
+    @Query("select new com.gdgoc5.vitaltrip.first_aid.history.ChatMessageRow(m.id, m.sender, m.message, m.createdAt) "
+            + "from EmergencyChatMessage m "
+            + "where m.session.id = :sessionId "
+            + "order by m.createdAt asc, m.id asc")
+    List<ChatMessageRow> findRows(@Param("sessionId") UUID sessionId, Limit limit);
+
+    @Query("select new com.gdgoc5.vitaltrip.first_aid.history.ChatMessageRow(m.id, m.sender, m.message, m.createdAt) "
+            + "from EmergencyChatMessage m "
+            + "where m.session.id = :sessionId "
+            + "and (m.createdAt > :createdAt or (m.createdAt = :createdAt and m.id > :id)) "
+            + "order by m.createdAt asc, m.id asc")
+    List<ChatMessageRow> findRowsAfter(@Param("sessionId") UUID sessionId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") UUID id,
+                                       Limit limit);
 }
@@ -1,8 +1,43 @@
 package com.gdgoc5.vitaltrip.first_aid.repository;
 
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatSessionSummaryResponse;
 import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyChatSession;
+import com.gdgoc5.vitaltrip.first_aid.session.SessionDescriptor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface EmergencyChatSessionRepository extends JpaRepository<EmergencyChatSession, UUID> {
+
+    // 엔티티와 User 연관을 로딩하지 않고 후속 상담에 필요한 값만 조회합니다.
+    // 메시지 수는 세션 요약 컬럼을 읽으므로 메시지 테이블과 조인하지 않습니다.
+    @Query("select new com.gdgoc5.vitaltrip.first_aid.session.SessionDescriptor(s.id, s.emergencyType, s.user.id, cast(s.messageCount as Long)) " +
+            "from EmergencyChatSession s " +
+            "where s.id = :id")
+    Optional<SessionDescriptor> findDescriptorById(@Param("id") UUID id);
+
+    // 사용자의 세션 요약을 최근 활동 순으로 조회합니다. (user_id, last_activity_at, id) 인덱스를 역순으로 읽습니다.
+    @Query("select new com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatSessionSummaryResponse(" +
+            "s.id, s.emergencyType, s.createdAt, s.messageCount, s.lastMessagePreview, s.lastActivityAt) " +
+            "from EmergencyChatSession s " +
+            "where s.user.id = :userId " +
+            "order by s.lastActivityAt desc, s.id desc")
+    List<EmergencyChatSessionSummaryResponse> findSummariesByUserId(@Param("userId") UUID userId, Limit limit);
+
+    @Query("select new com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatSessionSummaryResponse(" +
+            "s.id, s.emergencyType, s.createdAt, s.messageCount, s.lastMessagePreview, s.lastActivityAt) " +
+            "from EmergencyChatSession s " +
+            "where s.user.id = :userId " +
+            "and (s.lastActivityAt < :lastActivityAt or (s.lastActivityAt = :lastActivityAt and s.id < :id)) " +
+            "order by s.lastActivityAt desc, s.id desc")
+    List<EmergencyChatSessionSummaryResponse> findSummariesByUserIdBefore(@Param("userId") UUID userId,
+                                                                          @Param("lastActivityAt") LocalDateTime lastActivityAt,
+                                                                          @Param("id") UUID id,
+                                                                          Limit limit);
 }
@@ -2,10 +2,15 @@ package com.gdgoc5.vitaltrip.first_aid.repository;
 
 import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyManual;
 import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+import com.gdgoc5.vitaltrip.first_aid.manual.ManualCatalogVersion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
 public interface EmergencyManualRepository extends JpaRepository<EmergencyManual, java.util.UUID> {
     List<EmergencyManual> findByEmergencyType(EmergencyType emergencyType);
+
+    @Query("select new com.gdgoc5.vitaltrip.first_aid.manual.ManualCatalogVersion(count(m), max(m.updatedAt)) from EmergencyManual m")
+    ManualCatalogVersion findCatalogVersion();
 }
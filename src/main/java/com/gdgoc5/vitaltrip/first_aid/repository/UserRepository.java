@@ -0,0 +1,9 @@
+package com.gdgoc5.vitaltrip.first_aid.repository;
+
+import com.gdgoc5.vitaltrip.first_aid.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface UserRepository extends JpaRepository<User, UUID> {
+}
@@ -0,0 +1,359 @@
+package com.gdgoc5.vitaltrip.first_aid.retention;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 상담 데이터 보존 작업입니다. 데이터 종류별 보존 기간(ttl)이 지난 데이터를 지웁니다.
+ *
+ * <ul>
+ *     <li>메시지: 월별 파티션(pyyyyMM) 중 전체가 보존 기간을 넘긴 파티션을 통째로 DROP하거나 보관 테이블로 EXCHANGE합니다.
+ *     행 단위 DELETE가 없으므로 undo/redo 로그와 인덱스 정리 비용이 거의 없습니다.</li>
+ *     <li>세션: 마지막 활동이 보존 기간을 넘긴 세션을 delete-batch-size씩, 한 번에 max-delete-batches-per-run번까지 나눠 지웁니다.</li>
+ *     <li>다음 달들의 파티션을 premake-months만큼 미리 만들어 pmax에 데이터가 쌓이지 않게 합니다.</li>
+ * </ul>
+ *
+ * <p>실시간 트래픽과 경합하지 않도록 새벽에 실행하고, 한 번에 max-partitions-per-run개까지만 처리하며 작업 사이에 쉽니다.
+ * 쉬는 동안 스케줄러 스레드를 붙잡으므로 spring.task.scheduling.pool.size를 2 이상으로 두어 다른 주기 작업이 밀리지 않게 합니다.
+ * 파티션 DDL은 메타데이터 락을 기다리는 동안 뒤따르는 쿼리까지 막으므로 lock_wait_timeout을 짧게 두고,
+ * 락을 얻지 못하면 다음 실행으로 미룹니다. 여러 인스턴스가 동시에 실행하지 않도록 MySQL GET_LOCK으로 한 곳에서만 돕니다.
+ */
+@Slf4j
+@Component
+public class ChatRetentionJob {
+
+    private static final String MESSAGE_TABLE = "emergency_chat_message";
+    private static final String ARCHIVE_TABLE_PREFIX = "emergency_chat_message_archive_";
+    private static final String LOCK_NAME = "vitaltrip.chat-retention";
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("p(\\d{6})");
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final DataSource dataSource;
+    private final Duration messageTtl;
+    private final RetentionMode messageMode;
+    private final Duration sessionTtl;
+    private final int sessionDeleteBatchSize;
+    private final int maxSessionDeleteBatchesPerRun;
+    private final int premakeMonths;
+    private final int maxPartitionsPerRun;
+    private final Duration pauseBetweenOperations;
+    private final Duration lockWaitTimeout;
+
+    private final Counter partitionsCreated;
+    private final Counter partitionsDropped;
+    private final Counter partitionsArchived;
+    private final Counter sessionsDeleted;
+    private final Counter failures;
+    private final Timer runTimer;
+    private final AtomicLong expiredPartitions = new AtomicLong();
+    private final AtomicLong lastSuccessEpochSeconds = new AtomicLong();
+
+    public ChatRetentionJob(DataSource dataSource,
+                            MeterRegistry meterRegistry,
+                            @Value("${vitaltrip.retention.chat-messages.ttl:180d}") Duration messageTtl,
+                            @Value("${vitaltrip.retention.chat-messages.mode:DROP}") RetentionMode messageMode,
+                            @Value("${vitaltrip.retention.chat-sessions.ttl:365d}") Duration sessionTtl,
+                            @Value("${vitaltrip.retention.chat-sessions.delete-batch-size:500}") int sessionDeleteBatchSize,
+                            @Value("${vitaltrip.retention.chat-sessions.max-delete-batches-per-run:20}") int maxSessionDeleteBatchesPerRun,
+                            @Value("${vitaltrip.retention.premake-months:3}") int premakeMonths,
+                            @Value("${vitaltrip.retention.max-partitions-per-run:2}") int maxPartitionsPerRun,
+                            @Value("${vitaltrip.retention.pause-between-operations:5s}") Duration pauseBetweenOperations,
+                            @Value("${vitaltrip.retention.lock-wait-timeout:5s}") Duration lockWaitTimeout) {
+        this.dataSource = dataSource;
+        this.messageTtl = messageTtl;
+        this.messageMode = messageMode;
+        if (sessionTtl.compareTo(messageTtl) < 0) {
+            // 세션이 메시지보다 먼저 지워지면 세션 없는 메시지가 남으므로 세션 보존 기간을 메시지 이상으로 맞춥니다.
+            log.warn("세션 보존 기간({})이 메시지 보존 기간({})보다 짧아 메시지 보존 기간을 사용합니다.", sessionTtl, messageTtl);
+            sessionTtl = messageTtl;
+        }
+        this.sessionTtl = sessionTtl;
+        this.sessionDeleteBatchSize = sessionDeleteBatchSize;
+        this.maxSessionDeleteBatchesPerRun = maxSessionDeleteBatchesPerRun;
+        this.premakeMonths = premakeMonths;
+        this.maxPartitionsPerRun = maxPartitionsPerRun;
+        this.pauseBetweenOperations = pauseBetweenOperations;
+        this.lockWaitTimeout = lockWaitTimeout;
+
+        this.partitionsCreated = Counter.builder("vitaltrip.retention.partitions")
+                .tag("action", "created")
+                .register(meterRegistry);
+        this.partitionsDropped = Counter.builder("vitaltrip.retention.partitions")
+                .tag("action", "dropped")
+                .register(meterRegistry);
+        this.partitionsArchived = Counter.builder("vitaltrip.retention.partitions")
+                .tag("action", "archived")
+                .register(meterRegistry);
+        this.sessionsDeleted = Counter.builder("vitaltrip.retention.sessions.deleted")
+                .description("보존 기간이 지나 삭제된 세션 수")
+                .register(meterRegistry);
+        this.failures = Counter.builder("vitaltrip.retention.failures")
+                .description("실패한 보존 작업 실행 수")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("vitaltrip.retention.run")
+                .description("보존 작업 한 번에 걸린 시간")
+                .register(meterRegistry);
+        Gauge.builder("vitaltrip.retention.expired-partitions", expiredPartitions, AtomicLong::get)
+                .description("보존 기간이 지났지만 아직 처리하지 않은 메시지 파티션 수")
+                .register(meterRegistry);
+        Gauge.builder("vitaltrip.retention.last-success", lastSuccessEpochSeconds, AtomicLong::get)
+                .description("마지막으로 보존 작업이 끝난 시각(epoch seconds)")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${vitaltrip.retention.cron:0 30 4 * * *}")
+    public void run() {
+        runTimer.record(this::runOnce);
+    }
+
+    private void runOnce() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!tryLock(connection)) {
+                log.info("다른 인스턴스에서 보존 작업이 실행 중이라 건너뜁니다.");
+                return;
+            }
+            try {
+                execute(connection, "SET SESSION lock_wait_timeout = " + Math.max(1, lockWaitTimeout.toSeconds()));
+                LocalDateTime now = LocalDateTime.now();
+
+                List<YearMonth> partitions = monthlyPartitions(connection);
+                if (partitions.isEmpty()) {
+                    log.warn("{} 테이블에 월별 파티션이 없어 메시지 보존 작업을 건너뜁니다.", MESSAGE_TABLE);
+                } else {
+                    premakePartitions(connection, partitions, YearMonth.from(now));
+                    purgePartitions(connection, partitions, now.minus(messageTtl));
+                }
+                purgeSessions(connection, now.minus(sessionTtl));
+                lastSuccessEpochSeconds.set(now.atZone(ZoneId.systemDefault()).toEpochSecond());
+            } finally {
+                // 풀로 돌아가는 커넥션이므로 세션 설정과 락을 되돌립니다.
+                execute(connection, "SET SESSION lock_wait_timeout = DEFAULT");
+                releaseLock(connection);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("보존 작업이 중단되었습니다.");
+        } catch (Exception e) {
+            failures.increment();
+            log.error("보존 작업 실패, 다음 실행에서 이어서 처리합니다.", e);
+        }
+    }
+
+    /**
+     * 이번 달부터 premake-months 뒤까지의 파티션이 없으면 pmax를 나눠 만듭니다. pmax가 비어 있으면 메타데이터 변경만 일어납니다.
+     */
+    private void premakePartitions(Connection connection, List<YearMonth> partitions, YearMonth current) throws SQLException, InterruptedException {
+        YearMonth last = partitions.get(partitions.size() - 1);
+        YearMonth target = current.plusMonths(premakeMonths);
+        while (last.isBefore(target)) {
+            last = last.plusMonths(1);
+            execute(connection, "ALTER TABLE " + MESSAGE_TABLE + " REORGANIZE PARTITION pmax INTO ("
+                    + "PARTITION " + partitionName(last) + " VALUES LESS THAN ('" + upperBound(last) + "'), "
+                    + "PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+            partitionsCreated.increment();
+            log.info("메시지 파티션 생성: {}", partitionName(last));
+            pause();
+        }
+    }
+
+    /**
+     * 모든 행이 cutoff보다 오래된 파티션을 오래된 순으로 최대 max-partitions-per-run개 처리합니다.
+     * 남은 파티션 게이지는 실제로 DROP하거나 보관한 파티션만큼만 줄입니다.
+     */
+    private void purgePartitions(Connection connection, List<YearMonth> partitions, LocalDateTime cutoff) throws SQLException, InterruptedException {
+        List<YearMonth> expired = expiredMonths(partitions, cutoff);
+        expiredPartitions.set(expired.size());
+
+        for (YearMonth month : expired.subList(0, Math.min(expired.size(), maxPartitionsPerRun))) {
+            if (messageMode == RetentionMode.ARCHIVE) {
+                if (!archivePartition(connection, month)) {
+                    continue;
+                }
+            } else {
+                execute(connection, "ALTER TABLE " + MESSAGE_TABLE + " DROP PARTITION " + partitionName(month));
+                partitionsDropped.increment();
+                log.info("보존 기간이 지난 메시지 파티션 삭제: {}", partitionName(month));
+            }
+            expiredPartitions.decrementAndGet();
+            pause();
+        }
+    }
+
+    /**
+     * 월 파티션의 상한(다음 달 1일 0시, 미포함)이 cutoff 이하이면 파티션의 모든 행이 cutoff보다 오래되었으므로 만료로 봅니다.
+     */
+    static List<YearMonth> expiredMonths(List<YearMonth> partitions, LocalDateTime cutoff) {
+        return partitions.stream()
+                .filter(month -> !month.plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff))
+                .toList();
+    }
+
+    /**
+     * 파티션을 빈 보관 테이블과 EXCHANGE한 뒤 비어 있는 파티션을 DROP합니다. 데이터를 복사하지 않고 테이블스페이스만 바꿉니다.
+     * 이전 실행이 중간에 끊겼으면 남은 단계부터 이어서 진행합니다.
+     * <ul>
+     *     <li>보관 테이블이 아직 파티션되어 있으면(REMOVE PARTITIONING 전) 파티셔닝을 먼저 제거합니다.</li>
+     *     <li>보관 테이블이 비어 있으면(EXCHANGE 전) EXCHANGE부터 진행합니다.</li>
+     *     <li>보관 테이블에 데이터가 있고 파티션이 비어 있으면(EXCHANGE 후) DROP만 진행합니다.</li>
+     * </ul>
+     * 둘 다 데이터가 있으면 어느 쪽이 맞는지 알 수 없으므로 건너뛰고 false를 반환합니다.
+     */
+    private boolean archivePartition(Connection connection, YearMonth month) throws SQLException {
+        String partition = partitionName(month);
+        String archiveTable = ARCHIVE_TABLE_PREFIX + month.format(MONTH);
+
+        if (!tableExists(connection, archiveTable)) {
+            execute(connection, "CREATE TABLE " + archiveTable + " LIKE " + MESSAGE_TABLE);
+            execute(connection, "ALTER TABLE " + archiveTable + " REMOVE PARTITIONING");
+        } else if (tablePartitioned(connection, archiveTable)) {
+            execute(connection, "ALTER TABLE " + archiveTable + " REMOVE PARTITIONING");
+        }
+
+        if (tableEmpty(connection, archiveTable)) {
+            execute(connection, "ALTER TABLE " + MESSAGE_TABLE + " EXCHANGE PARTITION " + partition + " WITH TABLE " + archiveTable);
+        } else if (!partitionEmpty(connection, partition)) {
+            log.error("보관 테이블 {}과 파티션 {}에 모두 데이터가 있어 건너뜁니다. 수동 확인이 필요합니다.", archiveTable, partition);
+            return false;
+        }
+        execute(connection, "ALTER TABLE " + MESSAGE_TABLE + " DROP PARTITION " + partition);
+        partitionsArchived.increment();
+        log.info("보존 기간이 지난 메시지 파티션 보관: {} -> {}", partition, archiveTable);
+        return true;
+    }
+
+    /**
+     * 마지막 활동이 cutoff보다 오래된 세션을 짧은 트랜잭션으로 나눠 지웁니다. 남은 세션은 다음 실행에서 이어서 지웁니다.
+     */
+    private void purgeSessions(Connection connection, LocalDateTime cutoff) throws SQLException, InterruptedException {
+        String sql = "DELETE FROM emergency_chat_session WHERE last_activity_at < ? LIMIT ?";
+        for (int batch = 1; ; batch++) {
+            int deleted;
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setTimestamp(1, Timestamp.valueOf(cutoff));
+                statement.setInt(2, sessionDeleteBatchSize);
+                deleted = statement.executeUpdate();
+            }
+            sessionsDeleted.increment(deleted);
+            if (deleted < sessionDeleteBatchSize) {
+                return;
+            }
+            if (batch >= maxSessionDeleteBatchesPerRun) {
+                log.info("세션 삭제가 실행당 한도({}건)에 도달해 나머지는 다음 실행에서 지웁니다.", (long) batch * sessionDeleteBatchSize);
+                return;
+            }
+            pause();
+        }
+    }
+
+    private List<YearMonth> monthlyPartitions(Connection connection) throws SQLException {
+        String sql = "SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL "
+                + "ORDER BY PARTITION_ORDINAL_POSITION";
+        List<YearMonth> months = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, MESSAGE_TABLE);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    Matcher matcher = MONTHLY_PARTITION.matcher(resultSet.getString(1));
+                    if (matcher.matches()) {
+                        months.add(YearMonth.parse(matcher.group(1), MONTH));
+                    }
+                }
+            }
+        }
+        return months;
+    }
+
+    private boolean tableExists(Connection connection, String table) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, table);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+
+    private boolean tablePartitioned(Connection connection, String table) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.PARTITIONS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL LIMIT 1";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, table);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+
+    private boolean tableEmpty(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT 1 FROM " + table + " LIMIT 1")) {
+            return !resultSet.next();
+        }
+    }
+
+    private boolean partitionEmpty(Connection connection, String partition) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT 1 FROM " + MESSAGE_TABLE + " PARTITION (" + partition + ") LIMIT 1")) {
+            return !resultSet.next();
+        }
+    }
+
+    private boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            statement.setString(1, LOCK_NAME);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getInt(1) == 1;
+            }
+        }
+    }
+
+    private void releaseLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.execute();
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private void pause() throws InterruptedException {
+        Thread.sleep(pauseBetweenOperations.toMillis());
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "p" + month.format(MONTH);
+    }
+
+    private static String upperBound(YearMonth month) {
+        return month.plusMonths(1).atDay(1).toString();
+    }
+}
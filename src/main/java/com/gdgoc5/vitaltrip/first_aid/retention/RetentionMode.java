@@ -0,0 +1,11 @@
+package com.gdgoc5.vitaltrip.first_aid.retention;
+
+/**
+ * 보존 기간이 지난 메시지 파티션을 처리하는 방식입니다.
+ */
+public enum RetentionMode {
+    /** 파티션을 바로 DROP합니다. */
+    DROP,
+    /** 파티션을 emergency_chat_message_archive_yyyyMM 테이블로 EXCHANGE한 뒤 빈 파티션을 DROP합니다. 보관 테이블은 운영자가 덤프 후 지웁니다. */
+    ARCHIVE
+}
@@ -0,0 +1,12 @@
+package com.gdgoc5.vitaltrip.first_aid.search;
+
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyManual;
+
+/**
+ * 검색 결과 한 건입니다. snippet은 일치한 단어를 &lt;em&gt;으로 감싼 본문 일부입니다.
+ */
+public record ManualSearchHit(
+        EmergencyManual manual,
+        double score,
+        String snippet
+) {}
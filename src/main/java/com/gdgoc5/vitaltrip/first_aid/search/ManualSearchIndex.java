@@ -0,0 +1,352 @@
+package com.gdgoc5.vitaltrip.first_aid.search;
+
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyManual;
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+import com.gdgoc5.vitaltrip.first_aid.search.ManualTokenizer.Token;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 응급처치 매뉴얼 전문 검색용 메모리 역색인입니다. 한 번 만들면 바뀌지 않으며, 매뉴얼이 바뀌면 새 인덱스로 교체합니다.
+ *
+ * <ul>
+ *     <li>BM25로 순위를 매기고, 필드마다 가중치(제목 3, 유형 2, 설명 1.5, 단계/주의사항 1)를 곱한 단어 빈도를 씁니다.</li>
+ *     <li>입력 중인 마지막 단어는 접두어로도 찾습니다("bleac" → bleach).</li>
+ *     <li>사전에 없는 단어는 트라이그램 Dice 유사도로 후보를 찾고 편집 거리가 가장 가까운 단어로 오타를 허용합니다("bleech" → bleach).</li>
+ *     <li>결과마다 일치한 단어가 가장 많이 모인 구간을 &lt;em&gt;으로 강조한 스니펫을 만듭니다.</li>
+ * </ul>
+ *
+ * <p>{@link #build(List, ManualSearchIndex)}에 이전 인덱스를 넘기면 updatedAt이 같은 매뉴얼은 토큰화 결과를 재사용하고
+ * 바뀐 매뉴얼만 다시 분석합니다.
+ */
+public final class ManualSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double TYPE_WEIGHT = 2.0;
+    private static final double TITLE_WEIGHT = 3.0;
+    private static final double DESCRIPTION_WEIGHT = 1.5;
+    private static final double BODY_WEIGHT = 1.0;
+    private static final double PREFIX_WEIGHT = 0.8;
+    private static final double FUZZY_WEIGHT = 0.7;
+    private static final double MIN_SIMILARITY = 0.5;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 10;
+    private static final int MAX_FUZZY_EXPANSIONS = 3;
+    private static final int SNIPPET_TOKENS = 24;
+
+    public static final ManualSearchIndex EMPTY = build(List.of(), null);
+
+    private final List<Doc> docs;
+    private final Map<String, Posting> postings;
+    private final String[] vocabulary;
+    private final int[] vocabularyGramCounts;
+    private final Map<String, int[]> trigrams;
+    private final double averageLength;
+
+    private ManualSearchIndex(List<Doc> docs) {
+        this.docs = docs;
+        this.averageLength = docs.stream().mapToDouble(Doc::length).average().orElse(1.0);
+
+        Map<String, List<Integer>> occurrences = new HashMap<>();
+        for (int d = 0; d < docs.size(); d++) {
+            for (String term : docs.get(d).frequencies().keySet()) {
+                occurrences.computeIfAbsent(term, t -> new ArrayList<>()).add(d);
+            }
+        }
+        this.postings = new HashMap<>(occurrences.size() * 2);
+        occurrences.forEach((term, list) -> {
+            int[] docIds = new int[list.size()];
+            double[] frequencies = new double[list.size()];
+            for (int i = 0; i < docIds.length; i++) {
+                docIds[i] = list.get(i);
+                frequencies[i] = docs.get(docIds[i]).frequencies().get(term);
+            }
+            double idf = Math.log(1 + (docs.size() - docIds.length + 0.5) / (docIds.length + 0.5));
+            postings.put(term, new Posting(docIds, frequencies, idf));
+        });
+
+        this.vocabulary = postings.keySet().toArray(String[]::new);
+        Arrays.sort(vocabulary);
+        this.vocabularyGramCounts = new int[vocabulary.length];
+        Map<String, List<Integer>> grams = new HashMap<>();
+        for (int v = 0; v < vocabulary.length; v++) {
+            Set<String> termGrams = trigramsOf(vocabulary[v]);
+            vocabularyGramCounts[v] = termGrams.size();
+            for (String gram : termGrams) {
+                grams.computeIfAbsent(gram, g -> new ArrayList<>()).add(v);
+            }
+        }
+        this.trigrams = new HashMap<>(grams.size() * 2);
+        grams.forEach((gram, ids) -> trigrams.put(gram, ids.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    /**
+     * @param previous 이전 인덱스. 있으면 id와 updatedAt이 같은 매뉴얼의 분석 결과를 재사용합니다.
+     */
+    public static ManualSearchIndex build(List<EmergencyManual> manuals, ManualSearchIndex previous) {
+        Map<Integer, Doc> reusable = new HashMap<>();
+        if (previous != null) {
+            previous.docs.forEach(doc -> reusable.put(doc.manual().getId(), doc));
+        }
+        List<Doc> docs = new ArrayList<>(manuals.size());
+        for (EmergencyManual manual : manuals) {
+            Doc old = reusable.get(manual.getId());
+            docs.add(old != null && Objects.equals(old.updatedAt(), manual.getUpdatedAt())
+                    ? new Doc(manual, old.updatedAt(), old.frequencies(), old.length())
+                    : analyze(manual));
+        }
+        return new ManualSearchIndex(List.copyOf(docs));
+    }
+
+    public List<ManualSearchHit> search(String query, int limit) {
+        return search(query, null, limit);
+    }
+
+    /**
+     * @param type null이 아니면 해당 유형의 매뉴얼만 찾습니다.
+     */
+    public List<ManualSearchHit> search(String query, EmergencyType type, int limit) {
+        List<Token> tokens = ManualTokenizer.tokenize(query);
+        if (tokens.isEmpty() || docs.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // 쿼리가 글자로 끝나면 마지막 단어를 아직 입력 중인 것으로 봅니다.
+        boolean typing = Character.isLetterOrDigit(query.charAt(query.length() - 1));
+
+        double[] scores = new double[docs.size()];
+        double[] tokenScores = new double[docs.size()];
+        Set<String> matchedTerms = new HashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            String word = query.substring(token.start(), token.end()).toLowerCase(Locale.ROOT);
+            Arrays.fill(tokenScores, 0.0);
+            // 한 단어가 여러 사전 단어로 확장되어도 문서마다 가장 잘 맞는 것 하나만 반영합니다.
+            for (Expansion expansion : expand(token.term(), word, typing && i == tokens.size() - 1)) {
+                Posting posting = postings.get(expansion.term());
+                matchedTerms.add(expansion.term());
+                for (int p = 0; p < posting.docs().length; p++) {
+                    int d = posting.docs()[p];
+                    if (type != null && docs.get(d).manual().getEmergencyType() != type) {
+                        continue;
+                    }
+                    double tf = posting.frequencies()[p];
+                    double norm = K1 * (1 - B + B * docs.get(d).length() / averageLength);
+                    double score = posting.idf() * tf * (K1 + 1) / (tf + norm) * expansion.weight();
+                    tokenScores[d] = Math.max(tokenScores[d], score);
+                }
+            }
+            for (int d = 0; d < scores.length; d++) {
+                scores[d] += tokenScores[d];
+            }
+        }
+
+        List<Integer> ranked = new ArrayList<>();
+        for (int d = 0; d < scores.length; d++) {
+            if (scores[d] > 0) {
+                ranked.add(d);
+            }
+        }
+        ranked.sort(Comparator.comparingDouble((Integer d) -> scores[d]).reversed());
+
+        List<ManualSearchHit> hits = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int d : ranked.subList(0, Math.min(limit, ranked.size()))) {
+            EmergencyManual manual = docs.get(d).manual();
+            hits.add(new ManualSearchHit(manual, scores[d], snippet(manual, matchedTerms)));
+        }
+        return hits;
+    }
+
+    public int size() {
+        return docs.size();
+    }
+
+    private List<Expansion> expand(String term, String word, boolean prefix) {
+        List<Expansion> expansions = new ArrayList<>();
+        if (postings.containsKey(term)) {
+            expansions.add(new Expansion(term, 1.0));
+        }
+        if (prefix && word.length() >= MIN_PREFIX_LENGTH) {
+            int index = Arrays.binarySearch(vocabulary, word);
+            int added = 0;
+            for (int v = index < 0 ? -index - 1 : index;
+                 v < vocabulary.length && vocabulary[v].startsWith(word) && added < MAX_PREFIX_EXPANSIONS; v++) {
+                if (!vocabulary[v].equals(term)) {
+                    expansions.add(new Expansion(vocabulary[v], PREFIX_WEIGHT));
+                    added++;
+                }
+            }
+        }
+        if (expansions.isEmpty()) {
+            expansions.addAll(fuzzy(term));
+        }
+        return expansions;
+    }
+
+    /**
+     * 트라이그램을 공유하는 사전 단어 중 Dice 유사도가 MIN_SIMILARITY 이상인 것을 후보로 삼고,
+     * 그중 편집 거리가 가장 가까운 단어들만 최대 MAX_FUZZY_EXPANSIONS개 고릅니다.
+     * 트라이그램 유사도만으로는 "bleech"가 "bleach"(한 글자 차이)보다 "bleed"에 더 가깝게 나오기 때문입니다.
+     */
+    private List<Expansion> fuzzy(String term) {
+        if (term.length() < 3) {
+            return List.of();
+        }
+        Set<String> grams = trigramsOf(term);
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            int[] ids = trigrams.get(gram);
+            if (ids != null) {
+                for (int id : ids) {
+                    shared.merge(id, 1, Integer::sum);
+                }
+            }
+        }
+        List<Expansion> candidates = new ArrayList<>();
+        int closest = Integer.MAX_VALUE;
+        for (Map.Entry<Integer, Integer> entry : shared.entrySet()) {
+            int id = entry.getKey();
+            double similarity = 2.0 * entry.getValue() / (grams.size() + vocabularyGramCounts[id]);
+            if (similarity < MIN_SIMILARITY) {
+                continue;
+            }
+            int distance = editDistance(term, vocabulary[id]);
+            if (distance < closest) {
+                closest = distance;
+                candidates.clear();
+            }
+            if (distance == closest) {
+                candidates.add(new Expansion(vocabulary[id], FUZZY_WEIGHT * similarity));
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(Expansion::weight).reversed());
+        return candidates.subList(0, Math.min(MAX_FUZZY_EXPANSIONS, candidates.size()));
+    }
+
+    /**
+     * 인접한 두 글자 바꿈을 한 번의 편집으로 세는 편집 거리(optimal string alignment)입니다.
+     */
+    static int editDistance(String a, String b) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], previous2[j - 2] + 1);
+                }
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * 설명, 단계, 주의사항 중 일치한 단어가 가장 많이 모인 구간을 골라 강조합니다. 일치가 없으면 설명 앞부분을 씁니다.
+     */
+    private static String snippet(EmergencyManual manual, Set<String> matchedTerms) {
+        String bestText = manual.getDescription() != null ? manual.getDescription() : manual.getTitle();
+        List<Token> bestTokens = ManualTokenizer.tokenize(bestText);
+        int bestStart = 0;
+        int bestHits = 0;
+        for (String text : new String[]{manual.getDescription(), manual.getSteps(), manual.getWarning()}) {
+            List<Token> tokens = ManualTokenizer.tokenize(text);
+            int hits = 0;
+            for (int i = 0; i < tokens.size(); i++) {
+                if (matchedTerms.contains(tokens.get(i).term())) {
+                    hits++;
+                }
+                if (i >= SNIPPET_TOKENS && matchedTerms.contains(tokens.get(i - SNIPPET_TOKENS).term())) {
+                    hits--;
+                }
+                if (hits > bestHits) {
+                    bestHits = hits;
+                    bestText = text;
+                    bestTokens = tokens;
+                    bestStart = Math.max(0, i - SNIPPET_TOKENS + 1);
+                }
+            }
+        }
+        if (bestTokens.isEmpty()) {
+            return bestText == null ? "" : escape(bestText);
+        }
+
+        int end = Math.min(bestTokens.size(), bestStart + SNIPPET_TOKENS);
+        StringBuilder snippet = new StringBuilder();
+        if (bestStart > 0) {
+            snippet.append("…");
+        }
+        int position = bestTokens.get(bestStart).start();
+        for (Token token : bestTokens.subList(bestStart, end)) {
+            snippet.append(escape(bestText.substring(position, token.start())));
+            String original = escape(bestText.substring(token.start(), token.end()));
+            if (matchedTerms.contains(token.term())) {
+                snippet.append("<em>").append(original).append("</em>");
+            } else {
+                snippet.append(original);
+            }
+            position = token.end();
+        }
+        if (end < bestTokens.size()) {
+            snippet.append("…");
+        }
+        return snippet.toString();
+    }
+
+    private static Doc analyze(EmergencyManual manual) {
+        Map<String, Double> frequencies = new HashMap<>();
+        double length = addField(frequencies, manual.getEmergencyType().name().replace('_', ' '), TYPE_WEIGHT)
+                + addField(frequencies, manual.getTitle(), TITLE_WEIGHT)
+                + addField(frequencies, manual.getDescription(), DESCRIPTION_WEIGHT)
+                + addField(frequencies, manual.getSteps(), BODY_WEIGHT)
+                + addField(frequencies, manual.getWarning(), BODY_WEIGHT);
+        return new Doc(manual, manual.getUpdatedAt(), Map.copyOf(frequencies), Math.max(1.0, length));
+    }
+
+    private static double addField(Map<String, Double> frequencies, String text, double weight) {
+        List<Token> tokens = ManualTokenizer.tokenize(text);
+        for (Token token : tokens) {
+            frequencies.merge(token.term(), weight, Double::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    private static Set<String> trigramsOf(String term) {
+        String padded = "$" + term + "$";
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private record Doc(EmergencyManual manual, LocalDateTime updatedAt, Map<String, Double> frequencies, double length) {}
+
+    private record Posting(int[] docs, double[] frequencies, double idf) {}
+
+    private record Expansion(String term, double weight) {}
+}
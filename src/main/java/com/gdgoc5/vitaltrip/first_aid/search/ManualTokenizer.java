@@ -0,0 +1,78 @@
+package com.gdgoc5.vitaltrip.first_aid.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 매뉴얼 검색용 토크나이저입니다. 글자/숫자 연속 구간을 소문자 토큰으로 자르고, 짧은 영어 불용어를 빼고,
+ * 흔한 영어 어미(-s, -ed, -ing, -ies)만 간단히 떼어 "swallowed"와 "swallow"가 같은 단어로 모이게 합니다.
+ * 하이라이트를 위해 원문에서의 위치도 함께 돌려줍니다.
+ */
+final class ManualTokenizer {
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "an", "the", "and", "or", "of", "to", "in", "on", "at", "for", "with", "by", "from",
+            "is", "are", "was", "were", "be", "been", "it", "its", "this", "that",
+            "i", "me", "my", "we", "our", "you", "your", "he", "she", "his", "her", "they", "their");
+
+    record Token(String term, int start, int end) {}
+
+    private ManualTokenizer() {
+    }
+
+    static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (start < i) {
+                String word = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if (!STOPWORDS.contains(word)) {
+                    tokens.add(new Token(stem(word), start, i));
+                }
+            }
+        }
+        return tokens;
+    }
+
+    static String stem(String word) {
+        int length = word.length();
+        if (length <= 3 || !isAscii(word)) {
+            return word;
+        }
+        if (word.endsWith("ies") && length > 4) {
+            return word.substring(0, length - 3) + "y";
+        }
+        if (word.endsWith("ing") && length > 5) {
+            return word.substring(0, length - 3);
+        }
+        if (word.endsWith("ed") && !word.endsWith("eed") && length > 4) {
+            return word.substring(0, length - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            return word.substring(0, length - 1);
+        }
+        return word;
+    }
+
+    private static boolean isAscii(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,50 @@
+package com.gdgoc5.vitaltrip.first_aid.session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 진행 중인 상담 세션의 {@link SessionDescriptor}를 보관합니다.
+ * 세션을 만들 때 바로 등록하므로 후속 상담의 세션 조회는 보통 DB 왕복 없이 끝나고,
+ * 만료되었거나 재시작 후처럼 캐시에 없을 때만 디스크립터 조회 쿼리 한 번으로 채웁니다.
+ * 적중/미스/제거 지표는 cache.* (cache=chat.session)로 노출됩니다.
+ */
+@Component
+public class SessionCache {
+
+    private final Cache<UUID, SessionDescriptor> cache;
+
+    public SessionCache(MeterRegistry meterRegistry,
+                        @Value("${vitaltrip.session-cache.maximum-size:10000}") long maximumSize,
+                        @Value("${vitaltrip.session-cache.expire-after-access:30m}") Duration expireAfterAccess) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "chat.session");
+    }
+
+    public Optional<SessionDescriptor> get(UUID sessionId) {
+        return Optional.ofNullable(cache.getIfPresent(sessionId));
+    }
+
+    public void put(SessionDescriptor descriptor) {
+        cache.put(descriptor.id(), descriptor);
+    }
+
+    /**
+     * 턴이 저장되면 턴 수를 늘립니다. 캐시에 없는 세션은 다음 조회 때 DB 값으로 채워지므로 무시합니다.
+     */
+    public void recordTurn(UUID sessionId) {
+        cache.asMap().computeIfPresent(sessionId, (id, descriptor) -> descriptor.withNextTurn());
+    }
+}
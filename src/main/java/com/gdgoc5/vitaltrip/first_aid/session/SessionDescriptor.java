@@ -0,0 +1,30 @@
+package com.gdgoc5.vitaltrip.first_aid.session;
+
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+
+import java.util.UUID;
+
+/**
+ * 후속 상담에 필요한 세션 정보만 담은 경량 디스크립터입니다. 엔티티(연관 User 포함)를 로딩하지 않습니다.
+ */
+public record SessionDescriptor(
+    UUID id,
+    EmergencyType emergencyType,
+    UUID userId,
+    int turnCount
+) {
+    /**
+     * JPQL 생성자 표현식용입니다. 저장된 메시지 수(사용자 + AI)로 턴 수를 계산합니다.
+     */
+    public SessionDescriptor(UUID id, EmergencyType emergencyType, UUID userId, Long messageCount) {
+        this(id, emergencyType, userId, (int) (messageCount / 2));
+    }
+
+    public static SessionDescriptor of(UUID id, EmergencyType emergencyType, UUID userId) {
+        return new SessionDescriptor(id, emergencyType, userId, 0);
+    }
+
+    public SessionDescriptor withNextTurn() {
+        return new SessionDescriptor(id, emergencyType, userId, turnCount + 1);
+    }
+}
@@ -0,0 +1,84 @@
+package com.gdgoc5.vitaltrip.first_aid.session;
+
+import com.gdgoc5.vitaltrip.exception.NotFoundException;
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatSessionListResponse;
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatSessionSummaryResponse;
+import com.gdgoc5.vitaltrip.first_aid.history.ChatHistoryCursor;
+import com.gdgoc5.vitaltrip.first_aid.repository.EmergencyChatSessionRepository;
+import com.gdgoc5.vitaltrip.first_aid.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 사용자의 상담 세션 목록을 최근 활동 순으로 (lastActivityAt, id) 키셋 페이지네이션해서 읽습니다.
+ * 메시지 수와 마지막 메시지는 세션 요약 컬럼에서 읽으므로 세션 수와 관계없이 페이지마다 쿼리 한 번으로 끝납니다.
+ * 요약은 상담 기록이 끝난 뒤에 갱신되므로 방금 보낸 메시지는 잠시 늦게 반영될 수 있습니다.
+ */
+@Component
+public class SessionSummaryReader {
+
+    private final EmergencyChatSessionRepository sessionRepository;
+    private final UserRepository userRepository;
+    private final Scheduler jpaScheduler;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public SessionSummaryReader(EmergencyChatSessionRepository sessionRepository,
+                                UserRepository userRepository,
+                                Scheduler jpaScheduler,
+                                @Value("${vitaltrip.chat-history.default-page-size:50}") int defaultPageSize,
+                                @Value("${vitaltrip.chat-history.max-page-size:200}") int maxPageSize) {
+        this.sessionRepository = sessionRepository;
+        this.userRepository = userRepository;
+        this.jpaScheduler = jpaScheduler;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public Mono<EmergencyChatSessionListResponse> page(UUID userId, String after, Integer limit) {
+        int size = limit == null ? defaultPageSize : Math.max(1, Math.min(maxPageSize, limit));
+        ChatHistoryCursor cursor = after == null || after.isBlank() ? null : ChatHistoryCursor.decode(after);
+
+        return Mono.fromCallable(() -> {
+                    // 다음 페이지가 있는지 알기 위해 한 개를 더 읽습니다.
+                    List<EmergencyChatSessionSummaryResponse> rows = cursor == null
+                            ? sessionRepository.findSummariesByUserId(userId, Limit.of(size + 1))
+                            : sessionRepository.findSummariesByUserIdBefore(userId, cursor.createdAt(), cursor.id(), Limit.of(size + 1));
+
+                    // 첫 페이지가 비었을 때만 사용자 존재 여부를 확인해서, 일반적인 경우에는 쿼리 한 번으로 끝냅니다.
+                    if (rows.isEmpty() && cursor == null && !userRepository.existsById(userId)) {
+                        throw new NotFoundException("해당 사용자를 찾을 수 없습니다.");
+                    }
+
+                    boolean hasNext = rows.size() > size;
+                    List<EmergencyChatSessionSummaryResponse> page = hasNext ? rows.subList(0, size) : rows;
+                    String nextCursor = hasNext ? cursorOf(page.get(page.size() - 1)).encode() : null;
+                    return EmergencyChatSessionListResponse.of(List.copyOf(page), nextCursor);
+                })
+                .subscribeOn(jpaScheduler);
+    }
+
+    /**
+     * 새 상담을 사용자에게 연결하기 전에 사용자가 존재하는지 확인합니다.
+     */
+    public Mono<Void> requireUser(UUID userId) {
+        if (userId == null) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> userRepository.existsById(userId))
+                .subscribeOn(jpaScheduler)
+                .flatMap(exists -> exists
+                        ? Mono.<Void>empty()
+                        : Mono.error(new NotFoundException("해당 사용자를 찾을 수 없습니다.")));
+    }
+
+    private static ChatHistoryCursor cursorOf(EmergencyChatSessionSummaryResponse summary) {
+        return new ChatHistoryCursor(summary.lastActivityAt(), summary.sessionId());
+    }
+}
@@ -0,0 +1,139 @@
+package com.gdgoc5.vitaltrip.first_aid.triage;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gdgoc5.vitaltrip.first_aid.confidence.KeywordScorer;
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyManual;
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+import com.gdgoc5.vitaltrip.first_aid.manual.ManualCatalog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 사용자 메시지로 응급 유형을 추정합니다. 클라이언트가 emergencyType을 보내지 않은 초기 상담에서 사용하며,
+ * LLM을 호출하지 않고 메모리의 {@link TriageModel}로 수 마이크로초 안에 분류합니다.
+ *
+ * <p>모델은 매뉴얼 카탈로그, 신뢰도 키워드 사전, 사용자 표현 예시로 학습합니다({@link TriageCorpus}).
+ * 카탈로그 스냅샷이나 키워드 사전이 교체되면 다음 분류 때 한 번만 다시 학습합니다.
+ */
+@Slf4j
+@Component
+public class EmergencyTriage {
+
+    private final ManualCatalog manualCatalog;
+    private final KeywordScorer keywordScorer;
+    private final ObjectMapper objectMapper;
+    private final Resource examplesLocation;
+    private final double minConfidence;
+
+    private final ReentrantLock trainLock = new ReentrantLock();
+    private volatile Map<EmergencyType, List<String>> examples = Map.of();
+    private volatile Trained trained;
+
+    private final Timer latency;
+    private final Counter inferred;
+    private final Counter rejected;
+
+    public EmergencyTriage(ManualCatalog manualCatalog,
+                           KeywordScorer keywordScorer,
+                           ObjectMapper objectMapper,
+                           ResourceLoader resourceLoader,
+                           MeterRegistry meterRegistry,
+                           @Value("${vitaltrip.triage.examples-location:classpath:triage-examples.json}") String examplesLocation,
+                           @Value("${vitaltrip.triage.min-confidence:0.5}") double minConfidence) {
+        this.manualCatalog = manualCatalog;
+        this.keywordScorer = keywordScorer;
+        this.objectMapper = objectMapper;
+        this.examplesLocation = resourceLoader.getResource(examplesLocation);
+        this.minConfidence = minConfidence;
+
+        this.latency = Timer.builder("vitaltrip.triage.latency")
+                .description("응급 유형 분류 소요 시간")
+                .register(meterRegistry);
+        this.inferred = Counter.builder("vitaltrip.triage.requests")
+                .tag("outcome", "inferred")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("vitaltrip.triage.requests")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        try (InputStream in = examplesLocation.getInputStream()) {
+            examples = objectMapper.readValue(in, new TypeReference<Map<EmergencyType, List<String>>>() {});
+        }
+        model();
+    }
+
+    /**
+     * 신뢰도와 관계없이 분류 결과를 반환합니다.
+     */
+    public TriagePrediction predict(String userMessage) {
+        long start = System.nanoTime();
+        TriagePrediction prediction = model().predict(userMessage);
+        latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return prediction;
+    }
+
+    /**
+     * 초기 상담에 사용할 유형을 추정합니다. 신뢰도가 min-confidence보다 낮으면 추측으로 상담하지 않고 유형 지정을 요청합니다.
+     */
+    public TriagePrediction infer(String userMessage) {
+        TriagePrediction prediction = predict(userMessage);
+        if (prediction.confidence() < minConfidence) {
+            rejected.increment();
+            log.debug("응급 유형 추정 실패: candidates={}", prediction.candidates());
+            throw new IllegalArgumentException("응급 상황 종류를 판단할 수 없습니다. emergencyType을 지정해 주세요.");
+        }
+        inferred.increment();
+        return prediction;
+    }
+
+    private TriageModel model() {
+        List<EmergencyManual> manuals = manualCatalog.allManuals();
+        Map<EmergencyType, Map<String, Double>> dictionary = keywordScorer.dictionary();
+        Trained current = trained;
+        if (current != null && current.manuals() == manuals && current.dictionary() == dictionary) {
+            return current.model();
+        }
+
+        trainLock.lock();
+        try {
+            current = trained;
+            if (current != null && current.manuals() == manuals && current.dictionary() == dictionary) {
+                return current.model();
+            }
+            TriageCorpus corpus = new TriageCorpus()
+                    .addKeywords(dictionary)
+                    .addExamples(examples);
+            manuals.forEach(corpus::addManual);
+            TriageModel model = corpus.train();
+            trained = new Trained(manuals, dictionary, model);
+            log.info("응급 유형 분류기 학습 완료: 매뉴얼 {}건", manuals.size());
+            return model;
+        } finally {
+            trainLock.unlock();
+        }
+    }
+
+    private record Trained(
+            List<EmergencyManual> manuals,
+            Map<EmergencyType, Map<String, Double>> dictionary,
+            TriageModel model
+    ) {}
+}
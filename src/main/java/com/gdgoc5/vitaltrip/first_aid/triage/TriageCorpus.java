@@ -0,0 +1,64 @@
+package com.gdgoc5.vitaltrip.first_aid.triage;
+
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyManual;
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 분류기 학습 데이터를 구성합니다. 서버({@link EmergencyTriage})와 오프라인 평가 도구가 같은 가중치로 학습하도록 한곳에 둡니다.
+ *
+ * <ul>
+ *     <li>유형 이름(ANIMAL_BITE → "animal bite")</li>
+ *     <li>매뉴얼의 제목, 설명, 단계, 주의사항. 제목과 설명이 상황을 가장 잘 나타내므로 더 크게 반영합니다.</li>
+ *     <li>신뢰도 키워드 사전(confidence-keywords.json). 접두어 표시(*)는 떼고 키워드 가중치를 곱합니다.</li>
+ *     <li>사용자 표현 예시(triage-examples.json). 매뉴얼에 없는 일상 표현("he isn't breathing")을 보완합니다.</li>
+ * </ul>
+ */
+public final class TriageCorpus {
+
+    private static final double TYPE_NAME_WEIGHT = 3.0;
+    private static final double TITLE_WEIGHT = 3.0;
+    private static final double DESCRIPTION_WEIGHT = 2.0;
+    private static final double STEPS_WEIGHT = 1.0;
+    private static final double WARNING_WEIGHT = 0.5;
+    private static final double KEYWORD_WEIGHT = 3.0;
+    private static final double EXAMPLE_WEIGHT = 2.0;
+
+    private final TriageModel.Trainer trainer = TriageModel.trainer();
+
+    public TriageCorpus() {
+        for (EmergencyType type : EmergencyType.values()) {
+            trainer.add(type, type.name().replace('_', ' ').toLowerCase(Locale.ROOT), TYPE_NAME_WEIGHT);
+        }
+    }
+
+    public TriageCorpus addManual(EmergencyManual manual) {
+        return addManual(manual.getEmergencyType(), manual.getTitle(), manual.getDescription(), manual.getSteps(), manual.getWarning());
+    }
+
+    public TriageCorpus addManual(EmergencyType type, String title, String description, String steps, String warning) {
+        trainer.add(type, title, TITLE_WEIGHT)
+                .add(type, description, DESCRIPTION_WEIGHT)
+                .add(type, steps, STEPS_WEIGHT)
+                .add(type, warning, WARNING_WEIGHT);
+        return this;
+    }
+
+    public TriageCorpus addKeywords(Map<EmergencyType, Map<String, Double>> dictionary) {
+        dictionary.forEach((type, keywords) -> keywords.forEach((keyword, weight) ->
+                trainer.add(type, keyword.replace("*", ""), KEYWORD_WEIGHT * weight)));
+        return this;
+    }
+
+    public TriageCorpus addExamples(Map<EmergencyType, List<String>> examples) {
+        examples.forEach((type, texts) -> texts.forEach(text -> trainer.add(type, text, EXAMPLE_WEIGHT)));
+        return this;
+    }
+
+    public TriageModel train() {
+        return trainer.build();
+    }
+}
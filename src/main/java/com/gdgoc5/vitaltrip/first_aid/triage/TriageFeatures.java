@@ -0,0 +1,132 @@
+package com.gdgoc5.vitaltrip.first_aid.triage;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * 텍스트를 해시된 특징 벡터(버킷 번호와 가중치)로 바꿉니다.
+ *
+ * <p>문자는 소문자로 접고 글자/숫자가 아닌 문자는 단어 경계로 취급합니다. 불용어를 뺀 단어마다 단어 자체, 바로 앞 단어와의
+ * 바이그램, "&lt;단어&gt;"의 문자 4-그램을 특징으로 씁니다. 문자 n-그램 덕분에 burn/burned/burns처럼 어형이 달라도,
+ * 오타가 조금 있어도 같은 특징을 상당 부분 공유합니다. 특징 사전을 따로 두지 않고 {@link #BUCKETS}개 버킷으로 해시합니다.
+ */
+final class TriageFeatures {
+
+    static final int BITS = 15;
+    static final int BUCKETS = 1 << BITS;
+    private static final int MASK = BUCKETS - 1;
+
+    private static final float WORD_WEIGHT = 1.0f;
+    private static final float BIGRAM_WEIGHT = 0.8f;
+    private static final float CHAR_GRAM_WEIGHT = 0.5f;
+    private static final int CHAR_GRAM = 4;
+
+    private static final int WORD_SEED = 0x9E3779B9;
+    private static final int BIGRAM_SEED = 0x85EBCA6B;
+    private static final int CHAR_GRAM_SEED = 0xC2B2AE35;
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "an", "the", "and", "or", "but", "of", "to", "in", "on", "at", "by", "for", "with", "from", "into", "up",
+            "is", "are", "was", "were", "be", "been", "am", "im", "s", "m", "re", "ve", "ll", "d",
+            "i", "me", "my", "we", "our", "you", "your", "he", "him", "his", "she", "her", "it", "its",
+            "they", "them", "their", "this", "that", "there", "what", "should", "can", "could", "do", "does", "did",
+            "have", "has", "had", "just", "very", "really", "so", "please", "help", "now", "if", "then", "some"
+    );
+
+    private int[] buckets = new int[64];
+    private float[] weights = new float[64];
+    private int size;
+
+    private TriageFeatures() {
+    }
+
+    static TriageFeatures of(CharSequence text) {
+        TriageFeatures features = new TriageFeatures();
+        if (text == null) {
+            return features;
+        }
+
+        char[] word = new char[32];
+        int length = 0;
+        int previousWordHash = 0;
+        boolean hasPrevious = false;
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            char c = i < n ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (length == word.length) {
+                    word = Arrays.copyOf(word, length * 2);
+                }
+                word[length++] = Character.toLowerCase(c);
+                continue;
+            }
+            if (length == 0 || STOPWORDS.contains(new String(word, 0, length))) {
+                length = 0;
+                continue;
+            }
+
+            int wordHash = hash(WORD_SEED, word, 0, length);
+            features.add(wordHash, WORD_WEIGHT);
+            if (hasPrevious) {
+                features.add(mix(previousWordHash * 31 + wordHash + BIGRAM_SEED), BIGRAM_WEIGHT);
+            }
+            features.addCharGrams(word, length);
+            previousWordHash = wordHash;
+            hasPrevious = true;
+            length = 0;
+        }
+        return features;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int bucket(int index) {
+        return buckets[index];
+    }
+
+    float weight(int index) {
+        return weights[index];
+    }
+
+    private void addCharGrams(char[] word, int length) {
+        if (length < CHAR_GRAM - 1) {
+            return;
+        }
+        // 앞뒤 경계를 포함한 "<word>"의 n-그램입니다. 경계 문자는 단어에 나올 수 없는 값으로 씁니다.
+        char[] padded = new char[length + 2];
+        padded[0] = '<';
+        System.arraycopy(word, 0, padded, 1, length);
+        padded[length + 1] = '>';
+        for (int start = 0; start + CHAR_GRAM <= padded.length; start++) {
+            add(hash(CHAR_GRAM_SEED, padded, start, start + CHAR_GRAM), CHAR_GRAM_WEIGHT);
+        }
+    }
+
+    private void add(int hash, float weight) {
+        if (size == buckets.length) {
+            buckets = Arrays.copyOf(buckets, size * 2);
+            weights = Arrays.copyOf(weights, size * 2);
+        }
+        buckets[size] = hash & MASK;
+        weights[size] = weight;
+        size++;
+    }
+
+    private static int hash(int seed, char[] chars, int from, int to) {
+        int h = seed;
+        for (int i = from; i < to; i++) {
+            h = (h ^ chars[i]) * 0x01000193;
+        }
+        return mix(h);
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
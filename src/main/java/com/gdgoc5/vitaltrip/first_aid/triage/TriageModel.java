@@ -0,0 +1,145 @@
+package com.gdgoc5.vitaltrip.first_aid.triage;
+
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 해시된 n-그램 특징({@link TriageFeatures}) 위의 다항 나이브 베이즈 분류기입니다. 학습이 끝난 모델은 불변입니다.
+ *
+ * <p>유형별 로그 우도를 버킷 순서로 모아 두어(버킷 하나에 유형 수만큼 연속된 float) 특징 하나당 한 번만 메모리에 접근합니다.
+ * 학습 데이터에 한 번도 나오지 않은 버킷은 어느 유형의 근거도 되지 않으므로 건너뜁니다. 사전 확률은 매뉴얼 수에 휘둘리지 않도록 균등으로 둡니다.
+ *
+ * <p>나이브 베이즈의 사후 확률은 특징 수가 늘수록 0 또는 1로 쏠리므로, 신뢰도는 특징 가중치 합으로 나눈 평균 로그 우도에
+ * {@link #SHARPNESS}를 곱해 softmax한 값입니다. 이 값은 평가 도구(src/test의 TriageEvaluation)로 맞췄습니다.
+ */
+public final class TriageModel {
+
+    private static final EmergencyType[] TYPES = EmergencyType.values();
+    private static final int CLASSES = TYPES.length;
+    private static final double SMOOTHING = 0.1;
+    private static final double SHARPNESS = 4.0;
+    private static final int CANDIDATES = 3;
+
+    private final float[] logLikelihoods;
+    private final boolean[] known;
+
+    private TriageModel(float[] logLikelihoods, boolean[] known) {
+        this.logLikelihoods = logLikelihoods;
+        this.known = known;
+    }
+
+    public static Trainer trainer() {
+        return new Trainer();
+    }
+
+    public TriagePrediction predict(CharSequence text) {
+        TriageFeatures features = TriageFeatures.of(text);
+        double[] scores = new double[CLASSES];
+        double totalWeight = 0.0;
+        for (int i = 0; i < features.size(); i++) {
+            int bucket = features.bucket(i);
+            if (!known[bucket]) {
+                continue;
+            }
+            float weight = features.weight(i);
+            int offset = bucket * CLASSES;
+            for (int c = 0; c < CLASSES; c++) {
+                scores[c] += weight * logLikelihoods[offset + c];
+            }
+            totalWeight += weight;
+        }
+
+        double[] probabilities = new double[CLASSES];
+        if (totalWeight == 0.0) {
+            Arrays.fill(probabilities, 1.0 / CLASSES);
+        } else {
+            double max = Double.NEGATIVE_INFINITY;
+            for (int c = 0; c < CLASSES; c++) {
+                scores[c] = scores[c] / totalWeight * SHARPNESS;
+                max = Math.max(max, scores[c]);
+            }
+            double sum = 0.0;
+            for (int c = 0; c < CLASSES; c++) {
+                probabilities[c] = Math.exp(scores[c] - max);
+                sum += probabilities[c];
+            }
+            for (int c = 0; c < CLASSES; c++) {
+                probabilities[c] /= sum;
+            }
+        }
+        return toPrediction(probabilities);
+    }
+
+    private static TriagePrediction toPrediction(double[] probabilities) {
+        List<TriagePrediction.Candidate> candidates = new ArrayList<>(CANDIDATES);
+        boolean[] taken = new boolean[CLASSES];
+        for (int rank = 0; rank < CANDIDATES; rank++) {
+            int best = -1;
+            for (int c = 0; c < CLASSES; c++) {
+                if (!taken[c] && (best < 0 || probabilities[c] > probabilities[best])) {
+                    best = c;
+                }
+            }
+            taken[best] = true;
+            candidates.add(new TriagePrediction.Candidate(TYPES[best], probabilities[best]));
+        }
+        TriagePrediction.Candidate top = candidates.get(0);
+        return new TriagePrediction(top.emergencyType(), top.probability(), List.copyOf(candidates));
+    }
+
+    /**
+     * 유형별로 가중치가 있는 텍스트를 모아 모델을 만듭니다. 스레드 안전하지 않습니다.
+     */
+    public static final class Trainer {
+
+        private final double[] counts = new double[TriageFeatures.BUCKETS * CLASSES];
+        private final double[] totals = new double[CLASSES];
+
+        private Trainer() {
+        }
+
+        public Trainer add(EmergencyType type, String text, double weight) {
+            if (text == null || text.isBlank() || weight <= 0) {
+                return this;
+            }
+            TriageFeatures features = TriageFeatures.of(text);
+            int c = type.ordinal();
+            for (int i = 0; i < features.size(); i++) {
+                double value = weight * features.weight(i);
+                counts[features.bucket(i) * CLASSES + c] += value;
+                totals[c] += value;
+            }
+            return this;
+        }
+
+        public TriageModel build() {
+            boolean[] known = new boolean[TriageFeatures.BUCKETS];
+            int vocabulary = 0;
+            for (int bucket = 0; bucket < TriageFeatures.BUCKETS; bucket++) {
+                int offset = bucket * CLASSES;
+                for (int c = 0; c < CLASSES; c++) {
+                    if (counts[offset + c] > 0) {
+                        known[bucket] = true;
+                        vocabulary++;
+                        break;
+                    }
+                }
+            }
+
+            float[] logLikelihoods = new float[TriageFeatures.BUCKETS * CLASSES];
+            for (int c = 0; c < CLASSES; c++) {
+                double denominator = Math.log(totals[c] + SMOOTHING * Math.max(vocabulary, 1));
+                for (int bucket = 0; bucket < TriageFeatures.BUCKETS; bucket++) {
+                    if (known[bucket]) {
+                        int index = bucket * CLASSES + c;
+                        logLikelihoods[index] = (float) (Math.log(counts[index] + SMOOTHING) - denominator);
+                    }
+                }
+            }
+            return new TriageModel(logLikelihoods, known);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.gdgoc5.vitaltrip.first_aid.triage;
+
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+
+import java.util.List;
+
+/**
+ * 분류 결과입니다. candidates는 확률이 높은 순서의 상위 후보이며 첫 번째가 emergencyType입니다.
+ */
+public record TriagePrediction(
+        EmergencyType emergencyType,
+        double confidence,
+        List<Candidate> candidates
+) {
+    public record Candidate(EmergencyType emergencyType, double probability) {}
+}
@@ -0,0 +1,47 @@
+-- 기존 운영 스키마(ddl-auto: none 시절)를 그대로 옮긴 기준 버전입니다.
+-- 이미 테이블이 있는 DB는 spring.flyway.baseline-on-migrate로 이 버전이 적용된 것으로 처리됩니다.
+
+CREATE TABLE IF NOT EXISTS `user`
+(
+    id         BINARY(16) NOT NULL,
+    nickname   VARCHAR(255),
+    created_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS emergency_chat_session
+(
+    id             BINARY(16) NOT NULL,
+    emergency_type VARCHAR(32),
+    created_at     DATETIME(6),
+    user_id        BINARY(16),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_emergency_chat_session_user FOREIGN KEY (user_id) REFERENCES `user` (id)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS emergency_chat_message
+(
+    id         BINARY(16) NOT NULL,
+    sender     VARCHAR(255),
+    message    TEXT,
+    created_at DATETIME(6),
+    session_id BINARY(16),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_emergency_chat_message_session FOREIGN KEY (session_id) REFERENCES emergency_chat_session (id)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS emergency_manual
+(
+    id             INT          NOT NULL AUTO_INCREMENT,
+    emergency_type VARCHAR(32)  NOT NULL,
+    title          VARCHAR(255) NOT NULL,
+    description    LONGTEXT,
+    steps          LONGTEXT,
+    warning        LONGTEXT,
+    updated_at     DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4;
@@ -0,0 +1,5 @@
+-- 세션별 대화 내역 조회(findBySessionIdOrderByCreatedAtAsc / 최근 N개 조회)가 정렬 없이 인덱스 범위 스캔으로 끝나도록 합니다.
+CREATE INDEX idx_emergency_chat_message_session_created ON emergency_chat_message (session_id, created_at);
+
+-- 유형별 매뉴얼 조회(findByEmergencyType)용 인덱스입니다.
+CREATE INDEX idx_emergency_manual_emergency_type ON emergency_manual (emergency_type);
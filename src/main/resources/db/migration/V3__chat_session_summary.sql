@@ -0,0 +1,25 @@
+-- 사용자별 상담 목록을 메시지 테이블 없이 한 번의 인덱스 범위 조회로 만들 수 있도록 세션에 요약 컬럼을 둡니다.
+-- 값은 상담 기록(ChatWriteBehind) 시 증분으로 갱신합니다.
+ALTER TABLE emergency_chat_session
+    ADD COLUMN message_count        INT          NOT NULL DEFAULT 0,
+    ADD COLUMN last_message_preview VARCHAR(200),
+    ADD COLUMN last_activity_at     DATETIME(6);
+
+-- 기존 세션의 요약을 채웁니다.
+UPDATE emergency_chat_session s
+    JOIN (SELECT session_id, COUNT(*) AS message_count, MAX(created_at) AS last_activity_at
+          FROM emergency_chat_message
+          GROUP BY session_id) m ON m.session_id = s.id
+SET s.message_count    = m.message_count,
+    s.last_activity_at = m.last_activity_at;
+
+UPDATE emergency_chat_session s
+    JOIN emergency_chat_message m ON m.session_id = s.id AND m.created_at = s.last_activity_at
+SET s.last_message_preview = LEFT(m.message, 200);
+
+UPDATE emergency_chat_session
+SET last_activity_at = created_at
+WHERE last_activity_at IS NULL;
+
+-- GET /users/{id}/sessions 가 최근 활동 순 키셋 페이지네이션을 정렬 없이 인덱스로 처리합니다.
+CREATE INDEX idx_emergency_chat_session_user_activity ON emergency_chat_session (user_id, last_activity_at, id);
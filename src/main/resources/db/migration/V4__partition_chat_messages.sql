@@ -0,0 +1,59 @@
+-- 메시지 테이블을 created_at 기준 월별 RANGE 파티션으로 바꿉니다.
+-- 보존 기간이 지난 메시지는 행 단위 DELETE 대신 파티션을 통째로 DROP(또는 EXCHANGE로 보관 테이블에 분리)해서 지웁니다.
+--
+-- MySQL 파티션 테이블의 제약 때문에 다음을 함께 바꿉니다.
+--  * 모든 유니크 키에 파티션 컬럼이 있어야 하므로 PK를 (id, created_at)으로 바꿉니다. id는 UUIDv7이라 단독으로도 유일합니다.
+--  * InnoDB 파티션 테이블은 외래 키를 지원하지 않으므로 session_id FK를 제거합니다.
+--    대신 ChatWriteBehind가 세션이 없는 턴(세션 기록 실패, 보존 기간 만료)을 기록하지 않고 되돌립니다.
+--
+-- 이후 달의 파티션은 ChatRetentionJob이 pmax를 나눠 미리 만듭니다.
+
+-- V1 이전부터 있던(baseline으로 표시된) DB는 Hibernate나 DBA가 붙인 이름으로 FK가 만들어져 있으므로 이름을 조회해서 지웁니다.
+SET @session_fk = (
+    SELECT CONSTRAINT_NAME
+    FROM information_schema.REFERENTIAL_CONSTRAINTS
+    WHERE CONSTRAINT_SCHEMA = DATABASE()
+      AND TABLE_NAME = 'emergency_chat_message'
+      AND REFERENCED_TABLE_NAME = 'emergency_chat_session'
+    LIMIT 1
+);
+SET @drop_session_fk = IF(@session_fk IS NULL,
+    'DO 0',
+    CONCAT('ALTER TABLE emergency_chat_message DROP FOREIGN KEY `', REPLACE(@session_fk, '`', '``'), '`'));
+PREPARE drop_session_fk FROM @drop_session_fk;
+EXECUTE drop_session_fk;
+DEALLOCATE PREPARE drop_session_fk;
+
+UPDATE emergency_chat_message SET created_at = CURRENT_TIMESTAMP(6) WHERE created_at IS NULL;
+
+ALTER TABLE emergency_chat_message
+    MODIFY created_at DATETIME(6) NOT NULL,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at);
+
+ALTER TABLE emergency_chat_message PARTITION BY RANGE COLUMNS (created_at) (
+    PARTITION p202505 VALUES LESS THAN ('2025-06-01'),
+    PARTITION p202506 VALUES LESS THAN ('2025-07-01'),
+    PARTITION p202507 VALUES LESS THAN ('2025-08-01'),
+    PARTITION p202508 VALUES LESS THAN ('2025-09-01'),
+    PARTITION p202509 VALUES LESS THAN ('2025-10-01'),
+    PARTITION p202510 VALUES LESS THAN ('2025-11-01'),
+    PARTITION p202511 VALUES LESS THAN ('2025-12-01'),
+    PARTITION p202512 VALUES LESS THAN ('2026-01-01'),
+    PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+    PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+-- 보존 기간이 지난 세션을 조금씩 지울 때(last_activity_at < ?) 전체 스캔을 피합니다.
+CREATE INDEX idx_emergency_chat_session_last_activity ON emergency_chat_session (last_activity_at);
@@ -0,0 +1,107 @@
+package com.gdgoc5.vitaltrip.first_aid;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdviceStreamSplitterTest {
+
+    private static final String ADVICE = "Cool the burn under running water <for 20 minutes>.\nDo not apply ice.";
+    private static final String META = "{\"recommendedAction\":\"Call 119\",\"confidence\":0.9}";
+    private static final String STREAM = ADVICE + "\n" + AdviceStreamSplitter.DELIMITER + "\n" + META;
+
+    @Test
+    void splitsStreamDeliveredOneCharacterPerChunk() {
+        AdviceStreamSplitter splitter = new AdviceStreamSplitter();
+        StringBuilder emitted = new StringBuilder();
+        for (char c : STREAM.toCharArray()) {
+            emitted.append(splitter.accept(String.valueOf(c)));
+        }
+        emitted.append(splitter.flush());
+
+        assertThat(emitted.toString()).isEqualTo(ADVICE + "\n");
+        assertThat(splitter.advice()).isEqualTo(ADVICE);
+        assertThat(splitter.meta()).isEqualTo(META);
+    }
+
+    @Test
+    void splitsStreamCutAtEveryOffset() {
+        for (int offset = 0; offset <= STREAM.length(); offset++) {
+            AdviceStreamSplitter splitter = new AdviceStreamSplitter();
+
+            String emitted = feed(splitter, STREAM.substring(0, offset), STREAM.substring(offset));
+
+            assertThat(emitted).as("offset %d", offset).isEqualTo(ADVICE + "\n");
+            assertThat(splitter.advice()).as("offset %d", offset).isEqualTo(ADVICE);
+            assertThat(splitter.meta()).as("offset %d", offset).isEqualTo(META);
+        }
+    }
+
+    @Test
+    void splitsDelimiterCutAtEveryPairOfOffsets() {
+        // 구분자 자체가 세 청크에 걸쳐 나뉘는 모든 경우입니다.
+        int start = STREAM.indexOf(AdviceStreamSplitter.DELIMITER);
+        int end = start + AdviceStreamSplitter.DELIMITER.length();
+        for (int first = start; first <= end; first++) {
+            for (int second = first; second <= end; second++) {
+                AdviceStreamSplitter splitter = new AdviceStreamSplitter();
+
+                String emitted = feed(splitter,
+                        STREAM.substring(0, first), STREAM.substring(first, second), STREAM.substring(second));
+
+                assertThat(emitted).as("offsets %d, %d", first, second).isEqualTo(ADVICE + "\n");
+                assertThat(splitter.meta()).as("offsets %d, %d", first, second).isEqualTo(META);
+            }
+        }
+    }
+
+    @Test
+    void returnsWholeStreamAsAdviceWithoutDelimiter() {
+        for (List<String> chunks : List.of(List.of(ADVICE), List.of("Cool", " the burn", ".", "\n", "Do not apply ice."))) {
+            AdviceStreamSplitter splitter = new AdviceStreamSplitter();
+
+            String emitted = feed(splitter, chunks.toArray(String[]::new));
+
+            assertThat(emitted).isEqualTo(String.join("", chunks));
+            assertThat(splitter.advice()).isEqualTo(String.join("", chunks).trim());
+            assertThat(splitter.meta()).isEmpty();
+        }
+    }
+
+    @Test
+    void holdsBackOnlyWhatCouldStillBecomeDelimiter() {
+        AdviceStreamSplitter splitter = new AdviceStreamSplitter();
+        String text = "Apply firm pressure.";
+        int held = AdviceStreamSplitter.DELIMITER.length() - 1;
+
+        String first = splitter.accept(text);
+        assertThat(first).isEqualTo(text.substring(0, text.length() - held));
+        // 구분자의 앞부분처럼 보였지만 구분자가 아니었던 텍스트도 조언으로 내보냅니다.
+        String partial = AdviceStreamSplitter.DELIMITER.substring(0, held);
+        String emitted = first + splitter.accept(partial + " x") + splitter.flush();
+
+        assertThat(emitted).isEqualTo(text + partial + " x");
+        assertThat(splitter.meta()).isEmpty();
+    }
+
+    @Test
+    void sendsNothingAfterDelimiter() {
+        AdviceStreamSplitter splitter = new AdviceStreamSplitter();
+
+        assertThat(splitter.accept("Call 119." + AdviceStreamSplitter.DELIMITER + "{\"a\":")).isEqualTo("Call 119.");
+        assertThat(splitter.accept(AdviceStreamSplitter.DELIMITER + "1}")).isEmpty();
+        assertThat(splitter.flush()).isEmpty();
+        assertThat(splitter.advice()).isEqualTo("Call 119.");
+        assertThat(splitter.meta()).isEqualTo("{\"a\":" + AdviceStreamSplitter.DELIMITER + "1}");
+    }
+
+    private static String feed(AdviceStreamSplitter splitter, String... chunks) {
+        StringBuilder emitted = new StringBuilder();
+        for (String chunk : chunks) {
+            emitted.append(splitter.accept(chunk));
+        }
+        return emitted.append(splitter.flush()).toString();
+    }
+}
@@ -0,0 +1,224 @@
+package com.gdgoc5.vitaltrip.first_aid.client;
+
+import com.gdgoc5.vitaltrip.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 응답 시간은 직접 움직이는 시계로 재서 한도 계산을 결정적으로 확인합니다. 대기 시간 초과만 실제 시간을 씁니다.
+ */
+class GeminiConcurrencyLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void runsUpToLimitQueuesUpToQueueSizeAndRejectsTheRest() {
+        GeminiConcurrencyLimiter limiter = limiter(2, 1, 10, 1, Duration.ofSeconds(10));
+
+        Call first = Call.start(limiter);
+        Call second = Call.start(limiter);
+        Call queued = Call.start(limiter);
+        Call rejected = Call.start(limiter);
+
+        assertThat(first.started).isTrue();
+        assertThat(second.started).isTrue();
+        assertThat(queued.started).isFalse();
+        assertThat(rejected.started).isFalse();
+        assertThat(rejected.error).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(((ServiceUnavailableException) rejected.error).getRetryAfterSeconds()).isEqualTo(1);
+        assertThat(gauge("gemini.limiter.in-flight")).isEqualTo(2.0);
+        assertThat(gauge("gemini.limiter.queue")).isEqualTo(1.0);
+        assertThat(rejections("queue_full")).isEqualTo(1.0);
+
+        // 진행 중인 호출이 끝나면 먼저 기다린 요청부터 실행합니다.
+        first.complete();
+        assertThat(queued.started).isTrue();
+        assertThat(gauge("gemini.limiter.queue")).isZero();
+
+        second.complete();
+        queued.complete();
+        assertThat(queued.value).isEqualTo("ok");
+        assertThat(gauge("gemini.limiter.in-flight")).isZero();
+    }
+
+    @Test
+    void rejectsWaiterAfterMaxQueueWaitAndForgetsIt() {
+        GeminiConcurrencyLimiter limiter = limiter(1, 1, 10, 5, Duration.ofMillis(100));
+
+        Call running = Call.start(limiter);
+        Call waiting = Call.start(limiter);
+
+        await(() -> waiting.error != null);
+        assertThat(waiting.error).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(waiting.started).isFalse();
+        assertThat(rejections("queue_timeout")).isEqualTo(1.0);
+        assertThat(gauge("gemini.limiter.queue")).isZero();
+
+        running.complete();
+        assertThat(gauge("gemini.limiter.in-flight")).isZero();
+    }
+
+    @Test
+    void releasesSlotWhenQueuedCallerCancels() {
+        GeminiConcurrencyLimiter limiter = limiter(1, 1, 10, 5, Duration.ofSeconds(10));
+
+        Call running = Call.start(limiter);
+        Call cancelled = Call.start(limiter);
+        Call next = Call.start(limiter);
+        cancelled.subscription.dispose();
+
+        assertThat(gauge("gemini.limiter.queue")).isEqualTo(1.0);
+        running.complete();
+        assertThat(cancelled.started).isFalse();
+        assertThat(next.started).isTrue();
+    }
+
+    @Test
+    void derivesRetryAfterFromRecentLatency() {
+        GeminiConcurrencyLimiter limiter = limiter(1, 1, 10, 0, Duration.ofSeconds(10));
+
+        Call call = Call.start(limiter);
+        nanos.addAndGet(Duration.ofSeconds(3).toNanos());
+        call.complete();
+
+        Call blocker = Call.start(limiter);
+        Call rejected = Call.start(limiter);
+        assertThat(blocker.started).isTrue();
+        assertThat(((ServiceUnavailableException) rejected.error).getRetryAfterSeconds()).isEqualTo(3);
+    }
+
+    @Test
+    void growsLimitWhileLatencyIsSteadyAndShrinksItWhenLatencyRises() {
+        GeminiConcurrencyLimiter limiter = limiter(10, 2, 50, 100, Duration.ofSeconds(10));
+        // 한도의 절반 이상을 쓰고 있어야 한도를 조정하므로, 끝나지 않는 호출로 9개를 채워 둡니다.
+        List<Call> background = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            background.add(Call.start(limiter));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            runFor(limiter, Duration.ofSeconds(1));
+        }
+        double afterSteady = gauge("gemini.limiter.limit");
+        assertThat(afterSteady).isGreaterThan(10.0);
+
+        for (int i = 0; i < 10; i++) {
+            runFor(limiter, Duration.ofSeconds(4));
+        }
+        double afterSlow = gauge("gemini.limiter.limit");
+        assertThat(afterSlow).isLessThan(afterSteady);
+
+        background.forEach(Call::complete);
+        assertThat(gauge("gemini.limiter.in-flight")).isZero();
+    }
+
+    @Test
+    void doesNotGrowLimitWhenMostOfItIsUnused() {
+        GeminiConcurrencyLimiter limiter = limiter(10, 2, 50, 100, Duration.ofSeconds(10));
+
+        for (int i = 0; i < 10; i++) {
+            runFor(limiter, Duration.ofSeconds(1));
+        }
+
+        assertThat(gauge("gemini.limiter.limit")).isEqualTo(10.0);
+    }
+
+    @Test
+    void backsOffOnOverloadErrorsButNotOnClientErrors() {
+        GeminiConcurrencyLimiter limiter = limiter(10, 8, 50, 100, Duration.ofSeconds(10));
+
+        Call.start(limiter).fail(new TimeoutException());
+        assertThat(gauge("gemini.limiter.limit")).isCloseTo(9.0, within(1e-9));
+
+        Call.start(limiter).fail(WebClientResponseException.create(HttpStatusCode.valueOf(400), "Bad Request", HttpHeaders.EMPTY, new byte[0], null, null));
+        assertThat(gauge("gemini.limiter.limit")).isCloseTo(9.0, within(1e-9));
+
+        Call.start(limiter).fail(WebClientResponseException.create(HttpStatusCode.valueOf(429), "Too Many Requests", HttpHeaders.EMPTY, new byte[0], null, null));
+        assertThat(gauge("gemini.limiter.limit")).isCloseTo(8.1, within(1e-9));
+
+        // min-limit 아래로는 내려가지 않습니다.
+        Call.start(limiter).fail(new TimeoutException());
+        assertThat(gauge("gemini.limiter.limit")).isEqualTo(8.0);
+        assertThat(gauge("gemini.limiter.in-flight")).isZero();
+    }
+
+    private GeminiConcurrencyLimiter limiter(int initialLimit, int minLimit, int maxLimit, int queueSize, Duration maxQueueWait) {
+        return new GeminiConcurrencyLimiter(meterRegistry, initialLimit, minLimit, maxLimit, queueSize, maxQueueWait, nanos::get);
+    }
+
+    private void runFor(GeminiConcurrencyLimiter limiter, Duration latency) {
+        Call call = Call.start(limiter);
+        assertThat(call.started).isTrue();
+        nanos.addAndGet(latency.toNanos());
+        call.complete();
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private double rejections(String reason) {
+        return meterRegistry.counter("gemini.limiter.rejections", "reason", reason).count();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("조건을 만족하지 못했습니다.");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    /**
+     * 직접 끝낼 수 있는 Gemini 호출 하나입니다. 제한기가 실제로 호출을 시작했는지 기록합니다.
+     */
+    private static final class Call {
+
+        private final Sinks.One<String> sink = Sinks.one();
+        private volatile boolean started;
+        private volatile String value;
+        private volatile Throwable error;
+        private Disposable subscription;
+
+        private static Call start(GeminiConcurrencyLimiter limiter) {
+            Call call = new Call();
+            call.subscription = limiter.execute(() -> {
+                        call.started = true;
+                        return call.sink.asMono();
+                    })
+                    .subscribe(v -> call.value = v, e -> call.error = e);
+            return call;
+        }
+
+        private void complete() {
+            sink.tryEmitValue("ok");
+        }
+
+        private void fail(Throwable failure) {
+            sink.tryEmitError(failure);
+        }
+    }
+}
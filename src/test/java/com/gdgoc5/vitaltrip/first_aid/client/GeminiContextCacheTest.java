@@ -0,0 +1,244 @@
+package com.gdgoc5.vitaltrip.first_aid.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gdgoc5.vitaltrip.config.GeminiProperties;
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+import com.gdgoc5.vitaltrip.first_aid.prompt.GeminiPrompt;
+import com.gdgoc5.vitaltrip.first_aid.prompt.PromptKind;
+import com.gdgoc5.vitaltrip.first_aid.prompt.PromptTemplateEngine;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Gemini API 대신 JDK HttpServer로 만든 로컬 스텁에 붙여 컨텍스트 캐시 등록, 캐시 이름 사용, 거부 시 폴백, 연장을 확인합니다.
+ */
+class GeminiContextCacheTest {
+
+    private static final String MODEL = "gemini-test";
+    private static final String CACHE_NAME = "cachedContents/c1";
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+    private static final String GENERATE_RESPONSE = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"ok\"}]}}]}";
+
+    private final List<RecordedRequest> requests = new CopyOnWriteArrayList<>();
+    private volatile boolean rejectCachedContent;
+    private volatile boolean rejectRegistration;
+    private volatile boolean rejectModel;
+    private volatile Instant createdExpireTime = CLOCK.instant().plus(Duration.ofHours(1));
+
+    private HttpServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private GeminiContextCache contextCache;
+    private GeminiClient geminiClient;
+    private GeminiPrompt prompt;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1beta/", this::handle);
+        server.start();
+
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .build();
+        meterRegistry = new SimpleMeterRegistry();
+        contextCache = new GeminiContextCache(webClient, meterRegistry, CLOCK, true,
+                Duration.ofHours(1), Duration.ofMinutes(10), Duration.ofMinutes(30));
+        geminiClient = new GeminiClient(webClient, contextCache);
+
+        PromptTemplateEngine engine = new PromptTemplateEngine(new DefaultResourceLoader(), new ObjectMapper(), new GeminiProperties(), "v1");
+        engine.load();
+        prompt = engine.render(PromptKind.ADVICE, EmergencyType.BURNS, "I spilled boiling water on my arm");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void registersSystemInstructionOnceAndThenSendsCacheName() {
+        geminiClient.generateContent(prompt, MODEL).block();
+        awaitRegistered();
+        geminiClient.generateContent(prompt, MODEL).block();
+        geminiClient.generateContent(prompt, MODEL).block();
+
+        List<RecordedRequest> generates = generateRequests();
+        assertThat(generates).hasSize(3);
+        assertThat(generates.get(0).body()).contains("\"systemInstruction\"").doesNotContain("\"cachedContent\"");
+        assertThat(generates.get(1).body())
+                .startsWith("{\"cachedContent\":\"" + CACHE_NAME + "\",\"contents\":[")
+                .doesNotContain("\"systemInstruction\"")
+                .contains("I spilled boiling water on my arm")
+                .contains("\"generationConfig\"");
+        assertThat(generates.get(2).body()).startsWith("{\"cachedContent\":\"" + CACHE_NAME + "\"");
+
+        List<RecordedRequest> creates = requests("POST", "/v1beta/cachedContents");
+        assertThat(creates).hasSize(1);
+        assertThat(creates.get(0).body())
+                .contains("\"model\":\"models/" + MODEL + "\"")
+                .contains("\"ttl\":\"3600s\"")
+                .contains("\"systemInstruction\":{\"parts\":[{\"text\":");
+    }
+
+    @Test
+    void fallsBackToInlinePromptWhenCacheNameIsRejected() {
+        geminiClient.generateContent(prompt, MODEL).block();
+        awaitRegistered();
+
+        rejectCachedContent = true;
+        byte[] response = geminiClient.generateContent(prompt, MODEL).block();
+
+        assertThat(new String(response, StandardCharsets.UTF_8)).isEqualTo(GENERATE_RESPONSE);
+        List<RecordedRequest> generates = generateRequests();
+        assertThat(generates).hasSize(3);
+        assertThat(generates.get(1).body()).contains("\"cachedContent\"");
+        assertThat(generates.get(2).body()).contains("\"systemInstruction\"").doesNotContain("\"cachedContent\"");
+
+        // 거부된 캐시는 버려지고 다음 요청에서 다시 등록됩니다.
+        rejectCachedContent = false;
+        awaitRegistered();
+        assertThat(requests("POST", "/v1beta/cachedContents")).hasSize(2);
+    }
+
+    @Test
+    void keepsCacheWhenErrorIsUnrelatedToIt() {
+        geminiClient.generateContent(prompt, MODEL).block();
+        awaitRegistered();
+
+        rejectModel = true;
+        assertThatThrownBy(() -> geminiClient.generateContent(prompt, MODEL).block())
+                .isInstanceOf(WebClientResponseException.NotFound.class);
+
+        // 모델 이름 오류는 지시문을 넣어 다시 보내도 실패하므로 다시 보내지 않고 캐시도 유지합니다.
+        assertThat(generateRequests()).hasSize(2);
+        assertThat(contextCache.lookup(prompt.template(), MODEL)).isEqualTo(CACHE_NAME);
+    }
+
+    @Test
+    void keepsSendingInlinePromptWhenRegistrationFails() {
+        rejectRegistration = true;
+
+        geminiClient.generateContent(prompt, MODEL).block();
+        await(() -> meterRegistry.counter("gemini.context-cache.registrations", "outcome", "failure").count() == 1.0);
+        geminiClient.generateContent(prompt, MODEL).block();
+
+        assertThat(generateRequests())
+                .hasSize(2)
+                .allSatisfy(request -> assertThat(request.body()).contains("\"systemInstruction\""));
+        // retry-after가 지나기 전에는 다시 등록하지 않습니다.
+        assertThat(requests("POST", "/v1beta/cachedContents")).hasSize(1);
+    }
+
+    @Test
+    void renewsCacheBeforeItExpires() {
+        createdExpireTime = CLOCK.instant().plus(Duration.ofMinutes(5));
+        geminiClient.generateContent(prompt, MODEL).block();
+        awaitRegistered();
+
+        contextCache.renewAll().block();
+        contextCache.renewAll().block();
+
+        List<RecordedRequest> patches = requests("PATCH", "/v1beta/" + CACHE_NAME);
+        assertThat(patches).hasSize(1);
+        assertThat(patches.get(0).query()).isEqualTo("updateMask=ttl");
+        assertThat(patches.get(0).body()).isEqualTo("{\"ttl\":\"3600s\"}");
+        assertThat(contextCache.lookup(prompt.template(), MODEL)).isEqualTo(CACHE_NAME);
+    }
+
+    private void awaitRegistered() {
+        await(() -> contextCache.lookup(prompt.template(), MODEL) != null);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("조건을 만족하지 못했습니다.");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    private List<RecordedRequest> generateRequests() {
+        return requests("POST", "/v1beta/models/" + MODEL + ":generateContent");
+    }
+
+    private List<RecordedRequest> requests(String method, String path) {
+        return requests.stream()
+                .filter(request -> request.method().equals(method) && request.path().equals(path))
+                .toList();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        requests.add(new RecordedRequest(method, path, exchange.getRequestURI().getQuery(), body));
+
+        if (method.equals("POST") && path.equals("/v1beta/cachedContents")) {
+            if (rejectRegistration) {
+                respond(exchange, 400, error(400, "Cached content is too small.", "INVALID_ARGUMENT"));
+            } else {
+                respond(exchange, 200, cachedContent(createdExpireTime));
+            }
+        } else if (method.equals("PATCH") && path.equals("/v1beta/" + CACHE_NAME)) {
+            respond(exchange, 200, cachedContent(CLOCK.instant().plus(Duration.ofHours(1))));
+        } else if (method.equals("POST") && path.equals("/v1beta/models/" + MODEL + ":generateContent")) {
+            if (rejectModel) {
+                respond(exchange, 404, error(404, "models/" + MODEL + " is not found for API version v1beta", "NOT_FOUND"));
+            } else if (rejectCachedContent && body.contains("\"cachedContent\"")) {
+                respond(exchange, 404, error(404, "CachedContent not found (or permission denied)", "NOT_FOUND"));
+            } else {
+                respond(exchange, 200, GENERATE_RESPONSE);
+            }
+        } else {
+            respond(exchange, 404, error(404, "Not found", "NOT_FOUND"));
+        }
+    }
+
+    private static String cachedContent(Instant expireTime) {
+        return "{\"name\":\"" + CACHE_NAME + "\",\"model\":\"models/" + MODEL + "\",\"expireTime\":\"" + expireTime + "\"}";
+    }
+
+    private static String error(int code, String message, String status) {
+        return "{\"error\":{\"code\":" + code + ",\"message\":\"" + message + "\",\"status\":\"" + status + "\"}}";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private record RecordedRequest(String method, String path, String query, String body) {}
+}
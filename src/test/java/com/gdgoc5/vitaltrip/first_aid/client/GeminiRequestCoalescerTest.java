@@ -0,0 +1,201 @@
+package com.gdgoc5.vitaltrip.first_aid.client;
+
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatAdviceResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 업스트림 호출을 Sinks.One으로 대신해 호출 시작, 구독, 취소 횟수를 세면서 single-flight 동작을 확인합니다.
+ */
+class GeminiRequestCoalescerTest {
+
+    private static final String KEY = "burns:I spilled boiling water";
+    private static final EmergencyChatAdviceResponse RESPONSE =
+            EmergencyChatAdviceResponse.from("Cool the burn under running water.", "Call emergency services.", 0.9, List.of());
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GeminiRequestCoalescer coalescer = new GeminiRequestCoalescer(meterRegistry, Duration.ofSeconds(10));
+
+    @Test
+    void sharesOneUpstreamCallAcrossConcurrentCallers() {
+        Upstream upstream = new Upstream();
+        List<Result> results = subscribe(coalescer, upstream, 5);
+
+        assertThat(upstream.calls).hasValue(1);
+        assertThat(upstream.subscriptions).hasValue(1);
+        assertThat(results).allSatisfy(result -> assertThat(result.value).isNull());
+
+        upstream.sink.tryEmitValue(RESPONSE);
+
+        assertThat(results).allSatisfy(result -> assertThat(result.value).isSameAs(RESPONSE));
+        assertThat(upstream.subscriptions).hasValue(1);
+        assertThat(meterRegistry.counter("gemini.coalescer.requests", "role", "leader").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("gemini.coalescer.requests", "role", "follower").count()).isEqualTo(4.0);
+    }
+
+    @Test
+    void deliversErrorToEveryWaiter() {
+        Upstream upstream = new Upstream();
+        List<Result> results = subscribe(coalescer, upstream, 3);
+
+        IllegalStateException failure = new IllegalStateException("Gemini 503");
+        upstream.sink.tryEmitError(failure);
+
+        assertThat(results).allSatisfy(result -> assertThat(result.error).isSameAs(failure));
+        assertThat(upstream.calls).hasValue(1);
+    }
+
+    @Test
+    void cancelsUpstreamOnlyWhenLastWaiterCancels() {
+        Upstream upstream = new Upstream();
+        List<Result> results = subscribe(coalescer, upstream, 3);
+
+        results.get(0).subscription.dispose();
+        results.get(1).subscription.dispose();
+        assertThat(upstream.cancellations).hasValue(0);
+
+        results.get(2).subscription.dispose();
+        assertThat(upstream.cancellations).hasValue(1);
+
+        // 취소된 호출은 키에서 빠지므로 다음 요청은 새 호출을 시작합니다.
+        Upstream next = new Upstream();
+        Result result = subscribe(coalescer, next, 1).get(0);
+        next.sink.tryEmitValue(RESPONSE);
+        assertThat(result.value).isSameAs(RESPONSE);
+        assertThat(upstream.calls).hasValue(1);
+        assertThat(next.calls).hasValue(1);
+    }
+
+    @Test
+    void startsNewCallAfterPreviousOneFinishedInsteadOfReplayingIt() {
+        Upstream first = new Upstream();
+        Result firstResult = subscribe(coalescer, first, 1).get(0);
+        first.sink.tryEmitValue(RESPONSE);
+        assertThat(firstResult.value).isSameAs(RESPONSE);
+
+        EmergencyChatAdviceResponse fresh = EmergencyChatAdviceResponse.from("Updated advice.", "", 0.8, List.of());
+        Upstream second = new Upstream();
+        Result secondResult = subscribe(coalescer, second, 1).get(0);
+        second.sink.tryEmitValue(fresh);
+
+        assertThat(secondResult.value).isSameAs(fresh);
+        // 끝난 호출을 다시 구독하지 않습니다.
+        assertThat(first.subscriptions).hasValue(1);
+        assertThat(second.calls).hasValue(1);
+        assertThat(meterRegistry.counter("gemini.coalescer.requests", "role", "leader").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void timesOutEachWaiterOnItsOwnWithoutCancellingOthers() throws InterruptedException {
+        GeminiRequestCoalescer shortWait = new GeminiRequestCoalescer(new SimpleMeterRegistry(), Duration.ofMillis(500));
+        Upstream upstream = new Upstream();
+
+        Result leader = subscribe(shortWait, upstream, 1).get(0);
+        Thread.sleep(300);
+        Result follower = subscribe(shortWait, upstream, 1).get(0);
+
+        await(() -> leader.error != null);
+        assertThat(leader.error).isInstanceOf(TimeoutException.class);
+        assertThat(upstream.cancellations).hasValue(0);
+
+        upstream.sink.tryEmitValue(RESPONSE);
+        assertThat(follower.value).isSameAs(RESPONSE);
+        assertThat(upstream.calls).hasValue(1);
+    }
+
+    @Test
+    void cancelsUpstreamWhenLastWaiterTimesOut() {
+        GeminiRequestCoalescer shortWait = new GeminiRequestCoalescer(new SimpleMeterRegistry(), Duration.ofMillis(100));
+        Upstream upstream = new Upstream();
+
+        Result result = subscribe(shortWait, upstream, 1).get(0);
+
+        await(() -> result.error != null);
+        assertThat(result.error).isInstanceOf(TimeoutException.class);
+        assertThat(upstream.cancellations).hasValue(1);
+    }
+
+    @Test
+    void keepsDifferentKeysApart() {
+        Upstream first = new Upstream();
+        Upstream second = new Upstream();
+        Result firstResult = new Result();
+        Result secondResult = new Result();
+        firstResult.subscribe(coalescer.execute("a", first));
+        secondResult.subscribe(coalescer.execute("b", second));
+
+        assertThat(first.calls).hasValue(1);
+        assertThat(second.calls).hasValue(1);
+        second.sink.tryEmitValue(RESPONSE);
+        assertThat(secondResult.value).isSameAs(RESPONSE);
+        assertThat(firstResult.value).isNull();
+    }
+
+    private static List<Result> subscribe(GeminiRequestCoalescer coalescer, Upstream upstream, int callers) {
+        List<Result> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            Result result = new Result();
+            result.subscribe(coalescer.execute(KEY, upstream));
+            results.add(result);
+        }
+        return results;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("조건을 만족하지 못했습니다.");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    /**
+     * Gemini 호출 대신 쓰는 업스트림입니다. 호출(supplier.get) 횟수와 구독/취소 횟수를 따로 셉니다.
+     */
+    private static final class Upstream implements Supplier<Mono<EmergencyChatAdviceResponse>> {
+
+        private final Sinks.One<EmergencyChatAdviceResponse> sink = Sinks.one();
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger subscriptions = new AtomicInteger();
+        private final AtomicInteger cancellations = new AtomicInteger();
+
+        @Override
+        public Mono<EmergencyChatAdviceResponse> get() {
+            calls.incrementAndGet();
+            return sink.asMono()
+                    .doOnSubscribe(subscription -> subscriptions.incrementAndGet())
+                    .doOnCancel(cancellations::incrementAndGet);
+        }
+    }
+
+    private static final class Result {
+
+        private volatile EmergencyChatAdviceResponse value;
+        private volatile Throwable error;
+        private Disposable subscription;
+
+        private void subscribe(Mono<EmergencyChatAdviceResponse> mono) {
+            subscription = mono.subscribe(v -> value = v, e -> error = e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.gdgoc5.vitaltrip.first_aid.confidence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class KeywordAutomatonTest {
+
+    @Test
+    void doesNotMatchKeywordEmbeddedInLargerWord() {
+        KeywordAutomaton automaton = KeywordAutomaton.compile(Map.of("burn", 1.0));
+
+        assertThat(automaton.score("heartburn after dinner")).isZero();
+        assertThat(automaton.score("the burned area")).isZero();
+        assertThat(automaton.score("sunburnt")).isZero();
+        assertThat(automaton.score("it is a burn")).isEqualTo(1.0);
+        assertThat(automaton.score("burn")).isEqualTo(1.0);
+    }
+
+    @Test
+    void prefixKeywordMatchesWordsStartingWithIt() {
+        KeywordAutomaton automaton = KeywordAutomaton.compile(Map.of("burn*", 1.0));
+
+        assertThat(automaton.score("The area was burned.")).isEqualTo(1.0);
+        assertThat(automaton.score("two burns")).isEqualTo(1.0);
+        assertThat(automaton.score("burn")).isEqualTo(1.0);
+        // 접두어 키워드도 단어 시작에서만 매칭됩니다.
+        assertThat(automaton.score("sunburned skin")).isZero();
+    }
+
+    @Test
+    void multiWordKeywordMatchesAcrossAnyBoundaryRun() {
+        KeywordAutomaton automaton = KeywordAutomaton.compile(Map.of("running water", 1.0));
+
+        assertThat(automaton.score("cool it under running water")).isEqualTo(1.0);
+        assertThat(automaton.score("running  --\n water!")).isEqualTo(1.0);
+        assertThat(automaton.score("running waterfall")).isZero();
+        assertThat(automaton.score("running, then water")).isZero();
+        assertThat(automaton.score("keep running. Water helps")).isEqualTo(1.0);
+    }
+
+    @Test
+    void reportsEveryOverlappingKeywordOnce() {
+        Map<String, Double> keywords = new LinkedHashMap<>();
+        keywords.put("cold water", 2.0);
+        keywords.put("water", 1.0);
+        keywords.put("cold", 1.0);
+        keywords.put("water bottle", 4.0);
+        KeywordAutomaton automaton = KeywordAutomaton.compile(keywords);
+
+        assertThat(automaton.score("apply cold water")).isCloseTo(4.0 / 8.0, within(1e-9));
+        assertThat(automaton.score("cold water bottle")).isCloseTo(8.0 / 8.0, within(1e-9));
+        assertThat(automaton.score("cold, cold running water water")).isCloseTo(2.0 / 8.0, within(1e-9));
+    }
+
+    @Test
+    void foldsCaseOfTextAndKeywords() {
+        KeywordAutomaton automaton = KeywordAutomaton.compile(Map.of("Running Water", 1.0, "CPR", 1.0));
+
+        assertThat(automaton.score("RUNNING WATER and cpr")).isEqualTo(1.0);
+        assertThat(automaton.score("rUnNiNg wAtEr")).isEqualTo(0.5);
+    }
+
+    @Test
+    void matchesNonAsciiKeywordsAndTreatsUnknownLettersAsPartOfWord() {
+        KeywordAutomaton automaton = KeywordAutomaton.compile(Map.of("화상*", 1.0, "찬물", 1.0, "brûlure", 1.0));
+
+        assertThat(automaton.score("팔에 화상을 입었어요")).isCloseTo(1.0 / 3.0, within(1e-9));
+        assertThat(automaton.score("찬물로 식히세요")).isZero();
+        assertThat(automaton.score("찬물, 10분")).isCloseTo(1.0 / 3.0, within(1e-9));
+        assertThat(automaton.score("BRÛLURE")).isCloseTo(1.0 / 3.0, within(1e-9));
+        assertThat(automaton.score("brûlures")).isZero();
+
+        KeywordAutomaton ascii = KeywordAutomaton.compile(Map.of("burn", 1.0));
+        // 사전에 없는 글자도 단어의 일부이므로 경계가 되지 않습니다.
+        assertThat(ascii.score("éburn")).isZero();
+        assertThat(ascii.score("café burn")).isEqualTo(1.0);
+    }
+
+    @Test
+    void weighsMatchedKeywords() {
+        KeywordAutomaton automaton = KeywordAutomaton.compile(Map.of("pressure", 3.0, "bandage*", 1.0));
+
+        assertThat(automaton.score("apply pressure")).isEqualTo(0.75);
+        assertThat(automaton.score("bandages")).isEqualTo(0.25);
+        assertThat(automaton.score("")).isZero();
+    }
+
+    @Test
+    void returnsZeroWhenNoKeywordHasWeight() {
+        assertThat(KeywordAutomaton.compile(Map.of()).score("anything")).isZero();
+        assertThat(KeywordAutomaton.compile(Map.of("burn", 0.0)).score("burn")).isZero();
+    }
+
+    @Test
+    void scoresLargeDictionariesLikeSmallOnes() {
+        Map<String, Double> keywords = new LinkedHashMap<>();
+        for (int i = 0; i < 70; i++) {
+            keywords.put("k" + i, 1.0);
+        }
+        keywords.put("warm*", 1.0);
+        KeywordAutomaton automaton = KeywordAutomaton.compile(keywords);
+
+        assertThat(automaton.score("K3, k65 and k69 k69; xk1 k1x warming")).isCloseTo(4.0 / 71.0, within(1e-9));
+        assertThat(automaton.score("k70")).isZero();
+    }
+}
@@ -0,0 +1,71 @@
+package com.gdgoc5.vitaltrip.first_aid.history;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChatHistoryCursorTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 1, 1, 9, 30, 15, 123_456_789);
+
+    @Test
+    void roundTripsThroughEncodedForm() {
+        ChatHistoryCursor cursor = new ChatHistoryCursor(CREATED_AT, UUID.fromString("0190f5a2-7c3e-7a11-8f00-1234567890ab"));
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+        assertThat(ChatHistoryCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @Test
+    void roundTripsTimesBeforeEpochAndUuidsWithHighBitSet() {
+        ChatHistoryCursor cursor = new ChatHistoryCursor(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 1), new UUID(-1L, Long.MIN_VALUE));
+
+        assertThat(ChatHistoryCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        String valid = new ChatHistoryCursor(CREATED_AT, UUID.randomUUID()).encode();
+
+        assertThatThrownBy(() -> ChatHistoryCursor.decode("not a cursor!"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ChatHistoryCursor.decode(valid.substring(0, valid.length() - 4)))
+                .isInstanceOf(IllegalArgumentException.class);
+        // 나노초 자리(8~11번째 바이트)가 음수인 커서
+        assertThatThrownBy(() -> ChatHistoryCursor.decode("AAAAAAAAAAD_____AAAAAAAAAAAAAAAAAAAAAA"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void breaksTiesAtEqualCreatedAtByUnsignedId() {
+        // DB는 BINARY(16)을 바이트 단위로 비교하므로 최상위 비트가 1인 id가 더 뒤에 옵니다.
+        ChatHistoryCursor low = new ChatHistoryCursor(CREATED_AT, new UUID(0x7FFF_FFFF_FFFF_FFFFL, 0));
+        ChatHistoryCursor high = new ChatHistoryCursor(CREATED_AT, new UUID(0x8000_0000_0000_0000L, 0));
+        ChatHistoryCursor highLeast = new ChatHistoryCursor(CREATED_AT, new UUID(0x8000_0000_0000_0000L, -1L));
+
+        assertThat(low.isBefore(high)).isTrue();
+        assertThat(high.isBefore(low)).isFalse();
+        assertThat(high.isBefore(highLeast)).isTrue();
+        assertThat(high.isBefore(high)).isFalse();
+
+        List<ChatHistoryCursor> sorted = new ArrayList<>(List.of(highLeast, high, low));
+        sorted.sort(ChatHistoryCursor.ORDER);
+        assertThat(sorted).containsExactly(low, high, highLeast);
+    }
+
+    @Test
+    void ordersByCreatedAtBeforeId() {
+        ChatHistoryCursor earlier = new ChatHistoryCursor(CREATED_AT, new UUID(-1L, -1L));
+        ChatHistoryCursor later = new ChatHistoryCursor(CREATED_AT.plusNanos(1), new UUID(0, 0));
+
+        assertThat(earlier.isBefore(later)).isTrue();
+    }
+}
@@ -0,0 +1,117 @@
+package com.gdgoc5.vitaltrip.first_aid.history;
+
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatHistoryResponse;
+import com.gdgoc5.vitaltrip.first_aid.dto.EmergencyChatMessageResponse;
+import com.gdgoc5.vitaltrip.first_aid.persistence.ChatWriteBehind;
+import com.gdgoc5.vitaltrip.first_aid.persistence.PendingChatMessage;
+import com.gdgoc5.vitaltrip.first_aid.repository.EmergencyChatMessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 저장된 메시지와 기록 대기 중인 메시지를 합쳐 페이지를 나누는 로직을 확인합니다.
+ */
+class ChatHistoryReaderTest {
+
+    private static final UUID SESSION_ID = UUID.fromString("0190f5a2-0000-7000-8000-000000000001");
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    private EmergencyChatMessageRepository messageRepository;
+    private ChatWriteBehind chatWriter;
+    private ChatHistoryReader reader;
+
+    @BeforeEach
+    void setUp() {
+        messageRepository = mock(EmergencyChatMessageRepository.class);
+        chatWriter = mock(ChatWriteBehind.class);
+        reader = new ChatHistoryReader(messageRepository, chatWriter, Schedulers.immediate(), 50, 200, 500);
+    }
+
+    @Test
+    void pendingMessagesStraddlingPageBoundaryAreReturnedOnceAcrossPages() {
+        PendingChatMessage m1 = message(1, 0);
+        PendingChatMessage m2 = message(2, 1);
+        PendingChatMessage m3 = message(3, 2);
+        PendingChatMessage m4 = message(4, 3);
+        // m1, m2는 기록됐고 m3, m4는 아직 큐에 있습니다.
+        when(messageRepository.findRows(eq(SESSION_ID), any(Limit.class))).thenReturn(List.of(row(m1), row(m2)));
+        when(chatWriter.pendingMessages(SESSION_ID)).thenReturn(List.of(m3, m4));
+
+        EmergencyChatHistoryResponse first = reader.page(SESSION_ID, null, 3).block();
+
+        assertThat(first.messages()).extracting(EmergencyChatMessageResponse::message).containsExactly("m1", "m2", "m3");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(ChatHistoryCursor.decode(first.nextCursor())).isEqualTo(ChatHistoryCursor.of(m3));
+
+        // m3는 아직 큐에 남아 있지만 커서 위치의 메시지이므로 다음 페이지에 다시 나오지 않아야 합니다.
+        when(messageRepository.findRowsAfter(eq(SESSION_ID), eq(m3.createdAt()), eq(m3.id()), any(Limit.class))).thenReturn(List.of());
+
+        EmergencyChatHistoryResponse second = reader.page(SESSION_ID, first.nextCursor(), 3).block();
+
+        assertThat(second.messages()).extracting(EmergencyChatMessageResponse::message).containsExactly("m4");
+        assertThat(second.hasNext()).isFalse();
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void messageWrittenWhileReadingIsNotDuplicated() {
+        PendingChatMessage m1 = message(1, 0);
+        PendingChatMessage m2 = message(2, 1);
+        // 대기 목록을 읽은 뒤 DB 조회 전에 기록이 끝나 양쪽에 모두 보이는 경우입니다.
+        when(chatWriter.pendingMessages(SESSION_ID)).thenReturn(List.of(m1, m2));
+        when(messageRepository.findRows(eq(SESSION_ID), any(Limit.class))).thenReturn(List.of(row(m1), row(m2)));
+
+        EmergencyChatHistoryResponse page = reader.page(SESSION_ID, null, 10).block();
+
+        assertThat(page.messages()).extracting(EmergencyChatMessageResponse::message).containsExactly("m1", "m2");
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    void pendingMessagesWithEqualCreatedAtAreOrderedLikeTheDatabase() {
+        // 같은 시각이면 id를 부호 없는 바이트 순서로 비교하므로 최상위 비트가 1인 id가 뒤에 옵니다.
+        PendingChatMessage stored = new PendingChatMessage(new UUID(0x8000_0000_0000_0000L, 0), SESSION_ID, "USER", "stored", BASE);
+        PendingChatMessage pending = new PendingChatMessage(new UUID(0x7000_0000_0000_0000L, 0), SESSION_ID, "ASSISTANT", "pending", BASE);
+        when(messageRepository.findRows(eq(SESSION_ID), any(Limit.class))).thenReturn(List.of(row(stored)));
+        when(chatWriter.pendingMessages(SESSION_ID)).thenReturn(List.of(pending));
+
+        EmergencyChatHistoryResponse page = reader.page(SESSION_ID, null, 1).block();
+
+        assertThat(page.messages()).extracting(EmergencyChatMessageResponse::message).containsExactly("pending");
+        assertThat(page.hasNext()).isTrue();
+    }
+
+    @Test
+    void pendingMessagesBeforeCursorAreSkipped() {
+        PendingChatMessage m1 = message(1, 0);
+        PendingChatMessage m2 = message(2, 1);
+        ChatHistoryCursor afterM1 = ChatHistoryCursor.of(m1);
+        when(messageRepository.findRowsAfter(eq(SESSION_ID), eq(m1.createdAt()), eq(m1.id()), any(Limit.class))).thenReturn(List.of());
+        when(chatWriter.pendingMessages(SESSION_ID)).thenReturn(List.of(m1, m2));
+
+        EmergencyChatHistoryResponse page = reader.page(SESSION_ID, afterM1.encode(), 10).block();
+
+        assertThat(page.messages()).extracting(EmergencyChatMessageResponse::message).containsExactly("m2");
+    }
+
+    private static PendingChatMessage message(int index, int secondsAfterBase) {
+        UUID id = new UUID(0x0190_f5a2_0000_7000L | index, 0x8000_0000_0000_0000L);
+        return new PendingChatMessage(id, SESSION_ID, index % 2 == 1 ? "USER" : "ASSISTANT", "m" + index, BASE.plusSeconds(secondsAfterBase));
+    }
+
+    private static ChatMessageRow row(PendingChatMessage message) {
+        return ChatMessageRow.from(message);
+    }
+}
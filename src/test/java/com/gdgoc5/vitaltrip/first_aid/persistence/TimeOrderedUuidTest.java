@@ -0,0 +1,76 @@
+package com.gdgoc5.vitaltrip.first_aid.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedUuidTest {
+
+    @Test
+    void setsVersionAndVariantAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = TimeOrderedUuid.next();
+        long after = System.currentTimeMillis();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        // 같은 밀리초에 4096개를 넘기면 다음 밀리초를 빌리므로(다른 테스트가 앞당겨 두었을 수 있음) 여유를 둡니다.
+        assertThat(uuid.getMostSignificantBits() >>> 16).isBetween(before, after + 1_000);
+    }
+
+    @Test
+    void increasesStrictlyInUnsignedByteOrder() {
+        // 한 밀리초의 카운터(4096)를 넘길 만큼 만들어 다음 밀리초를 빌리는 경우도 지나가게 합니다.
+        UUID previous = TimeOrderedUuid.next();
+        for (int i = 0; i < 50_000; i++) {
+            UUID current = TimeOrderedUuid.next();
+            assertThat(compareUnsigned(previous, current)).as("%s < %s", previous, current).isNegative();
+            previous = current;
+        }
+    }
+
+    @Test
+    void staysUniqueAcrossThreads() throws Exception {
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<UUID>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    List<UUID> ids = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(TimeOrderedUuid.next());
+                    }
+                    return ids;
+                }));
+            }
+            Set<UUID> all = new HashSet<>();
+            for (Future<List<UUID>> future : futures) {
+                List<UUID> ids = future.get();
+                // 스레드마다 받은 순서대로도 증가해야 합니다.
+                for (int i = 1; i < ids.size(); i++) {
+                    assertThat(compareUnsigned(ids.get(i - 1), ids.get(i))).isNegative();
+                }
+                all.addAll(ids);
+            }
+            assertThat(all).hasSize(threads * perThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int compareUnsigned(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,120 @@
+package com.gdgoc5.vitaltrip.first_aid.prompt;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gdgoc5.vitaltrip.config.GeminiProperties;
+import com.gdgoc5.vitaltrip.first_aid.context.ConversationHistory;
+import com.gdgoc5.vitaltrip.first_aid.context.ConversationTurn;
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 직접 구현한 JSON 이스케이프와 UTF-8 인코딩 결과를 Jackson으로 다시 읽어 원래 문자열과 비교합니다.
+ */
+class GeminiPromptTest {
+
+    private static final String TRICKY = "He said \"stop\" \\ C:\\temp\\ \n\r\t\b\f \u0000\u0001\u001f\u007f"
+            + " é ß ü Ω (2바이트) 한국어 € ✓ \u2028 (3바이트) 🔥👨‍👩‍👧 (서로게이트 쌍) end";
+    private static final String UNPAIRED = "low \uDE00 first, high \uD83D alone, reversed \uDE00\uD83D, high at end \uD83D";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PromptTemplateEngine engine;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        engine = new PromptTemplateEngine(new DefaultResourceLoader(), objectMapper, new GeminiProperties(), "v1");
+        engine.load();
+    }
+
+    @Test
+    void encodesUserMessageThatJsonParsesBackToSameText() throws IOException {
+        GeminiPrompt prompt = engine.render(PromptKind.ADVICE, EmergencyType.BURNS, TRICKY);
+
+        JsonNode body = parse(prompt, null);
+
+        assertThat(body.at("/systemInstruction/parts/0/text").asText()).isEqualTo(prompt.template().getSystemText());
+        assertThat(body.get("contents")).hasSize(1);
+        assertThat(body.at("/contents/0/role").asText()).isEqualTo("user");
+        assertThat(body.at("/contents/0/parts/0/text").asText()).endsWith("- User Message: \"" + TRICKY + "\"");
+    }
+
+    @Test
+    void encodesHistorySummaryAndCachedContentName() throws IOException {
+        ConversationHistory history = new ConversationHistory("Earlier: \"burned\" \\ hand\n화상 🔥", List.of(
+                new ConversationTurn(TRICKY, "Cool it \"now\"\t🔥"),
+                new ConversationTurn("두 번째\u0007질문", "답변 ✓")));
+        GeminiPrompt prompt = engine.render(PromptKind.FOLLOW_UP, EmergencyType.BURNS, history, "still \"hurts\"");
+
+        JsonNode body = parse(prompt, "cachedContents/a\"b\\c");
+
+        assertThat(body.get("cachedContent").asText()).isEqualTo("cachedContents/a\"b\\c");
+        assertThat(body.has("systemInstruction")).isFalse();
+        JsonNode contents = body.get("contents");
+        assertThat(contents).hasSize(5);
+        assertThat(contents.at("/0/role").asText()).isEqualTo("user");
+        assertThat(contents.at("/0/parts/0/text").asText())
+                .isEqualTo("Summary of earlier turns in this consultation:\nEarlier: \"burned\" \\ hand\n화상 🔥");
+        assertThat(contents.at("/0/parts/1/text").asText()).isEqualTo(TRICKY);
+        assertThat(contents.at("/1/role").asText()).isEqualTo("model");
+        assertThat(contents.at("/1/parts/0/text").asText()).isEqualTo("Cool it \"now\"\t🔥");
+        assertThat(contents.at("/2/parts/0/text").asText()).isEqualTo("두 번째\u0007질문");
+        assertThat(contents.at("/3/parts/0/text").asText()).isEqualTo("답변 ✓");
+        assertThat(contents.at("/4/parts/0/text").asText()).endsWith("- User Message: \"still \"hurts\"\"");
+    }
+
+    @Test
+    void replacesUnpairedSurrogatesWithReplacementCharacter() throws IOException {
+        GeminiPrompt prompt = engine.render(PromptKind.ADVICE, EmergencyType.BURNS, UNPAIRED);
+
+        JsonNode body = parse(prompt, null);
+
+        assertThat(body.at("/contents/0/parts/0/text").asText())
+                .endsWith("- User Message: \"low \uFFFD first, high \uFFFD alone, reversed \uFFFD\uFFFD, high at end \uFFFD\"");
+    }
+
+    @Test
+    void roundTripsRandomText() throws IOException {
+        Random random = new Random(42);
+        for (int n = 0; n < 500; n++) {
+            StringBuilder message = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int i = 0; i < length; i++) {
+                switch (random.nextInt(5)) {
+                    case 0 -> message.append((char) random.nextInt(0x80));
+                    case 1 -> message.append((char) (0x80 + random.nextInt(0x800 - 0x80)));
+                    case 2 -> message.append((char) (0x800 + random.nextInt(0xD800 - 0x800)));
+                    case 3 -> message.append((char) (0xE000 + random.nextInt(0x10000 - 0xE000)));
+                    default -> message.appendCodePoint(0x10000 + random.nextInt(0x10FFFF - 0x10000));
+                }
+            }
+            String expected = message.toString();
+            GeminiPrompt prompt = engine.render(PromptKind.ADVICE, EmergencyType.CPR, expected);
+
+            assertThat(parse(prompt, null).at("/contents/0/parts/0/text").asText())
+                    .endsWith("- User Message: \"" + expected + "\"");
+        }
+    }
+
+    private JsonNode parse(GeminiPrompt prompt, String cachedContent) throws IOException {
+        DataBuffer buffer = prompt.encode(DefaultDataBufferFactory.sharedInstance, cachedContent);
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            // Jackson은 잘못된 UTF-8과 이스케이프되지 않은 제어 문자를 거부하므로 파싱 성공 자체가 검증입니다.
+            return objectMapper.readTree(bytes);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.gdgoc5.vitaltrip.first_aid.retention;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatRetentionJobTest {
+
+    private static final List<YearMonth> PARTITIONS = List.of(
+            YearMonth.of(2025, 12), YearMonth.of(2026, 1), YearMonth.of(2026, 2), YearMonth.of(2026, 3));
+
+    @Test
+    void expiresOnlyMonthsThatEndedBeforeCutoff() {
+        assertThat(ChatRetentionJob.expiredMonths(PARTITIONS, LocalDateTime.of(2026, 3, 15, 12, 0)))
+                .containsExactly(YearMonth.of(2025, 12), YearMonth.of(2026, 1), YearMonth.of(2026, 2));
+    }
+
+    @Test
+    void expiresMonthWhoseUpperBoundEqualsCutoff() {
+        // 2월 파티션의 상한은 3월 1일 0시(미포함)이므로 모든 행이 cutoff보다 오래되었습니다.
+        assertThat(ChatRetentionJob.expiredMonths(PARTITIONS, LocalDateTime.of(2026, 3, 1, 0, 0)))
+                .containsExactly(YearMonth.of(2025, 12), YearMonth.of(2026, 1), YearMonth.of(2026, 2));
+    }
+
+    @Test
+    void keepsMonthThatStillHasRowsAfterCutoff() {
+        assertThat(ChatRetentionJob.expiredMonths(PARTITIONS, LocalDateTime.of(2026, 2, 28, 23, 59, 59, 999_999_999)))
+                .containsExactly(YearMonth.of(2025, 12), YearMonth.of(2026, 1));
+    }
+
+    @Test
+    void expiresNothingWhenCutoffIsBeforeOldestPartitionEnds() {
+        assertThat(ChatRetentionJob.expiredMonths(PARTITIONS, LocalDateTime.of(2025, 12, 31, 0, 0))).isEmpty();
+    }
+
+    @Test
+    void keepsPartitionOrder() {
+        List<YearMonth> expired = ChatRetentionJob.expiredMonths(PARTITIONS, LocalDateTime.of(2027, 1, 1, 0, 0));
+
+        assertThat(expired).isEqualTo(PARTITIONS);
+    }
+}
@@ -0,0 +1,158 @@
+package com.gdgoc5.vitaltrip.first_aid.search;
+
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyManual;
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ManualSearchIndexTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private final ManualSearchIndex index = ManualSearchIndex.build(List.of(
+            manual(1, EmergencyType.POISONING, "Poisoning",
+                    "If someone swallowed bleach or another household chemical, do not induce vomiting.",
+                    "Call poison control. Rinse the mouth with water.",
+                    "Keep chemicals <out of reach> & locked."),
+            manual(2, EmergencyType.BURNS, "Burns",
+                    "Cool the burn under cool running water for 20 minutes.",
+                    "Cover with a clean dressing.",
+                    "Do not apply ice."),
+            manual(3, EmergencyType.CHOKING, "Choking",
+                    "If a child swallowed a small object and cannot breathe, give back blows.",
+                    "Give five back blows between the shoulder blades.",
+                    null),
+            manual(4, EmergencyType.BLEEDING, "Bleeding",
+                    "Apply firm pressure to the wound.",
+                    IntStream.range(0, 60)
+                            .mapToObj(i -> i == 40 ? "tourniquet" : "word" + i)
+                            .collect(Collectors.joining(" ")),
+                    "Never burn the wound to stop bleeding.")), null);
+
+    @Test
+    void ranksManualThatMatchesMoreQueryTermsFirst() {
+        List<ManualSearchHit> hits = index.search("my kid swallowed bleach", 5);
+
+        assertThat(hits).extracting(hit -> hit.manual().getEmergencyType())
+                .containsExactly(EmergencyType.POISONING, EmergencyType.CHOKING);
+        assertThat(hits.get(0).score()).isGreaterThan(hits.get(1).score());
+    }
+
+    @Test
+    void ranksTitleMatchAboveBodyMatch() {
+        List<ManualSearchHit> hits = index.search("burn", 5);
+
+        assertThat(hits).extracting(hit -> hit.manual().getEmergencyType())
+                .containsExactly(EmergencyType.BURNS, EmergencyType.BLEEDING);
+    }
+
+    @Test
+    void toleratesTypos() {
+        // "bleech"는 트라이그램으로는 bleed(Bleeding)에 더 가깝지만 편집 거리로는 bleach가 가장 가깝습니다.
+        List<ManualSearchHit> hits = index.search("bleech", 5);
+
+        assertThat(hits).extracting(hit -> hit.manual().getEmergencyType()).containsExactly(EmergencyType.POISONING);
+        assertThat(hits.get(0).snippet()).contains("<em>bleach</em>");
+        assertThat(index.search("chokign", 5)).extracting(hit -> hit.manual().getEmergencyType())
+                .containsExactly(EmergencyType.CHOKING);
+    }
+
+    @Test
+    void countsTranspositionAsSingleEdit() {
+        assertThat(ManualSearchIndex.editDistance("bleech", "bleach")).isEqualTo(1);
+        assertThat(ManualSearchIndex.editDistance("bleech", "bleed")).isEqualTo(2);
+        assertThat(ManualSearchIndex.editDistance("choking", "chokign")).isEqualTo(1);
+        assertThat(ManualSearchIndex.editDistance("", "abc")).isEqualTo(3);
+        assertThat(ManualSearchIndex.editDistance("burn", "burn")).isZero();
+    }
+
+    @Test
+    void expandsLastWordAsPrefixOnlyWhileTyping() {
+        assertThat(index.search("swa", 5)).extracting(hit -> hit.manual().getEmergencyType())
+                .containsExactlyInAnyOrder(EmergencyType.POISONING, EmergencyType.CHOKING);
+        // 끝이 글자가 아니면 입력이 끝난 단어로 보고, "swa"는 오타 허용 기준에도 못 미칩니다.
+        assertThat(index.search("swa.", 5)).isEmpty();
+    }
+
+    @Test
+    void filtersByType() {
+        assertThat(index.search("swallowed", EmergencyType.CHOKING, 5))
+                .extracting(hit -> hit.manual().getEmergencyType())
+                .containsExactly(EmergencyType.CHOKING);
+    }
+
+    @Test
+    void highlightsMatchedWordsInSnippet() {
+        List<ManualSearchHit> hits = index.search("bleach", 1);
+
+        assertThat(hits.get(0).snippet())
+                .isEqualTo("If someone swallowed <em>bleach</em> or another household chemical, do not induce vomiting");
+    }
+
+    @Test
+    void escapesHtmlInSnippet() {
+        List<ManualSearchHit> hits = index.search("locked", 1);
+
+        assertThat(hits.get(0).snippet()).isEqualTo("Keep chemicals &lt;out of reach&gt; &amp; <em>locked</em>");
+    }
+
+    @Test
+    void windowsLongSnippetAroundMatch() {
+        String snippet = index.search("tourniquet", 1).get(0).snippet();
+
+        assertThat(snippet).startsWith("…word17 word18 ").endsWith("word39 <em>tourniquet</em>…");
+        assertThat(snippet.split(" ")).hasSize(24);
+    }
+
+    @Test
+    void foldsCaseIndependentlyOfDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            ManualSearchIndex turkish = ManualSearchIndex.build(List.of(
+                    manual(1, EmergencyType.POISONING, "Irrigate the eyes", "IRRIGATE with water for 15 minutes.", null, null)), null);
+
+            assertThat(turkish.search("IRRIGATE", 5)).hasSize(1);
+            assertThat(turkish.search("irrigate", 5)).hasSize(1);
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void returnsNothingForEmptyQueryOrIndex() {
+        assertThat(index.search("  ", 5)).isEmpty();
+        assertThat(index.search("bleach", 0)).isEmpty();
+        assertThat(ManualSearchIndex.EMPTY.search("bleach", 5)).isEmpty();
+    }
+
+    @Test
+    void tokenizerStemsCommonSuffixesAndDropsStopwords() {
+        assertThat(ManualTokenizer.tokenize("My child swallowed the pills"))
+                .extracting(ManualTokenizer.Token::term)
+                .containsExactly("child", "swallow", "pill");
+        assertThat(ManualTokenizer.stem("injuries")).isEqualTo("injury");
+        assertThat(ManualTokenizer.stem("bleeding")).isEqualTo("bleed");
+        assertThat(ManualTokenizer.stem("glass")).isEqualTo("glass");
+    }
+
+    private static EmergencyManual manual(int id, EmergencyType type, String title, String description, String steps, String warning) {
+        EmergencyManual manual = new EmergencyManual();
+        ReflectionTestUtils.setField(manual, "id", id);
+        ReflectionTestUtils.setField(manual, "emergencyType", type);
+        ReflectionTestUtils.setField(manual, "title", title);
+        ReflectionTestUtils.setField(manual, "description", description);
+        ReflectionTestUtils.setField(manual, "steps", steps);
+        ReflectionTestUtils.setField(manual, "warning", warning);
+        ReflectionTestUtils.setField(manual, "updatedAt", UPDATED_AT);
+        return manual;
+    }
+}
@@ -0,0 +1,161 @@
+package com.gdgoc5.vitaltrip.first_aid.triage;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gdgoc5.vitaltrip.first_aid.entity.EmergencyType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 응급 유형 분류기 오프라인 평가 도구입니다. 서버와 같은 학습 데이터(시드 매뉴얼, 키워드 사전, 사용자 표현 예시)로 모델을 만들고
+ * src/test/resources/triage/evaluation.tsv로 정확도, 신뢰도 임계값별 적용 비율, 분류 시간을 출력합니다.
+ *
+ * <p>./gradlew triageEvaluation -Pthreshold=0.5 로 실행합니다. 매뉴얼이나 예시, {@link TriageModel}의 상수를 바꿀 때 결과를 비교합니다.
+ */
+public class TriageEvaluation {
+
+    private static final Pattern SEED_ROW = Pattern.compile("\\(\\s*\\d+\\s*,\\s*'([A-Z_]+)'");
+    private static final Pattern SQL_STRING = Pattern.compile("'((?:[^']|'')*)'");
+    private static final double[] THRESHOLDS = {0.3, 0.4, 0.5, 0.6, 0.7, 0.8};
+    private static final int LATENCY_ROUNDS = 2_000;
+
+    public static void main(String[] args) throws IOException {
+        double threshold = args.length > 0 ? Double.parseDouble(args[0]) : 0.5;
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        TriageCorpus corpus = new TriageCorpus()
+                .addKeywords(objectMapper.readValue(resource("confidence-keywords.json"), new TypeReference<Map<EmergencyType, Map<String, Double>>>() {}))
+                .addExamples(objectMapper.readValue(resource("triage-examples.json"), new TypeReference<Map<EmergencyType, List<String>>>() {}));
+        int manuals = addSeedManuals(corpus, new String(resource("emergency_manual_seed.sql").readAllBytes(), StandardCharsets.UTF_8));
+        TriageModel model = corpus.train();
+        List<Sample> samples = readSamples();
+
+        int correct = 0;
+        int inTop = 0;
+        Map<EmergencyType, int[]> perType = new EnumMap<>(EmergencyType.class);
+        List<String> errors = new ArrayList<>();
+        List<TriagePrediction> predictions = new ArrayList<>();
+        for (Sample sample : samples) {
+            TriagePrediction prediction = model.predict(sample.message());
+            predictions.add(prediction);
+            int[] counts = perType.computeIfAbsent(sample.expected(), type -> new int[2]);
+            counts[1]++;
+            if (prediction.emergencyType() == sample.expected()) {
+                correct++;
+                counts[0]++;
+            } else {
+                errors.add(String.format("  %-15s -> %-15s %.2f  %s", sample.expected(), prediction.emergencyType(), prediction.confidence(), sample.message()));
+            }
+            if (prediction.candidates().stream().anyMatch(candidate -> candidate.emergencyType() == sample.expected())) {
+                inTop++;
+            }
+        }
+
+        System.out.printf("학습: 매뉴얼 %d건, 평가: %d건%n", manuals, samples.size());
+        System.out.printf("정확도 top-1 %.3f, top-3 %.3f%n", (double) correct / samples.size(), (double) inTop / samples.size());
+
+        System.out.println("임계값별 (적용 비율 / 적용한 것 중 정확도):");
+        for (double t : THRESHOLDS) {
+            printThreshold(t, samples, predictions, t == threshold);
+        }
+        if (!contains(THRESHOLDS, threshold)) {
+            printThreshold(threshold, samples, predictions, true);
+        }
+
+        System.out.println("유형별 재현율:");
+        perType.forEach((type, counts) -> System.out.printf("  %-15s %d/%d%n", type, counts[0], counts[1]));
+        if (!errors.isEmpty()) {
+            System.out.println("오분류:");
+            errors.forEach(System.out::println);
+        }
+
+        for (int round = 0; round < LATENCY_ROUNDS; round++) {
+            for (Sample sample : samples) {
+                model.predict(sample.message());
+            }
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < LATENCY_ROUNDS; round++) {
+            for (Sample sample : samples) {
+                model.predict(sample.message());
+            }
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / ((long) LATENCY_ROUNDS * samples.size());
+        System.out.printf("분류 시간: 평균 %.1fµs%n", micros);
+    }
+
+    private static void printThreshold(double threshold, List<Sample> samples, List<TriagePrediction> predictions, boolean selected) {
+        int accepted = 0;
+        int correct = 0;
+        for (int i = 0; i < samples.size(); i++) {
+            if (predictions.get(i).confidence() >= threshold) {
+                accepted++;
+                if (predictions.get(i).emergencyType() == samples.get(i).expected()) {
+                    correct++;
+                }
+            }
+        }
+        System.out.printf("  %.2f: %.3f / %.3f%s%n", threshold, (double) accepted / samples.size(),
+                accepted == 0 ? 0.0 : (double) correct / accepted, selected ? "  <- 선택" : "");
+    }
+
+    /**
+     * 시드 SQL의 각 행 (id, 'TYPE', 'title', 'description', 'steps', 'warning', NOW())에서 문자열 값을 읽습니다.
+     */
+    private static int addSeedManuals(TriageCorpus corpus, String sql) {
+        int count = 0;
+        Matcher row = SEED_ROW.matcher(sql);
+        while (row.find()) {
+            EmergencyType type = EmergencyType.valueOf(row.group(1));
+            Matcher value = SQL_STRING.matcher(sql);
+            value.region(row.end(), sql.length());
+            String[] fields = new String[4];
+            for (int i = 0; i < fields.length && value.find(); i++) {
+                fields[i] = value.group(1).replace("''", "'").replace("\\n", "\n");
+            }
+            corpus.addManual(type, fields[0], fields[1], fields[2], fields[3]);
+            count++;
+        }
+        return count;
+    }
+
+    private static List<Sample> readSamples() throws IOException {
+        List<Sample> samples = new ArrayList<>();
+        String text = new String(resource("triage/evaluation.tsv").readAllBytes(), StandardCharsets.UTF_8);
+        for (String line : text.split("\n")) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] columns = line.split("\t", 2);
+            samples.add(new Sample(EmergencyType.valueOf(columns[0].trim()), columns[1].trim()));
+        }
+        return samples;
+    }
+
+    private static InputStream resource(String name) throws IOException {
+        InputStream in = TriageEvaluation.class.getClassLoader().getResourceAsStream(name);
+        if (in == null) {
+            throw new IOException("리소스를 찾을 수 없습니다: " + name);
+        }
+        return in;
+    }
+
+    private static boolean contains(double[] values, double value) {
+        for (double v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Sample(EmergencyType expected, String message) {}
+}